@@ -0,0 +1,49 @@
+package proj3;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Runs every SequenceTest against the array storage engine, plus tests
+ * for the capacity of the array itself.
+ */
+public class ArraySequenceTest extends SequenceTest {
+
+    @Override
+    protected Sequence.Storage storage(){
+        return Sequence.Storage.ARRAY;
+    }
+
+    @Test //the array is preallocated to the initial capacity and grows with the sequence
+    public void testArrayCapacity(){
+        ArrayStorage<String> storage = new ArrayStorage<>(5);
+        assertEquals(5, storage.capacity());
+        storage.ensureCapacity(26);
+        assertEquals(26, storage.capacity());
+        storage.insertAfter(null, "A");
+        storage.trimToSize();
+        assertEquals(1, storage.capacity());
+        storage.insertAfter(null, "B");
+        assertEquals(3, storage.capacity());
+        assertEquals(2, storage.size());
+    }
+
+    @Test //getStorage reports the engine chosen at construction
+    public void testGetStorage(){
+        assertEquals(Sequence.Storage.ARRAY, new Sequence(Sequence.Storage.ARRAY).getStorage());
+        assertEquals(Sequence.Storage.LINKED, new Sequence().getStorage());
+    }
+
+    @Test //jumping around and reading is done in place in the array
+    public void testArrayReadAfterEdits(){
+        Sequence s = new Sequence(2, storage());
+        s.addAfter("A");
+        s.addAfter("C");
+        s.addBefore("B");
+        s.start();
+        s.removeCurrent();
+        s.end();
+        assertEquals("C", s.getCurrent());
+        assertEquals("{B, >C} (capacity = 5)", s.toString());
+    }
+}
@@ -0,0 +1,208 @@
+package proj3;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Sequence storage in a single array whose length is the Sequence's
+ * capacity. Reading the current element and jumping to any position are
+ * constant time; inserting and removing shift the elements after the cursor.
+ * Suited to read-heavy sequences.
+ *
+ * Invariants of the ArrayStorage class:
+ *  1. The elements are in items[0] to items[size-1]; items[size] onward are null.
+ *  2. size <= items.length
+ */
+class ArrayStorage<T> extends SequenceStorage<T>
+{
+    private final int EMPTY = 0;
+
+    private Object[] items;
+    private int size;
+    private int modCount;
+
+    /**
+     * Creates an empty array storage.
+     * @param initialCapacity the length of the array to preallocate
+     */
+    ArrayStorage(int initialCapacity)
+    {
+        this.items = new Object[initialCapacity];
+        this.size = EMPTY;
+    }
+
+
+    int size()
+    {
+        return this.size;
+    }
+
+
+    /**
+     * @return the number of elements the array can hold without growing
+     */
+    int capacity()
+    {
+        return this.items.length;
+    }
+
+
+    Cursor<T> cursorAt(int index)
+    {
+        return new IndexCursor(index);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    T get(int index)
+    {
+        return (T) this.items[index];
+    }
+
+
+    Cursor<T> insertBefore(Cursor<T> cursor, T value)
+    {
+        int index = EMPTY;
+        if(cursor != null){
+            index = cursor.index();
+        }
+        insertAt(index, value);
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<T> insertAfter(Cursor<T> cursor, T value)
+    {
+        int index = size();
+        if(cursor != null){
+            index = cursor.index() + 1;
+        }
+        insertAt(index, value);
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<T> remove(Cursor<T> cursor)
+    {
+        int index = cursor.index();
+        System.arraycopy(this.items, index + 1, this.items, index, this.size - index - 1);
+        this.size--;
+        this.items[this.size] = null;
+        this.modCount++;
+        if(index == this.size){
+            return null;
+        }
+        return new IndexCursor(index);
+    }
+
+
+    void clear()
+    {
+        Arrays.fill(this.items, 0, this.size, null);
+        this.size = EMPTY;
+        this.modCount++;
+    }
+
+
+    SequenceStorage<T> copy()
+    {
+        ArrayStorage<T> copy = new ArrayStorage<>(EMPTY);
+        copy.items = this.items.clone();
+        copy.size = this.size;
+        return copy;
+    }
+
+
+    void appendAll(SequenceStorage<T> other)
+    {
+        if(other instanceof ArrayStorage){
+            ArrayStorage<T> otherArray = (ArrayStorage<T>) other;
+            int otherSize = otherArray.size;
+            ensureCapacity(this.size + otherSize);
+            System.arraycopy(otherArray.items, 0, this.items, this.size, otherSize);
+            this.size += otherSize;
+            this.modCount++;
+        }else{
+            super.appendAll(other);
+        }
+    }
+
+
+    void appendAll(T[] items)
+    {
+        ensureCapacity(this.size + items.length);
+        System.arraycopy(items, 0, this.items, this.size, items.length);
+        this.size += items.length;
+        this.modCount++;
+    }
+
+
+    void ensureCapacity(int minCapacity)
+    {
+        if(this.items.length < minCapacity){
+            this.items = Arrays.copyOf(this.items, minCapacity);
+        }
+    }
+
+
+    void trimToSize()
+    {
+        if(this.items.length > this.size){
+            this.items = Arrays.copyOf(this.items, this.size);
+        }
+    }
+
+
+    public Iterator<T> iterator()
+    {
+        return new ArrayIterator();
+    }
+
+
+    @SuppressWarnings("unchecked")
+    public Spliterator<T> spliterator()
+    {
+        return (Spliterator<T>) Spliterators.spliterator(this.items, 0, this.size, Spliterator.ORDERED);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private class ArrayIterator implements Iterator<T>
+    {
+        private int nextIndex = EMPTY;
+        private int expectedModCount = modCount;
+
+        public boolean hasNext()
+        {
+            return nextIndex < size;
+        }
+
+        public T next()
+        {
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextIndex >= size){
+                throw new NoSuchElementException();
+            }
+            T item = get(nextIndex);
+            nextIndex++;
+            return item;
+        }
+    }
+
+    private void insertAt(int index, T value)
+    {
+        if(this.size == this.items.length){
+            ensureCapacity(2 * this.items.length + 1);
+        }
+        System.arraycopy(this.items, index, this.items, index + 1, this.size - index);
+        this.items[index] = value;
+        this.size++;
+        this.modCount++;
+    }
+}
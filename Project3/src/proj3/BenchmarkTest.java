@@ -0,0 +1,550 @@
+package proj3;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit benchmarks for the operations that have to scale to large inputs.
+ * Each one would take far longer than the timeout if it were quadratic.
+ */
+public class BenchmarkTest {
+
+    @Rule //a benchmark will fail if it takes longer than 1 second to run
+    public Timeout timeout = Timeout.seconds(1);
+
+    private final int MILLION = 1000000;
+
+    /**
+     * collects the garbage left by a benchmark so that it is not charged
+     * to whichever test happens to run next under a tighter timeout
+     */
+    @After
+    public void collectGarbage(){
+        System.gc();
+    }
+
+    @Test //1M appends to a LinkedList run in linear time
+    public void linkedListInsertAtEndMillion(){
+        LinkedList ll = new LinkedList();
+
+        for(int i = 0; i < MILLION; i++){
+            ll.insertAtEnd("X");
+        }
+        ll.insertAtEnd("Y");
+
+        assertEquals(MILLION + 1, ll.getLength());
+        assertEquals("Y", ll.getDataAtIndex(MILLION));
+    }
+
+    @Test //cloning does not allocate storage of its own, so 10k clones of a sequence with capacity 1M take constant time each
+    public void cloneLargeCapacityTenThousand(){
+        for(Sequence.Storage storage: new Sequence.Storage[] {Sequence.Storage.ARRAY, Sequence.Storage.GAP_BUFFER, Sequence.Storage.OFF_HEAP}){
+            Sequence s = new Sequence(MILLION, storage);
+            s.addAfter("A");
+            s.addAfter("B");
+            Sequence copy = s;
+            for(int i = 0; i < 10000; i++){
+                copy = s.clone();
+            }
+            copy.addAfter("C");
+
+            assertEquals("{A, >B} (capacity = " + MILLION + ")", s.toString());
+            assertEquals("{A, B, >C} (capacity = " + MILLION + ")", copy.toString());
+        }
+    }
+
+    @Test //1M appends through Sequence.addAfter with no current element run in linear time
+    public void sequenceAddAfterNoCurrentMillion(){
+        Sequence s = new Sequence();
+
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter("X");
+            s.advance();
+        }
+
+        assertEquals(MILLION, s.size());
+        assertFalse(s.isCurrent());
+    }
+
+    @Test //1M removals from the tail run in linear time
+    public void linkedListRemoveLastMillion(){
+        LinkedList ll = new LinkedList();
+        for(int i = 0; i < MILLION; i++){
+            ll.insertAtHead("X");
+        }
+
+        while(!ll.isEmpty()){
+            ll.removeLast();
+        }
+
+        assertEquals(0, ll.getLength());
+    }
+
+    @Test //a backward cursor scan over 1M elements runs in linear time
+    public void sequenceRetreatMillion(){
+        Sequence s = new Sequence();
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter("X");
+        }
+
+        int count = 0;
+        s.end();
+        while(s.isCurrent()){
+            s.retreat();
+            count++;
+        }
+
+        assertEquals(MILLION, count);
+    }
+
+    @Test //cloning a 1M element Sequence and then changing the clone runs in linear time
+    public void sequenceCloneMillion(){
+        Sequence s = new Sequence();
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter("X");
+        }
+        s.start();
+        s.advance();
+
+        Sequence copy = s.clone();
+        copy.addAfter("Y");
+
+        assertEquals(MILLION + 1, copy.size());
+        assertEquals(2, copy.getCurrentIndex());
+        assertEquals(MILLION, s.size());
+    }
+
+    @Test //100k clones of a 1M element Sequence that are only read take constant time each
+    public void sequenceCloneReadOnly(){
+        Sequence s = new Sequence();
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter("X");
+        }
+
+        for(int i = 0; i < 100000; i++){
+            Sequence copy = s.clone();
+            copy.start();
+            assertEquals("X", copy.getCurrent());
+        }
+        s.addAfter("Y");
+
+        assertEquals(MILLION + 1, s.size());
+    }
+
+    @Test //writing a 1M element Sequence as a string runs in linear time
+    public void sequenceToStringMillion(){
+        Sequence s = new Sequence();
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter("X");
+        }
+
+        String sequenceString = s.toString();
+
+        assertTrue(sequenceString.endsWith("X, >X} (capacity = " + s.getCapacity() + ")"));
+    }
+
+    @Test //with the index, 200k lookups and removals by value run in linear time
+    public void indexedLinkedListRemoveGivenString(){
+        int size = 200000;
+        LinkedList ll = new LinkedList(true);
+        for(int i = 0; i < size; i++){
+            ll.insertAtEnd(Integer.toString(i));
+        }
+
+        for(int i = size - 1; i >= 0; i--){
+            String data = Integer.toString(i);
+            assertTrue(ll.containsData(data));
+            ll.removeGivenString(data);
+        }
+
+        assertTrue(ll.isEmpty());
+    }
+
+    @Test //1M appends and a full cursor scan over array storage run in linear time
+    public void arraySequenceAddAfterMillion(){
+        Sequence s = new Sequence(Sequence.Storage.ARRAY);
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter("X");
+        }
+
+        int count = 0;
+        s.start();
+        while(s.isCurrent()){
+            s.getCurrent();
+            s.advance();
+            count++;
+        }
+
+        assertEquals(MILLION, count);
+    }
+
+    @Test //1M insertions around a cursor in the middle of gap buffer storage run in linear time
+    public void gapBufferEditAtCursorMillion(){
+        Sequence s = new Sequence(Sequence.Storage.GAP_BUFFER);
+        s.addAfter("A");
+        s.addAfter("Z");
+        s.start();
+        for(int i = 0; i < MILLION / 2; i++){
+            s.addAfter("X");
+            s.addBefore("Y");
+        }
+
+        assertEquals(MILLION + 2, s.size());
+        assertEquals("Y", s.getCurrent());
+    }
+
+    @Test //1M appends to unrolled storage and comparing it with a copy run in linear time
+    public void unrolledSequenceEqualsMillion(){
+        Sequence s = new Sequence(Sequence.Storage.UNROLLED);
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter("X");
+        }
+        Sequence copy = s.clone();
+        copy.addAfter("Y");
+        copy.removeCurrent();
+        s.advance();
+
+        assertEquals(MILLION, copy.size());
+        assertTrue(s.equals(copy));
+    }
+
+    @Test //50k inserts and seeks at random positions in skip list storage run in O(n log n)
+    public void skipListSeekRandom(){
+        Sequence s = new Sequence(Sequence.Storage.SKIP_LIST);
+        Random random = new Random(151);
+        for(int i = 0; i < 50000; i++){
+            s.seek(random.nextInt(s.size() + 1));
+            s.addBefore("X");
+        }
+        for(int i = 0; i < 50000; i++){
+            s.seek(random.nextInt(s.size()));
+            assertEquals("X", s.getCurrent());
+        }
+    }
+
+    @Test //a 16M element rope built by concatenation takes O(log n) per edit at random positions
+    public void ropeEditRandomSixteenMillion(){
+        Sequence s = new Sequence(Sequence.Storage.ROPE);
+        s.addAfter("X");
+        for(int i = 0; i < 24; i++){
+            s.addAll(s);
+        }
+        assertEquals(1 << 24, s.size());
+
+        Random random = new Random(151);
+        for(int i = 0; i < 100000; i++){
+            s.seek(random.nextInt(s.size()));
+            s.addBefore("Y");
+            s.advance();
+            s.removeCurrent();
+        }
+        assertEquals(1 << 24, s.size());
+
+        s.seek(s.size() / 2);
+        Sequence tail = s.split();
+        assertEquals(1 << 23, tail.size());
+    }
+
+    @Test //keeping 50k edited versions of a 1M element persistent sequence takes O(log n) each
+    public void persistentSequenceVersions(){
+        PersistentSequence s = new PersistentSequence().addAfter("X");
+        for(int i = 0; i < 20; i++){
+            s = s.addAll(s);
+        }
+        PersistentSequence[] versions = new PersistentSequence[50000];
+        Random random = new Random(151);
+        for(int i = 0; i < versions.length; i++){
+            s = s.seek(random.nextInt(s.size())).addBefore("Y");
+            versions[i] = s;
+        }
+
+        assertEquals(1 << 20, versions[0].size() - 1);
+        assertEquals("Y", versions[0].getCurrent());
+        assertEquals(s.size(), versions[versions.length - 1].size());
+    }
+
+    @Test //1M appends, a cursor scan and 1M edits around the middle of an IntSequence run in linear time
+    public void intSequenceMillion(){
+        IntSequence s = new IntSequence();
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter(i);
+        }
+        long sum = 0;
+        for(s.start(); s.isCurrent(); s.advance()){
+            sum += s.getCurrent();
+        }
+        assertEquals((long) MILLION * (MILLION - 1) / 2, sum);
+
+        s.seek(MILLION / 2);
+        for(int i = 0; i < MILLION / 2; i++){
+            s.addBefore(i);
+            s.advance();
+            s.removeCurrent();
+        }
+        assertEquals(MILLION, s.size());
+    }
+
+    @Test //1M appends to an off-heap sequence, then contains and equals compare bytes in linear time
+    public void offHeapSequenceMillion(){
+        Sequence s = new Sequence(Sequence.Storage.OFF_HEAP);
+        for(int i = 0; i < MILLION; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        assertTrue(s.contains("999999"));
+        assertFalse(s.contains("1000000"));
+        s.advance();
+        Sequence copy = s.clone();
+        copy.addAfter("extra");
+        copy.removeCurrent();
+        assertTrue(s.equals(copy));
+    }
+
+    @Test //writing 500k elements is linear, opening the file is constant time, and equals reads the mapping
+    public void mappedSequenceHalfMillion() throws IOException {
+        Sequence s = new Sequence();
+        for(int i = 0; i < MILLION / 2; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        Path file = Files.createTempFile("sequence", ".seq");
+        try{
+            MappedSequence.write(s, file);
+            MappedSequence m = MappedSequence.open(file);
+            assertEquals(MILLION / 2, m.size());
+            assertEquals("499999", m.getCurrent());
+            assertTrue(m.equals(s));
+            assertTrue(m.equals(MappedSequence.open(file)));
+        }finally{
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test //writing 500k elements in binary and reading them back are both linear
+    public void binaryWriteReadHalfMillion() throws IOException {
+        Sequence s = new Sequence();
+        for(int i = 0; i < MILLION / 2; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.writeTo(new DataOutputStream(bytes));
+        Sequence read = Sequence.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertTrue(s.equals(read));
+    }
+
+    @Test //journaling 100k changes in batches costs one sync per batch, and replaying them is linear
+    public void journaledSequenceHundredThousand() throws IOException {
+        Path directory = Files.createTempDirectory("sequence");
+        try{
+            JournaledSequence s = JournaledSequence.open(directory, 1024);
+            for(int i = 0; i < MILLION / 10; i++){
+                s.addAfter(Integer.toString(i));
+            }
+            s.close();
+            JournaledSequence recovered = JournaledSequence.open(directory);
+            recovered.close();
+            assertTrue(s.equals(recovered));
+        }finally{
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test //after a base checkpoint of 100k elements, a small change writes one small delta
+    public void incrementalCheckpointHundredThousand() throws IOException {
+        Path directory = Files.createTempDirectory("sequence");
+        try{
+            JournaledSequence s = JournaledSequence.open(directory, 1024, 10, Sequence.Storage.GAP_BUFFER);
+            Sequence items = new Sequence(MILLION / 10);
+            for(int i = 0; i < MILLION / 10; i++){
+                items.addAfter("element " + i);
+            }
+            s.addAll(items);
+            s.checkpoint();
+            long base = Files.size(directory.resolve("delta.2"));
+            s.seek(MILLION / 20);
+            s.addAfter("X");
+            s.removeCurrent();
+            s.removeCurrent();
+            s.checkpoint();
+            assertTrue(Files.exists(directory.resolve("delta.2")));
+            assertTrue(Files.size(directory.resolve("delta.3")) < base / 50);
+            s.close();
+            JournaledSequence recovered = JournaledSequence.open(directory);
+            recovered.close();
+            assertEquals(s.toString(), recovered.toString());
+        }finally{
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test //a checkpoint of 1M elements in LINKED storage walks the list once, not once per segment
+    public void checkpointLinkedMillion() throws IOException {
+        Path directory = Files.createTempDirectory("sequence");
+        try{
+            JournaledSequence s = JournaledSequence.open(directory, 1024, 10, Sequence.Storage.LINKED);
+            s.close(); // only the checkpoint is timed, not journaling the elements
+            for(int i = 0; i < MILLION; i++){
+                s.addAfter("e" + i);
+            }
+            s.checkpoint();
+            assertTrue(Files.exists(directory.resolve("manifest.2")));
+            assertTrue(Files.size(directory.resolve("delta.2")) > 8 * MILLION);
+        }finally{
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test //restoring composes a base and many deltas, after random edits all over the sequence
+    public void checkpointRandomEdits() throws IOException {
+        Random random = new Random(151);
+        Path directory = Files.createTempDirectory("sequence");
+        try{
+            JournaledSequence s = JournaledSequence.open(directory, 1024, 10, Sequence.Storage.SKIP_LIST);
+            Sequence expected = new Sequence(Sequence.Storage.SKIP_LIST);
+            for(int i = 0; i < 20000; i++){
+                expected.addAfter("element " + i);
+            }
+            s.addAll(expected);
+            for(int i = 0; i < 1000; i++){
+                int index = random.nextInt(s.size() + 1);
+                s.seek(index);
+                expected.seek(index);
+                switch(random.nextInt(4)){
+                    case 0: s.addAfter("after " + i); expected.addAfter("after " + i); break;
+                    case 1: s.addBefore("before " + i); expected.addBefore("before " + i); break;
+                    default: s.removeCurrent(); expected.removeCurrent(); break;
+                }
+                if(i % 50 == 49){
+                    s.checkpoint();
+                }
+            }
+            s.close();
+            JournaledSequence recovered = JournaledSequence.open(directory);
+            recovered.close();
+            assertTrue(expected.equals(recovered));
+            assertEquals(expected.getCurrentIndex(), recovered.getCurrentIndex());
+        }finally{
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test //once the delta files are mostly replaced segments, a checkpoint writes a new base
+    public void checkpointNewBase() throws IOException {
+        Path directory = Files.createTempDirectory("sequence");
+        try{
+            JournaledSequence s = JournaledSequence.open(directory, 1024, 10, Sequence.Storage.ARRAY);
+            Sequence items = new Sequence(8192);
+            for(int i = 0; i < 8192; i++){
+                items.addAfter("element " + i);
+            }
+            s.addAll(items);
+            s.checkpoint();
+            long base = Files.size(directory.resolve("delta.2"));
+            for(int first = 1; first < 8; first++){
+                for(int segment = 7; segment >= first; segment--){
+                    s.seek(segment * 1024);
+                    s.removeCurrent();
+                }
+                s.checkpoint();
+            }
+            assertFalse(Files.exists(directory.resolve("delta.2")));
+            long deltaBytes = 0;
+            try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, "delta.*")){
+                for(Path file: files){
+                    deltaBytes += Files.size(file);
+                }
+            }
+            assertTrue(deltaBytes < 3 * base);
+            s.close();
+            JournaledSequence recovered = JournaledSequence.open(directory);
+            recovered.close();
+            assertEquals(s.toString(), recovered.toString());
+        }finally{
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test //1M optimistic reads of a ConcurrentSequence from 4 threads while another changes it
+    public void concurrentSequenceReadsMillion() throws InterruptedException {
+        ConcurrentSequence s = new ConcurrentSequence();
+        for(int i = 0; i < 1000; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        Thread writer = new Thread(() -> {
+            for(int i = 0; i < 1000; i++){
+                s.update(q -> {
+                    q.start();
+                    String first = q.getCurrent();
+                    q.removeCurrent();
+                    q.end();
+                    q.addAfter(first);
+                    return first;
+                });
+            }
+        });
+        Thread[] readers = new Thread[4];
+        long[] lengths = new long[readers.length];
+        for(int t = 0; t < readers.length; t++){
+            int reader = t;
+            readers[t] = new Thread(() -> {
+                for(int i = 0; i < MILLION / readers.length; i++){
+                    lengths[reader] += s.size() + s.getCurrent().length();
+                }
+            });
+        }
+        writer.start();
+        for(Thread reader: readers){
+            reader.start();
+        }
+        writer.join();
+        for(Thread reader: readers){
+            reader.join();
+        }
+        for(long length: lengths){
+            assertTrue(length >= (MILLION / readers.length) * 1001L);
+        }
+    }
+
+    @Test //1M inserts and removals of a ConcurrentLinkedList from 4 threads at once run in linear time
+    public void concurrentLinkedListMillion() throws InterruptedException {
+        ConcurrentLinkedList ll = new ConcurrentLinkedList();
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            String item = Integer.toString(t);
+            threads[t] = new Thread(() -> {
+                for(int i = 0; i < MILLION / threads.length / 2; i++){
+                    ll.insertAtEnd(item);
+                    ll.insertAtHead(item);
+                    ll.removeGivenString(item);
+                    ll.removeGivenString(item);
+                }
+            });
+        }
+        for(Thread thread: threads){
+            thread.start();
+        }
+        for(Thread thread: threads){
+            thread.join();
+        }
+        assertTrue(ll.isEmpty());
+        assertEquals(0, ll.getLength());
+    }
+
+    private void deleteDirectory(Path directory) throws IOException {
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)){
+            for(Path file: files){
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
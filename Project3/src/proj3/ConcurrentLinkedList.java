@@ -0,0 +1,313 @@
+package proj3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *
+ * ConcurrentLinkedList class that represents a Linked List of Strings that many threads
+ * can insert into and remove from at once, without a lock (Harris and Michael's list).
+ *
+ * A thread never waits for another: every change is a compare-and-set on the next
+ * reference of one node, and a thread that finds a change half made finishes it
+ * rather than waiting for it. A node is removed in two steps: first the mark on its
+ * own next reference is set (it is now logically removed, and nothing can be inserted
+ * after it), then its predecessor is swung past it. Whoever walks past a marked node
+ * unlinks it.
+ *
+ * insertAtHead and insertAtEnd are linearizable: each takes effect at one instant between
+ * its call and its return. So are removeGivenString and containsData as long as no two
+ * nodes hold the same data at once (the list used as a set); with duplicates, a call may
+ * miss a copy inserted at the head behind it while it runs. getLength, toString and the
+ * iterator are not; they see changes made while they run or not.
+ *
+ *  Invariants of the ConcurrentLinkedList class:
+ *  1. head is a node with no data that is never removed; the list is the unmarked
+ *     nodes reachable from head.next, in order.
+ *  2. A node whose next reference is marked is logically removed. Its next reference
+ *     never changes again, and no node is ever inserted after it.
+ *  3. The last node's next reference is null.
+ *  4. tail is head or some node that was inserted at the end; appending starts looking
+ *     for the last node there when it is still in the list, instead of at head.
+ *  5. Length = number of insertions minus number of removals that have finished.
+ */
+public class ConcurrentLinkedList implements Iterable<String>
+{
+    private final String TRUNCATED = "...";
+
+    private final Node head;
+    private final AtomicReference<Node> tail;
+    private final AtomicInteger length;
+
+    /**
+     * Constructs an empty Linked List
+     */
+    public ConcurrentLinkedList()
+    {
+        head = new Node(null, null);
+        tail = new AtomicReference<>(head);
+        length = new AtomicInteger();
+    }
+
+
+    /**
+     * @return the length of the Linked List, exact once the changes in flight have finished
+     */
+    public int getLength()
+    {
+        return length.get();
+    }
+
+
+    /**
+     * checks to see if the linked list is empty
+     * @return true iff linked list is empty, false otherwise
+     */
+    public boolean isEmpty(){
+        return firstNode() == null;
+    }
+
+
+    /**
+     * inserts the newNode to the front of the linked list, becomes the firstNode
+     * @param dataToAdd the given data for newNode
+     */
+    public void insertAtHead(String dataToAdd){
+        Node newNode = new Node(dataToAdd, null);
+        Node first;
+        do{
+            first = head.next.getReference();
+            newNode.next.set(first, false);
+        }while(!head.next.compareAndSet(first, newNode, false, false));
+        length.incrementAndGet();
+    }
+
+
+    /**
+     * inserts the newNode at the end of the Linked List. Starts from the last node
+     * inserted at the end, so it takes constant time unless many nodes were removed
+     * from the end since.
+     * @param dataToAdd given data for newNode
+     */
+    public void insertAtEnd(String dataToAdd){
+        Node newNode = new Node(dataToAdd, null);
+        while(true){
+            Node start = tail.get();
+            Node last = findLast(start);
+            if(last.next.compareAndSet(null, newNode, false, false)){
+                tail.compareAndSet(start, newNode);
+                length.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * removes the first node with the given String data. When several threads remove
+     * at once, each node is removed by exactly one of them.
+     * @param dataToRemove given data
+     * @return true iff a node was removed
+     */
+    public boolean removeGivenString(String dataToRemove){
+        while(true){
+            Window found = find(dataToRemove);
+            if(found == null){
+                return false;
+            }
+            Node succ = found.node.next.getReference();
+            if(found.node.next.compareAndSet(succ, succ, false, true)){
+                length.decrementAndGet();
+                if(!found.pred.next.compareAndSet(found.node, succ, false, false)){
+                    find(dataToRemove); // unlinks the node on the way
+                }
+                return true;
+            }
+        }
+    }
+
+
+    /**
+     * checks to see if any of the nodes in the LinkedList contain the given data.
+     * Never changes the list and never retries.
+     * @param data given data
+     * @return true iff the LinkedList contains the given data
+     */
+    public boolean containsData(String data){
+        Node runner = head.next.getReference();
+        while(runner != null){
+            if(!runner.next.isMarked() && Objects.equals(runner.data, data)){
+                return true;
+            }
+            runner = runner.next.getReference();
+        }
+        return false;
+    }
+
+
+    /**
+     * Produce a string representation of this LinkedList, formatted like that of
+     * LinkedList, for example "(A, B, C)"
+     *
+     * @return a string representation of this LinkedList.
+     */
+    public String toString(){
+        StringBuilder toReturn = new StringBuilder();
+        try {
+            writeTo(toReturn, Integer.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringBuilder never throws
+        }
+        return toReturn.toString();
+    }
+
+
+    /**
+     * writes the string representation of at most maxElements nodes to the given Appendable.
+     * If nodes are left out, "..." takes their place, for example "(A, B, ...)"
+     * @param out where to write the LinkedList
+     * @param maxElements the most nodes to write
+     * @throws IOException if out throws while being written to
+     */
+    public void writeTo(Appendable out, int maxElements) throws IOException{
+        out.append("(");
+        Iterator<String> items = iterator();
+        int count = 0;
+        while(items.hasNext() && count < maxElements){
+            out.append(String.valueOf(items.next()));
+            count++;
+            if(items.hasNext()){
+                out.append(", ");
+            }
+        }
+        if(items.hasNext()){
+            out.append(TRUNCATED);
+        }
+        out.append(")");
+    }
+
+
+    /**
+     * Returns a weakly consistent iterator over the data in the LinkedList, from the
+     * firstNode to the last. It never throws ConcurrentModificationException; it returns
+     * the data of nodes that were in the list when it reached them.
+     * @return an iterator over the data in the LinkedList
+     */
+    public Iterator<String> iterator(){
+        return new Iterator<String>(){
+            private Node nextNode = nextLive(head.next.getReference());
+
+            public boolean hasNext(){
+                return nextNode != null;
+            }
+
+            public String next(){
+                if(nextNode == null){
+                    throw new NoSuchElementException();
+                }
+                String data = nextNode.data;
+                nextNode = nextLive(nextNode.next.getReference());
+                return data;
+            }
+        };
+    }
+
+    //PRIVATE HELPER METHODS
+    private static final class Node{
+        private final String data;
+        private final AtomicMarkableReference<Node> next;
+
+        Node(String data, Node next){
+            this.data = data;
+            this.next = new AtomicMarkableReference<>(next, false);
+        }
+    }
+
+    /**
+     * a node and the node before it, as one search found them
+     */
+    private static final class Window{
+        private final Node pred;
+        private final Node node;
+
+        Window(Node pred, Node node){
+            this.pred = pred;
+            this.node = node;
+        }
+    }
+
+    private Node firstNode(){
+        return nextLive(head.next.getReference());
+    }
+
+    /**
+     * @return the given node or the first unmarked one after it, null if there is none
+     */
+    private Node nextLive(Node runner){
+        while(runner != null && runner.next.isMarked()){
+            runner = runner.next.getReference();
+        }
+        return runner;
+    }
+
+    /**
+     * finds the last node, starting at start if it is still in the list and at head
+     * otherwise, and unlinks the marked nodes it walks past
+     * @return a node that was the last unmarked node when it was reached
+     */
+    private Node findLast(Node start){
+        retry:
+        while(true){
+            Node pred = start.next.isMarked() ? head : start;
+            Node curr = pred.next.getReference();
+            while(curr != null){
+                boolean[] marked = {false};
+                Node succ = curr.next.get(marked);
+                if(marked[0]){
+                    if(!pred.next.compareAndSet(curr, succ, false, false)){
+                        start = head;
+                        continue retry;
+                    }
+                }else{
+                    pred = curr;
+                }
+                curr = succ;
+            }
+            return pred;
+        }
+    }
+
+    /**
+     * finds the first unmarked node with the given data and the node before it,
+     * and unlinks the marked nodes it walks past
+     * @return the two nodes, null if no node has the data
+     */
+    private Window find(String data){
+        retry:
+        while(true){
+            Node pred = head;
+            Node curr = pred.next.getReference();
+            while(curr != null){
+                boolean[] marked = {false};
+                Node succ = curr.next.get(marked);
+                if(marked[0]){
+                    if(!pred.next.compareAndSet(curr, succ, false, false)){
+                        continue retry;
+                    }
+                }else if(Objects.equals(curr.data, data)){
+                    return new Window(pred, curr);
+                }else{
+                    pred = curr;
+                }
+                curr = succ;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package proj3;
+/**
+ * JUnit test class.
+ */
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class ConcurrentLinkedListTest {
+
+    @Rule //a test will fail if it takes longer than 1 second to run (most tests start threads, which a busy machine may be slow to schedule)
+    public Timeout timeout = Timeout.seconds(1);
+
+    private ConcurrentLinkedList makeLL(String[] itemsToAdd){
+        ConcurrentLinkedList ll = new ConcurrentLinkedList();
+        for(String item: itemsToAdd){
+            ll.insertAtEnd(item);
+        }
+        return ll;
+    }
+
+    @Test //an empty list
+    public void testEmpty(){
+        ConcurrentLinkedList ll = new ConcurrentLinkedList();
+        assertTrue(ll.isEmpty());
+        assertEquals(0, ll.getLength());
+        assertEquals("()", ll.toString());
+        assertFalse(ll.containsData("A"));
+        assertFalse(ll.removeGivenString("A"));
+    }
+
+    @Test //inserts at the head and at the end on one thread
+    public void testInsert(){
+        ConcurrentLinkedList ll = makeLL(new String[] {"B", "C"});
+        ll.insertAtHead("A");
+        ll.insertAtEnd("D");
+        assertEquals("(A, B, C, D)", ll.toString());
+        assertEquals(4, ll.getLength());
+        assertFalse(ll.isEmpty());
+    }
+
+    @Test //removes the first copy of the data, the head and the last node
+    public void testRemoveGivenString(){
+        ConcurrentLinkedList ll = makeLL(new String[] {"A", "B", "A", "C"});
+        assertTrue(ll.removeGivenString("A"));
+        assertEquals("(B, A, C)", ll.toString());
+        assertTrue(ll.removeGivenString("B"));
+        assertTrue(ll.removeGivenString("C"));
+        assertFalse(ll.removeGivenString("C"));
+        assertEquals("(A)", ll.toString());
+        assertEquals(1, ll.getLength());
+    }
+
+    @Test //appending after the last node was removed starts again from the head
+    public void testInsertAtEndAfterRemovingLast(){
+        ConcurrentLinkedList ll = makeLL(new String[] {"A", "B"});
+        ll.removeGivenString("B");
+        ll.insertAtEnd("C");
+        ll.removeGivenString("A");
+        ll.removeGivenString("C");
+        ll.insertAtEnd("D");
+        ll.insertAtHead("E");
+        assertEquals("(E, D)", ll.toString());
+    }
+
+    @Test //null data can be inserted, found and removed
+    public void testNullData(){
+        ConcurrentLinkedList ll = makeLL(new String[] {"A", null});
+        assertTrue(ll.containsData(null));
+        assertEquals("(A, null)", ll.toString());
+        assertTrue(ll.removeGivenString(null));
+        assertFalse(ll.containsData(null));
+    }
+
+    @Test //containsData finds only data that is still in the list
+    public void testContainsData(){
+        ConcurrentLinkedList ll = makeLL(new String[] {"A", "B", "C"});
+        assertTrue(ll.containsData("B"));
+        ll.removeGivenString("B");
+        assertFalse(ll.containsData("B"));
+        assertTrue(ll.containsData("C"));
+    }
+
+    @Test //writeTo leaves out what does not fit
+    public void testWriteTo() throws Exception {
+        ConcurrentLinkedList ll = makeLL(new String[] {"A", "B", "C"});
+        StringBuilder out = new StringBuilder();
+        ll.writeTo(out, 2);
+        assertEquals("(A, B, ...)", out.toString());
+    }
+
+    @Test //the iterator keeps going after the list changes ahead of it
+    public void testIterator(){
+        ConcurrentLinkedList ll = makeLL(new String[] {"A", "B", "C"});
+        Iterator<String> items = ll.iterator();
+        assertEquals("A", items.next());
+        ll.removeGivenString("C");
+        ll.insertAtEnd("D");
+        assertEquals("B", items.next());
+        assertEquals("D", items.next());
+        assertFalse(items.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorEnd(){
+        new ConcurrentLinkedList().iterator().next();
+    }
+
+    @Test //inserts from several threads, at both ends, are all kept
+    public void testConcurrentInserts() throws InterruptedException {
+        ConcurrentLinkedList ll = new ConcurrentLinkedList();
+        AtomicInteger threads = new AtomicInteger();
+        TestThreads.run(4, () -> {
+            int thread = threads.getAndIncrement();
+            for(int i = 0; i < 500; i++){
+                if(i % 2 == 0){
+                    ll.insertAtHead(thread + ":" + i);
+                }else{
+                    ll.insertAtEnd(thread + ":" + i);
+                }
+            }
+        });
+        assertEquals(2000, ll.getLength());
+        int count = 0;
+        for(String item: ll){
+            count++;
+        }
+        assertEquals(2000, count);
+        for(int thread = 0; thread < 4; thread++){
+            assertTrue(ll.containsData(thread + ":" + 0));
+            assertTrue(ll.containsData(thread + ":" + 499));
+        }
+    }
+
+    @Test //threads racing to remove the same data remove each node exactly once
+    public void testConcurrentRemoves() throws InterruptedException {
+        ConcurrentLinkedList ll = new ConcurrentLinkedList();
+        for(int i = 0; i < 500; i++){
+            ll.insertAtEnd(Integer.toString(i));
+        }
+        AtomicInteger removed = new AtomicInteger();
+        TestThreads.run(4, () -> {
+            for(int i = 0; i < 500; i++){
+                if(ll.removeGivenString(Integer.toString(i))){
+                    removed.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(500, removed.get());
+        assertTrue(ll.isEmpty());
+        assertEquals(0, ll.getLength());
+        assertEquals("()", ll.toString());
+    }
+
+    @Test //mixed inserts, removals and lookups leave exactly what was not removed
+    public void testStress() throws InterruptedException {
+        ConcurrentLinkedList ll = new ConcurrentLinkedList();
+        AtomicInteger threads = new AtomicInteger();
+        TestThreads.run(4, () -> {
+            int thread = threads.getAndIncrement();
+            for(int i = 0; i < 300; i++){
+                String item = thread + ":" + i;
+                if(i % 2 == 0){
+                    ll.insertAtEnd(item);
+                }else{
+                    ll.insertAtHead(item);
+                }
+                assertTrue(ll.containsData(item));
+                if(i % 3 == 0){
+                    assertTrue(ll.removeGivenString(item));
+                    assertFalse(ll.containsData(item));
+                }
+            }
+        });
+        assertEquals(800, ll.getLength());
+        for(int thread = 0; thread < 4; thread++){
+            for(int i = 0; i < 300; i++){
+                assertEquals(i % 3 != 0, ll.containsData(thread + ":" + i));
+            }
+        }
+    }
+}
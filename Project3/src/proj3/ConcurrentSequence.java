@@ -0,0 +1,584 @@
+package proj3;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A Sequence of Strings that any number of threads can use at once. It keeps
+ * a Sequence behind a StampedLock:
+ *
+ *    queries   (getCurrent, size, toString, equals, contains...) first run
+ *              with no lock at all, as an optimistic read, and check the
+ *              stamp afterwards. Only if a change overlapped do they run
+ *              again holding the read lock. So readers never block one
+ *              another, and do not even write to the lock, which keeps them
+ *              from fighting over its cache line.
+ *    changes   hold the write lock.
+ *
+ * An optimistic read can see the sequence halfway through a change. That is
+ * safe because the storage engines only read inside a query, and every read
+ * ends, even over a half-made change; whatever it returns or throws is thrown
+ * away when the stamp does not validate.
+ *
+ * Each method is atomic, but a series of calls is not: the current element
+ * is shared by every thread, so another thread can move it between seek and
+ * getCurrent. update and query run a series of calls on the Sequence as one.
+ *
+ * Iterators and streams go over a snapshot, taken in constant time with
+ * clone, so they never throw ConcurrentModificationException. The first
+ * change after a snapshot copies the elements (see GenericSequence.clone).
+ *
+ * Invariant of the ConcurrentSequence class:
+ *  1. sequence is only changed while holding the write lock, and only read
+ *     while holding a lock or in an optimistic read that is then validated.
+ */
+public class ConcurrentSequence implements Iterable<String>
+{
+    private static final long WRITE_LOCKED = 0;
+
+    private final Sequence sequence;
+    private final StampedLock lock;
+
+    /**
+     * Creates a new sequence with initial capacity 10.
+     */
+    public ConcurrentSequence()
+    {
+        this(new Sequence());
+    }
+
+
+    /**
+     * Creates a new sequence.
+     *
+     * @param initialCapacity the initial capacity of the sequence.
+     */
+    public ConcurrentSequence(int initialCapacity)
+    {
+        this(new Sequence(initialCapacity));
+    }
+
+
+    /**
+     * Creates a new sequence.
+     *
+     * @param initialCapacity the initial capacity of the sequence.
+     * @param storage the storage engine to keep the elements in.
+     */
+    public ConcurrentSequence(int initialCapacity, Sequence.Storage storage)
+    {
+        this(new Sequence(initialCapacity, storage));
+    }
+
+
+    private ConcurrentSequence(Sequence sequence)
+    {
+        this.sequence = sequence;
+        this.lock = new StampedLock();
+    }
+
+
+    /**
+     * Adds an element before the current element (see Sequence.addBefore).
+     *
+     * @param value the element to add.
+     */
+    public void addBefore(String value)
+    {
+        change(() -> this.sequence.addBefore(value));
+    }
+
+
+    /**
+     * Adds an element after the current element (see Sequence.addAfter).
+     *
+     * @param value the element to add.
+     */
+    public void addAfter(String value)
+    {
+        change(() -> this.sequence.addAfter(value));
+    }
+
+
+    /**
+     * Places the contents of another sequence at the end of this one (see
+     * Sequence.addAll). The other sequence must not be changed by another
+     * thread while this runs.
+     *
+     * @param another the sequence whose contents should be added.
+     */
+    public void addAll(Sequence another)
+    {
+        change(() -> this.sequence.addAll(another));
+    }
+
+
+    /**
+     * Places the contents of another concurrent sequence, as they are at one
+     * moment, at the end of this one. Only one lock is held at a time, so
+     * two threads adding two sequences to each other cannot deadlock.
+     *
+     * @param another the sequence whose contents should be added.
+     */
+    public void addAll(ConcurrentSequence another)
+    {
+        Sequence snapshot = another.toSequence();
+        change(() -> this.sequence.addAll(snapshot));
+    }
+
+
+    /**
+     * Removes the current element (see Sequence.removeCurrent).
+     */
+    public void removeCurrent()
+    {
+        change(this.sequence::removeCurrent);
+    }
+
+
+    /**
+     * Moves the current element forward (see Sequence.advance).
+     */
+    public void advance()
+    {
+        change(this.sequence::advance);
+    }
+
+
+    /**
+     * Moves the current element backward (see Sequence.retreat).
+     */
+    public void retreat()
+    {
+        change(this.sequence::retreat);
+    }
+
+
+    /**
+     * Sets the current element to the start of the sequence (see Sequence.start).
+     */
+    public void start()
+    {
+        change(this.sequence::start);
+    }
+
+
+    /**
+     * Sets the current element to the end of the sequence (see Sequence.end).
+     */
+    public void end()
+    {
+        change(this.sequence::end);
+    }
+
+
+    /**
+     * Sets the current element to the element at the given position (see Sequence.seek).
+     *
+     * @param index the position of the new current element, starting at 0.
+     */
+    public void seek(int index)
+    {
+        change(() -> this.sequence.seek(index));
+    }
+
+
+    /**
+     * Empties the sequence (see Sequence.clear).
+     */
+    public void clear()
+    {
+        change(this.sequence::clear);
+    }
+
+
+    /**
+     * Changes the capacity to at least minCapacity (see Sequence.ensureCapacity).
+     *
+     * @param minCapacity the minimum capacity that the sequence should now have.
+     */
+    public void ensureCapacity(int minCapacity)
+    {
+        change(() -> this.sequence.ensureCapacity(minCapacity));
+    }
+
+
+    /**
+     * Reduces the capacity to the size (see Sequence.trimToSize).
+     */
+    public void trimToSize()
+    {
+        change(this.sequence::trimToSize);
+    }
+
+
+    /**
+     * Splits off the current element and every element after it (see Sequence.split).
+     *
+     * @return the sequence of the elements that were split off.
+     */
+    public ConcurrentSequence split()
+    {
+        long stamp = this.lock.writeLock();
+        try{
+            return new ConcurrentSequence(this.sequence.split());
+        }finally{
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+
+    /**
+     * Makes a copy of this sequence, in constant time (see Sequence.clone).
+     *
+     * @return the copy of this sequence.
+     */
+    public ConcurrentSequence clone()
+    {
+        return new ConcurrentSequence(toSequence());
+    }
+
+
+    /**
+     * Makes a copy of this sequence as a plain Sequence, for one thread to
+     * use, in constant time (see Sequence.clone). Cloning counts the sharers
+     * of the elements, so it holds the write lock, for a moment.
+     *
+     * @return the copy of this sequence.
+     */
+    public Sequence toSequence()
+    {
+        long stamp = this.lock.writeLock();
+        try{
+            return this.sequence.clone();
+        }finally{
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+
+    /**
+     * Runs a series of calls on the sequence as one atomic change: no other
+     * thread reads or changes the sequence until it returns. For example,
+     * taking the first element off a queue:
+     *
+     *    String first = queue.update(s -> { s.start(); String item = s.getCurrent(); s.removeCurrent(); return item; });
+     *
+     * The Sequence must not be kept, or used once changes returns.
+     *
+     * @param changes what to do with the sequence.
+     * @return what changes returns.
+     */
+    public <R> R update(Function<? super Sequence, R> changes)
+    {
+        long stamp = this.lock.writeLock();
+        try{
+            return changes.apply(this.sequence);
+        }finally{
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+
+    /**
+     * Runs a series of queries on the sequence while no other thread changes
+     * it, holding the read lock, so other readers can run at the same time.
+     * The queries must not change or clone the Sequence, and it must not be
+     * kept, or used once queries returns.
+     *
+     * @param queries what to read from the sequence.
+     * @return what queries returns.
+     */
+    public <R> R query(Function<? super Sequence, R> queries)
+    {
+        long stamp = this.lock.readLock();
+        try{
+            return queries.apply(this.sequence);
+        }finally{
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * @return true if and only if the sequence has a current element.
+     */
+    public boolean isCurrent()
+    {
+        return optimisticBoolean(this.sequence::isCurrent);
+    }
+
+
+    /**
+     * @return the current capacity of the sequence.
+     */
+    public int getCapacity()
+    {
+        return optimisticInt(this.sequence::getCapacity);
+    }
+
+
+    /**
+     * @return the element at the current location in the sequence, or
+     * null if there is no current element.
+     */
+    public String getCurrent()
+    {
+        return optimistic(this.sequence::getCurrent);
+    }
+
+
+    /**
+     * @return the position of the current element, starting at 0, or -1
+     * if there is no current element.
+     */
+    public int getCurrentIndex()
+    {
+        return optimisticInt(this.sequence::getCurrentIndex);
+    }
+
+
+    /**
+     * @return the storage engine the elements are kept in.
+     */
+    public Sequence.Storage getStorage()
+    {
+        return this.sequence.getStorage();
+    }
+
+
+    /**
+     * @return the number of elements stored in the sequence.
+     */
+    public int size()
+    {
+        return optimisticInt(this.sequence::size);
+    }
+
+
+    /**
+     * @return true if the sequence is empty, else false.
+     */
+    public boolean isEmpty()
+    {
+        return optimisticBoolean(this.sequence::isEmpty);
+    }
+
+
+    /**
+     * Checks whether the sequence holds an element equal to the given one.
+     *
+     * @param value the element to look for, may be null.
+     * @return true iff some element of the sequence is equal to value.
+     */
+    public boolean contains(String value)
+    {
+        return optimisticBoolean(() -> this.sequence.contains(value));
+    }
+
+
+    /**
+     * Checks whether a sequence is equal to this one (see Sequence.equals).
+     * The other sequence must not be changed by another thread while this runs.
+     *
+     * @param other the sequence with which to compare.
+     * @return true iff the other sequence is equal to this one.
+     */
+    public boolean equals(Sequence other)
+    {
+        return optimisticBoolean(() -> this.sequence.equals(other));
+    }
+
+
+    /**
+     * Checks whether another concurrent sequence, as it is at one moment, is
+     * equal to this one (see Sequence.equals). Only one lock is held at a
+     * time, so two threads comparing two sequences cannot deadlock.
+     *
+     * @param other the sequence with which to compare.
+     * @return true iff the other sequence is equal to this one.
+     */
+    public boolean equals(ConcurrentSequence other)
+    {
+        if(other == this){
+            return true;
+        }
+        return equals(other.toSequence());
+    }
+
+
+    /**
+     * @return a string representation of this sequence (see Sequence.toString).
+     */
+    public String toString()
+    {
+        return optimistic(this.sequence::toString);
+    }
+
+
+    /**
+     * Writes the same string representation as toString to out. Writing
+     * cannot be undone, so this holds the read lock rather than reading
+     * optimistically.
+     *
+     * @param out where to write the sequence.
+     * @throws IOException if out throws while being written to.
+     */
+    public void writeTo(Appendable out) throws IOException
+    {
+        long stamp = this.lock.readLock();
+        try{
+            this.sequence.writeTo(out);
+        }finally{
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * Writes this sequence in binary form (see Sequence.writeTo(DataOutput)),
+     * holding the read lock.
+     *
+     * @param out where to write the sequence.
+     * @throws IOException if out throws while being written to.
+     */
+    public void writeTo(DataOutput out) throws IOException
+    {
+        long stamp = this.lock.readLock();
+        try{
+            this.sequence.writeTo(out);
+        }finally{
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * Returns an iterator over the elements of a snapshot of this sequence,
+     * which later changes do not affect.
+     *
+     * @return an iterator over the elements of this sequence.
+     */
+    public Iterator<String> iterator()
+    {
+        return toSequence().iterator();
+    }
+
+
+    /**
+     * @return a sequential stream over a snapshot of this sequence.
+     */
+    public Stream<String> stream()
+    {
+        return toSequence().stream();
+    }
+
+
+    /**
+     * @return a parallel stream over a snapshot of this sequence.
+     */
+    public Stream<String> parallelStream()
+    {
+        return toSequence().parallelStream();
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private void change(Runnable change)
+    {
+        long stamp = this.lock.writeLock();
+        try{
+            change.run();
+        }finally{
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Runs query without a lock, and returns its result if no change
+     * overlapped it. Otherwise (or if a change was under way) runs it again
+     * holding the read lock. Anything query throws while a change overlaps
+     * it is the change's doing, and is ignored in the same way.
+     */
+    private <R> R optimistic(Supplier<R> query)
+    {
+        long stamp = this.lock.tryOptimisticRead();
+        if(stamp != WRITE_LOCKED){
+            try{
+                R result = query.get();
+                if(this.lock.validate(stamp)){
+                    return result;
+                }
+            }catch(RuntimeException e){
+                if(this.lock.validate(stamp)){
+                    throw e;
+                }
+            }
+        }
+        stamp = this.lock.readLock();
+        try{
+            return query.get();
+        }finally{
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * optimistic, for queries that return an int, without boxing it
+     */
+    private int optimisticInt(IntSupplier query)
+    {
+        long stamp = this.lock.tryOptimisticRead();
+        if(stamp != WRITE_LOCKED){
+            try{
+                int result = query.getAsInt();
+                if(this.lock.validate(stamp)){
+                    return result;
+                }
+            }catch(RuntimeException e){
+                if(this.lock.validate(stamp)){
+                    throw e;
+                }
+            }
+        }
+        stamp = this.lock.readLock();
+        try{
+            return query.getAsInt();
+        }finally{
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * optimistic, for queries that return a boolean, without boxing it
+     */
+    private boolean optimisticBoolean(BooleanSupplier query)
+    {
+        long stamp = this.lock.tryOptimisticRead();
+        if(stamp != WRITE_LOCKED){
+            try{
+                boolean result = query.getAsBoolean();
+                if(this.lock.validate(stamp)){
+                    return result;
+                }
+            }catch(RuntimeException e){
+                if(this.lock.validate(stamp)){
+                    throw e;
+                }
+            }
+        }
+        stamp = this.lock.readLock();
+        try{
+            return query.getAsBoolean();
+        }finally{
+            this.lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package proj3;
+/**
+ * JUnit test class.
+ */
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class ConcurrentSequenceTest {
+
+    @Rule //a test will fail if it takes longer than 1 second to run (several tests start threads, which a busy machine may be slow to schedule)
+    public Timeout timeout = Timeout.seconds(1);
+
+    private ConcurrentSequence makeSequence(String[] items){
+        ConcurrentSequence s = new ConcurrentSequence();
+        for(String item: items){
+            s.addAfter(item);
+        }
+        return s;
+    }
+
+    @Test //on one thread it behaves like a Sequence
+    public void testSequenceMethods() {
+        ConcurrentSequence s = makeSequence(new String[] {"A", "B", "C"});
+        assertEquals("{A, B, >C} (capacity = 10)", s.toString());
+        s.start();
+        s.advance();
+        assertEquals("B", s.getCurrent());
+        assertEquals(1, s.getCurrentIndex());
+        s.addBefore("X");
+        s.removeCurrent();
+        s.end();
+        s.retreat();
+        assertEquals("B", s.getCurrent());
+        s.seek(0);
+        assertTrue(s.isCurrent());
+        assertEquals(3, s.size());
+        assertFalse(s.isEmpty());
+        assertTrue(s.contains("C"));
+        assertFalse(s.contains("X"));
+        s.ensureCapacity(20);
+        assertEquals(20, s.getCapacity());
+        s.trimToSize();
+        assertEquals("{>A, B, C} (capacity = 3)", s.toString());
+        assertEquals(Sequence.Storage.LINKED, s.getStorage());
+        s.clear();
+        assertTrue(s.isEmpty());
+        assertFalse(s.isCurrent());
+        assertNull(s.getCurrent());
+    }
+
+    @Test //clone, split and toSequence are independent of the original
+    public void testCopies() {
+        ConcurrentSequence s = makeSequence(new String[] {"A", "B", "C"});
+        ConcurrentSequence copy = s.clone();
+        Sequence plain = s.toSequence();
+        s.seek(1);
+        ConcurrentSequence tail = s.split();
+        assertEquals("{A} (capacity = 10)", s.toString());
+        assertEquals("{>B, C} (capacity = 10)", tail.toString());
+        assertEquals("{A, B, >C} (capacity = 10)", copy.toString());
+        assertEquals("{A, B, >C} (capacity = 10)", plain.toString());
+        assertTrue(copy.equals(plain));
+        assertTrue(copy.equals(makeSequence(new String[] {"A", "B", "C"})));
+        assertFalse(copy.equals(s));
+        assertTrue(s.equals(s));
+    }
+
+    @Test //addAll takes a plain sequence, another concurrent one, or this one
+    public void testAddAll() {
+        ConcurrentSequence s = makeSequence(new String[] {"A"});
+        Sequence plain = new Sequence();
+        plain.addAfter("B");
+        s.addAll(plain);
+        s.addAll(makeSequence(new String[] {"C"}));
+        s.addAll(s);
+        assertEquals("{>A, B, C, A, B, C} (capacity = 10)", s.toString());
+    }
+
+    @Test //iterating a snapshot is not disturbed by changes
+    public void testIteratorSnapshot() {
+        ConcurrentSequence s = makeSequence(new String[] {"A", "B"});
+        Iterator<String> items = s.iterator();
+        s.clear();
+        s.addAfter("Z");
+        assertEquals("A", items.next());
+        assertEquals("B", items.next());
+        assertFalse(items.hasNext());
+        assertEquals(1, s.stream().count());
+    }
+
+    @Test //writeTo gives the same text as toString
+    public void testWriteTo() throws Exception {
+        ConcurrentSequence s = makeSequence(new String[] {"A", "B"});
+        StringBuilder out = new StringBuilder();
+        s.writeTo(out);
+        assertEquals(s.toString(), out.toString());
+    }
+
+    @Test //update and query run a series of calls as one
+    public void testUpdateQuery() {
+        ConcurrentSequence s = makeSequence(new String[] {"A", "B", "C"});
+        String first = s.update(q -> {
+            q.start();
+            String item = q.getCurrent();
+            q.removeCurrent();
+            return item;
+        });
+        assertEquals("A", first);
+        assertEquals("B", s.query(q -> q.getCurrent()));
+        assertEquals(Integer.valueOf(2), s.query(q -> q.size()));
+    }
+
+    @Test //adds from several threads are all kept
+    public void testConcurrentAdds() throws InterruptedException {
+        ConcurrentSequence s = new ConcurrentSequence();
+        TestThreads.run(4, () -> {
+            for(int i = 0; i < 1000; i++){
+                s.addAfter(Integer.toString(i));
+            }
+        });
+        assertEquals(4000, s.size());
+    }
+
+    @Test //readers never see a change half made, while a writer keeps changing the sequence
+    public void testReadersDuringChanges() throws InterruptedException {
+        ConcurrentSequence s = makeSequence(new String[] {"A", "B", "C", "D"});
+        AtomicInteger writes = new AtomicInteger();
+        TestThreads.run(4, () -> {
+            if(writes.getAndIncrement() == 0){
+                for(int i = 0; i < 1000; i++){
+                    s.update(q -> {
+                        q.start();
+                        String item = q.getCurrent();
+                        q.removeCurrent();
+                        q.end();
+                        q.addAfter(item);
+                        return item;
+                    });
+                }
+            }else{
+                for(int i = 0; i < 1000; i++){
+                    assertEquals(4, s.size());
+                    assertEquals(3, s.getCurrentIndex());
+                    assertNotNull(s.getCurrent());
+                    assertTrue(s.contains("A"));
+                    assertEquals(29, s.toString().length());
+                }
+            }
+        });
+        assertEquals(4, s.size());
+    }
+
+    @Test //a queue shared by producers and consumers hands out every element exactly once
+    public void testQueue() throws InterruptedException {
+        ConcurrentSequence queue = new ConcurrentSequence();
+        List<String> taken = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger threads = new AtomicInteger();
+        TestThreads.run(4, () -> {
+            int thread = threads.getAndIncrement();
+            if(thread < 2){
+                for(int i = 0; i < 500; i++){
+                    String item = thread + ":" + i;
+                    queue.update(q -> {
+                        q.end();
+                        q.addAfter(item);
+                        return null;
+                    });
+                }
+            }else{
+                int misses = 0;
+                while(taken.size() < 1000 && misses < 1000000){
+                    String item = queue.update(q -> {
+                        q.start();
+                        String first = q.getCurrent();
+                        q.removeCurrent();
+                        return first;
+                    });
+                    if(item == null){
+                        misses++;
+                    }else{
+                        taken.add(item);
+                    }
+                }
+            }
+        });
+        assertEquals(1000, taken.size());
+        assertEquals(1000, taken.stream().distinct().count());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,46 @@
+package proj3;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Runs every SequenceTest against the gap buffer storage engine, plus tests
+ * for how the gap follows the edits.
+ */
+public class GapBufferSequenceTest extends SequenceTest {
+
+    @Override
+    protected Sequence.Storage storage(){
+        return Sequence.Storage.GAP_BUFFER;
+    }
+
+    @Test //the buffer is preallocated to the initial capacity and grows with the sequence
+    public void testBufferCapacity(){
+        GapBufferStorage<String> storage = new GapBufferStorage<>(5);
+        assertEquals(5, storage.capacity());
+        storage.ensureCapacity(26);
+        assertEquals(26, storage.capacity());
+        storage.insertAfter(null, "A");
+        storage.insertAfter(null, "B");
+        storage.trimToSize();
+        assertEquals(2, storage.capacity());
+        storage.insertBefore(storage.cursorAt(1), "X");
+        assertEquals(5, storage.capacity());
+        assertEquals("X", storage.get(1));
+        assertEquals("B", storage.get(2));
+    }
+
+    @Test //editing at one end and then the other moves the gap across every element
+    public void testGapMovesBetweenEnds(){
+        Sequence s = new Sequence(4, storage());
+        s.addAfter("B");
+        s.addAfter("C");
+        s.start();
+        s.addBefore("A");
+        s.end();
+        s.addAfter("D");
+        s.start();
+        s.removeCurrent();
+        assertEquals("{>B, C, D} (capacity = 4)", s.toString());
+    }
+}
@@ -0,0 +1,246 @@
+package proj3;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Sequence storage in an array with a gap of unused slots where the last
+ * edit happened. Inserting or removing at the gap only touches one slot, so
+ * editing clustered around the cursor is amortized O(1). Editing somewhere
+ * else first moves the gap there, which costs O(distance). Moving the cursor
+ * does not move the gap, so reading and advancing never copy anything.
+ * The length of the buffer is the Sequence's capacity.
+ *
+ * Invariants of the GapBufferStorage class:
+ *  1. The elements are in buffer[0] to buffer[gapStart-1], followed by
+ *     buffer[gapEnd] to buffer[buffer.length-1].
+ *  2. 0 <= gapStart <= gapEnd <= buffer.length, and the gap slots are null.
+ *  3. size = buffer.length - (gapEnd - gapStart)
+ */
+class GapBufferStorage<T> extends SequenceStorage<T>
+{
+    private final int EMPTY = 0;
+
+    private Object[] buffer;
+    private int gapStart;
+    private int gapEnd;
+    private int modCount;
+
+    /**
+     * Creates an empty gap buffer storage.
+     * @param initialCapacity the length of the buffer to preallocate
+     */
+    GapBufferStorage(int initialCapacity)
+    {
+        this.buffer = new Object[initialCapacity];
+        this.gapStart = EMPTY;
+        this.gapEnd = initialCapacity;
+    }
+
+
+    int size()
+    {
+        return this.buffer.length - gapLength();
+    }
+
+
+    /**
+     * @return the number of elements the buffer can hold without growing
+     */
+    int capacity()
+    {
+        return this.buffer.length;
+    }
+
+
+    Cursor<T> cursorAt(int index)
+    {
+        return new IndexCursor(index);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    T get(int index)
+    {
+        if(index < this.gapStart){
+            return (T) this.buffer[index];
+        }
+        return (T) this.buffer[index + gapLength()];
+    }
+
+
+    Cursor<T> insertBefore(Cursor<T> cursor, T value)
+    {
+        int index = EMPTY;
+        if(cursor != null){
+            index = cursor.index();
+        }
+        insertAt(index, value);
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<T> insertAfter(Cursor<T> cursor, T value)
+    {
+        int index = size();
+        if(cursor != null){
+            index = cursor.index() + 1;
+        }
+        insertAt(index, value);
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<T> remove(Cursor<T> cursor)
+    {
+        int index = cursor.index();
+        moveGapTo(index);
+        this.buffer[this.gapEnd] = null;
+        this.gapEnd++;
+        this.modCount++;
+        if(index == size()){
+            return null;
+        }
+        return new IndexCursor(index);
+    }
+
+
+    void clear()
+    {
+        Arrays.fill(this.buffer, null);
+        this.gapStart = EMPTY;
+        this.gapEnd = this.buffer.length;
+        this.modCount++;
+    }
+
+
+    SequenceStorage<T> copy()
+    {
+        GapBufferStorage<T> copy = new GapBufferStorage<>(EMPTY);
+        copy.buffer = this.buffer.clone();
+        copy.gapStart = this.gapStart;
+        copy.gapEnd = this.gapEnd;
+        return copy;
+    }
+
+
+    /**
+     * moves the gap to the end and copies the elements into it
+     */
+    void appendAll(T[] items)
+    {
+        ensureCapacity(size() + items.length);
+        moveGapTo(size());
+        System.arraycopy(items, 0, this.buffer, this.gapStart, items.length);
+        this.gapStart += items.length;
+        this.modCount++;
+    }
+
+
+    void ensureCapacity(int minCapacity)
+    {
+        if(this.buffer.length < minCapacity){
+            resize(minCapacity);
+        }
+    }
+
+
+    void trimToSize()
+    {
+        if(this.buffer.length > size()){
+            resize(size());
+        }
+    }
+
+
+    public Iterator<T> iterator()
+    {
+        return new GapBufferIterator();
+    }
+
+
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private class GapBufferIterator implements Iterator<T>
+    {
+        private int nextIndex = EMPTY;
+        private int expectedModCount = modCount;
+
+        public boolean hasNext()
+        {
+            return nextIndex < size();
+        }
+
+        public T next()
+        {
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextIndex >= size()){
+                throw new NoSuchElementException();
+            }
+            T item = get(nextIndex);
+            nextIndex++;
+            return item;
+        }
+    }
+
+    private int gapLength()
+    {
+        return this.gapEnd - this.gapStart;
+    }
+
+    private void insertAt(int index, T value)
+    {
+        if(gapLength() == EMPTY){
+            resize(2 * this.buffer.length + 1);
+        }
+        moveGapTo(index);
+        this.buffer[this.gapStart] = value;
+        this.gapStart++;
+        this.modCount++;
+    }
+
+    /**
+     * moves the gap so that it starts at the given position, shifting only
+     * the elements between the old and the new place of the gap
+     */
+    private void moveGapTo(int index)
+    {
+        if(index < this.gapStart){
+            int count = this.gapStart - index;
+            System.arraycopy(this.buffer, index, this.buffer, this.gapEnd - count, count);
+            Arrays.fill(this.buffer, index, Math.min(this.gapStart, this.gapEnd - count), null);
+            this.gapStart -= count;
+            this.gapEnd -= count;
+        }else if(index > this.gapStart){
+            int count = index - this.gapStart;
+            System.arraycopy(this.buffer, this.gapEnd, this.buffer, this.gapStart, count);
+            Arrays.fill(this.buffer, Math.max(this.gapEnd, this.gapStart + count), this.gapEnd + count, null);
+            this.gapStart += count;
+            this.gapEnd += count;
+        }
+    }
+
+    /**
+     * copies the elements into a buffer of the given length, keeping the gap where it is
+     */
+    private void resize(int newLength)
+    {
+        Object[] newBuffer = new Object[newLength];
+        int afterGap = this.buffer.length - this.gapEnd;
+        System.arraycopy(this.buffer, 0, newBuffer, 0, this.gapStart);
+        System.arraycopy(this.buffer, this.gapEnd, newBuffer, newLength - afterGap, afterGap);
+        this.buffer = newBuffer;
+        this.gapEnd = newLength - afterGap;
+    }
+}
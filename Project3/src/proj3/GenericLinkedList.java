@@ -0,0 +1,766 @@
+package proj3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ *
+ * GenericLinkedList class that represents a Linked List of any type T, contains
+ * ListNodes. LinkedList is the String version.
+ *
+ *  Invariants of the GenericLinkedList class:
+ *  1. Length = Number of ListNodes in LinkedList.
+ *  2. If length == 0, firstNode = null.
+ *  3. The firstNode is a reference to the first ListNode in the LinkedList.
+ *  4. Last ListNode in LinkedList points to null.
+ *  5. ListNode.next refers to the next ListNode in the LinkedList, ListNode.prev refers to the
+ *     previous ListNode (null for the firstNode).
+ *  6. If length == 0, lastNode = null, otherwise lastNode is a reference to the last ListNode.
+ *  7. If the LinkedList is indexed, index maps each distinct data in the LinkedList to how many
+ *     ListNodes hold it and the first of them (null when that has to be looked up again).
+ *     Otherwise index = null.
+ */
+public class GenericLinkedList<T> implements Iterable<T>
+{
+    private final int EMPTY = 0;
+    private final int START = 0;
+    private final String TRUNCATED = "...";
+    private final int MIN_SEGMENT_SIZE = 1024;
+    private final int MAX_SEGMENTS = 1024;
+
+    private int length;
+    private ListNode<T> firstNode;
+    private ListNode<T> lastNode;
+    private int modCount;
+    private ListNode<T>[] segmentBoundaries;
+    private int segmentSize;
+    private int segmentModCount;
+    private HashMap<T, IndexEntry<T>> index;
+
+    /**
+     * Constructs an empty Linked List
+     */
+    public GenericLinkedList()
+    {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty Linked List, optionally with a hash index from data to ListNodes.
+     * The index makes containsData, getIndex, removeGivenData, insertAfterGivenData and
+     * insertBeforeGivenData find their node in O(1) expected time instead of scanning,
+     * at the cost of one hash entry per distinct data.
+     * Precondition: when indexed, ListNode.data is not changed directly, and T has
+     * equals and hashCode that agree.
+     * @param indexed true to keep the hash index
+     */
+    public GenericLinkedList(boolean indexed)
+    {
+        length = EMPTY;
+        firstNode = null;
+        lastNode = null;
+        if(indexed){
+            index = new HashMap<>();
+        }else{
+            index = null;
+        }
+    }
+
+    /**
+     * @return the length of the Linked List
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+
+    /**
+     * @return true iff this LinkedList keeps a hash index from data to ListNodes
+     */
+    public boolean isIndexed()
+    {
+        return index != null;
+    }
+
+
+    /**
+     * Returns the index of the first instance of given data within Linked List
+     * @param data given data
+     * @return the index of the given data
+     */
+    public int getIndex(T data){
+        ListNode<T> runner = findFirstNode(data);
+        if(runner == null){
+            return -1;
+        }
+        int count = 0;
+        while(runner.prev() != null){
+            runner = runner.prev();
+            count++;
+        }
+        return count;
+    }
+
+
+    /**
+     * gets and returns the data at the given index
+     * @param index given index
+     * @return data at given index
+     */
+    public T getDataAtIndex(int index){
+        ListNode<T> node = getNodeAtIndex(index);
+        if(node != null){
+            return node.getData();
+        }
+        return null;
+    }
+
+
+    /**
+     * checks to see if the linked list is empty
+     * @return true iff linked list is empty, false otherwise
+     */
+    public boolean isEmpty(){
+        return getLength() == EMPTY;
+    }
+
+
+    /**
+     * checks to see if the data given is the data in the firstNode
+     * @param dataToCheck given data
+     * @return true iff the given data is the data in the firstNode
+     */
+    public boolean isHeadNode(T dataToCheck){
+        return Objects.equals(this.firstNode.getData(), dataToCheck);
+    }
+
+
+    /**
+     * inserts the newNode to the front of the linked list, becomes the firstNode
+     * @param dataToAdd the given data for newNode
+     */
+    public void insertAtHead(T dataToAdd){
+    	ListNode<T> newNode = new ListNode<>(dataToAdd);
+
+        if(isEmpty()) {
+            this.firstNode = newNode;
+            this.lastNode = newNode;
+        }
+        else {
+            newNode.next = getHead();
+            getHead().prev = newNode;
+            this.firstNode = newNode;
+        }
+        this.length++;
+        this.modCount++;
+        indexInsert(newNode, false);
+    }
+
+
+    /**
+     * inserts the newNode at the end of the Linked List in constant time
+     * @param dataToAdd given data for newNode
+     */
+    public void insertAtEnd(T dataToAdd){
+        insertAfterNode(dataToAdd, getLast());
+    }
+
+
+    /**
+     * inserts the newNode after the node with the given data
+     * @param dataToAdd given data for newNode
+     * @param dataBefore the data of the node of which to insert the newNode after
+     */
+    public void insertAfterGivenData(T dataToAdd, T dataBefore){
+        ListNode<T> runner = findFirstNode(dataBefore);
+        if (runner != null) {
+            insertAfterNode(dataToAdd, runner);
+        }
+    }
+
+
+    /**
+     * insert the newNode before the node with the given data
+     * @param dataToAdd given data for newNode
+     * @param dataAfter the data of the node of which to insert the newNode before
+     */
+    public void insertBeforeGivenData(T dataToAdd, T dataAfter){
+        ListNode<T> runner = findFirstNode(dataAfter);
+        if(runner != null) {
+            insertAfterNode(dataToAdd, runner.prev());
+        }
+    }
+
+
+    /**
+     * inserts the newNode after the node at the given index in a single pass.
+     * Unlike insertAfterGivenData, duplicates are never a problem since the
+     * position is given rather than looked up by value.
+     * @param dataToAdd given data for newNode
+     * @param index the index of the node of which to insert the newNode after
+     */
+    public void insertAfterIndex(T dataToAdd, int index){
+        ListNode<T> nodeBefore = getNodeAtIndex(index);
+        if(nodeBefore != null){
+            insertAfterNode(dataToAdd, nodeBefore);
+        }
+    }
+
+
+    /**
+     * inserts the newNode directly after the given node handle, or at the head if
+     * the given node is null. Runs in constant time.
+     * Precondition: nodeBefore is null or a ListNode of this LinkedList.
+     * @param dataToAdd given data for newNode
+     * @param nodeBefore the node of which to insert the newNode after, null to insert at the head
+     * @return the newNode
+     */
+    public ListNode<T> insertAfterNode(T dataToAdd, ListNode<T> nodeBefore){
+        if(nodeBefore == null){
+            insertAtHead(dataToAdd);
+            return getHead();
+        }
+        ListNode<T> newNode = new ListNode<>(dataToAdd, nodeBefore.next());
+        newNode.prev = nodeBefore;
+        if(nodeBefore == getLast()){
+            this.lastNode = newNode;
+        }else{
+            nodeBefore.next().prev = newNode;
+        }
+        nodeBefore.next = newNode;
+        this.length++;
+        this.modCount++;
+        indexInsert(newNode, newNode == getLast());
+        return newNode;
+    }
+
+
+    /**
+     * inserts the newNode at the given index in the LinkedList
+     * @param dataToAdd given data for newNode
+     * @param index given index
+     */
+    public void insertAtIndex(T dataToAdd, int index){
+        if(!isEmpty()){
+            ListNode<T> runner = getNodeAtIndex(index);
+
+            if(runner != null) {
+                insertAfterNode(dataToAdd, runner.prev());
+            }
+        }
+    }
+
+
+    /**
+     * inserts a given Linked List at the end of a LinkedList in constant time.
+     * The nodes of listToAdd are linked in, not copied, so listToAdd should not
+     * be used afterwards. Use insertAllCopy to leave listToAdd unchanged.
+     * @param listToAdd given LinkedList
+     */
+    public void insertAll(GenericLinkedList<T> listToAdd){
+        if(listToAdd.isEmpty()){
+            return;
+        }
+        if(!isEmpty()){
+            this.getLast().next = listToAdd.getHead();
+            listToAdd.getHead().prev = this.getLast();
+        }else{
+            this.firstNode = listToAdd.getHead();
+        }
+        ListNode<T> runner = listToAdd.getHead();
+        this.lastNode = listToAdd.getLast();
+        this.length += listToAdd.getLength();
+        this.modCount++;
+        while(isIndexed() && runner != null){
+            indexInsert(runner, true);
+            runner = runner.next();
+        }
+    }
+
+
+    /**
+     * inserts copies of all the nodes of a given Linked List at the end of this LinkedList
+     * in a single pass. The given LinkedList is left unchanged, and may be this LinkedList.
+     * @param listToAdd given LinkedList
+     */
+    public void insertAllCopy(GenericLinkedList<T> listToAdd){
+        int lengthToAdd = listToAdd.getLength();
+        ListNode<T> runner = listToAdd.getHead();
+
+        for(int i = 0; i < lengthToAdd; i++){
+            insertAtEnd(runner.getData());
+            runner = runner.next();
+        }
+    }
+
+
+    /**
+     * inserts new nodes with the given data at the end of the LinkedList in a single pass,
+     * linking each new node straight to the one before it
+     * @param dataToAdd given data for the new nodes, in order
+     */
+    public void insertAllData(T[] dataToAdd){
+        ListNode<T> runner = getLast();
+        for(T data: dataToAdd){
+            ListNode<T> newNode = new ListNode<>(data);
+            newNode.prev = runner;
+            if(runner == null){
+                this.firstNode = newNode;
+            }else{
+                runner.next = newNode;
+            }
+            runner = newNode;
+            indexInsert(newNode, true);
+        }
+        this.lastNode = runner;
+        this.length += dataToAdd.length;
+        this.modCount++;
+    }
+
+
+    /**
+     * removes the firstNode in the LinkedList
+     */
+    public void removeHead(){
+        if(!isEmpty()){
+            indexRemove(getHead());
+            this.firstNode = getHead().next();
+            this.length--;
+            this.modCount++;
+            if(isEmpty()){
+                this.lastNode = null;
+            }else{
+                getHead().prev = null;
+            }
+        }
+    }
+
+
+    /**
+     * removes the last node in the LinkedList in constant time
+     */
+    public void removeLast(){
+        if(!isEmpty()){
+            removeNode(getLast());
+        }
+    }
+
+
+    /**
+     * removes the first node with the given data
+     * @param dataToRemove given data
+     */
+    public void removeGivenData(T dataToRemove){
+        ListNode<T> runner = findFirstNode(dataToRemove);
+        if(runner != null) {
+            removeNode(runner);
+        }
+    }
+
+
+    /**
+     * removes the node at the given index in the LinkedList
+     * @param index given index
+     */
+    public void removeAtIndex(int index){
+        ListNode<T> runner = getNodeAtIndex(index);
+        if(runner != null) {
+            removeNode(runner);
+        }
+    }
+
+
+    /**
+     * empties the LinkedList
+     */
+    public void clear(){
+        this.length = EMPTY;
+        this.modCount++;
+        this.firstNode = null;
+        if(isIndexed()){
+            this.index.clear();
+        }
+        this.lastNode = null;
+    }
+
+
+    /**
+     * creates a copy of the LinkedList in a single pass
+     * @return the copy of the LinkedList
+     */
+    public GenericLinkedList<T> clone(){
+        GenericLinkedList<T> copy = newList(isIndexed());
+        copy.insertAllCopy(this);
+
+        return copy;
+    }
+
+
+    /**
+     * checks to see if another given LinkedList is equal to this LinkedList
+     * @param other given LinkedList
+     * @return true iff the two LinkedLists are equal to each other
+     */
+    public boolean equals(GenericLinkedList<T> other){
+        if(this.getLength() != other.getLength()){
+            return false;
+        }
+
+        ListNode<T> runner = this.getHead();
+        ListNode<T> runnerOther = other.getHead();
+        while(runner != null && runnerOther != null){
+            if(!Objects.equals(runner.getData(), runnerOther.getData())){
+                return false;
+            }
+            runner = runner.next();
+            runnerOther = runnerOther.next();
+        }
+        return runner == null && runnerOther == null;
+    }
+
+
+    /**
+     * checks to see if any of the ListNodes in the LinkedList contain the given data
+     * @param data given data
+     * @return true iff the LinkedList contains the given data
+     */
+    public boolean containsData(T data){
+        if(isIndexed()){
+            return index.containsKey(data);
+        }
+        return findFirstNode(data) != null;
+    }
+
+
+    /**
+     * Produce a string representation of this LinkedList.
+     * The string you create should be formatted
+     * with a comma following each element, no comma following the
+     * last element, and all on a single line.  An empty LinkedList
+     * should give back "{}" followed by its capacity.
+     *
+     * @return a string representation of this sequence.
+     */
+	public String toString(){ 
+		StringBuilder toReturn = new StringBuilder();
+		try {
+			writeTo(toReturn);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // a StringBuilder never throws
+		}
+		return toReturn.toString();
+	}
+
+
+    /**
+     * writes the same string representation as toString to the given Appendable in one pass
+     * @param out where to write the LinkedList
+     * @throws IOException if out throws while being written to
+     */
+    public void writeTo(Appendable out) throws IOException{
+        writeTo(out, getLength());
+    }
+
+
+    /**
+     * writes the string representation of at most maxElements nodes to the given Appendable.
+     * If nodes are left out, "..." takes their place, for example "(A, B, ...)"
+     * @param out where to write the LinkedList
+     * @param maxElements the most nodes to write
+     * @throws IOException if out throws while being written to
+     */
+    public void writeTo(Appendable out, int maxElements) throws IOException{
+        out.append("(");
+        ListNode<T> runner = getHead();
+        int count = 0;
+        while(runner != null && count < maxElements){
+            out.append(String.valueOf(runner.getData()));
+            runner = runner.next();
+            count++;
+            if(runner != null){
+                out.append(", ");
+            }
+        }
+        if(runner != null){
+            out.append(TRUNCATED);
+        }
+        out.append(")");
+    }
+
+    /**
+     * Returns a fail-fast iterator over the data in the LinkedList, from the firstNode to the last.
+     * If the LinkedList is changed other than through the iterator while iterating, next()
+     * throws a ConcurrentModificationException.
+     * @return an iterator over the data in the LinkedList
+     */
+    public Iterator<T> iterator(){
+        return new LinkedListIterator();
+    }
+
+
+    /**
+     * Returns a spliterator over the data in the LinkedList. It knows the exact size
+     * and keeps the order of the LinkedList, so it can be used for (parallel) streams.
+     *
+     * The first split walks the LinkedList once to record the node at the start of
+     * every segment (at most MAX_SEGMENTS segments of at least MIN_SEGMENT_SIZE nodes).
+     * The boundaries are kept until the LinkedList changes, so every split after that,
+     * and every later parallel stream, halves its range of segments in constant time.
+     * @return a SIZED, SUBSIZED and ORDERED spliterator over the data in the LinkedList
+     */
+    public Spliterator<T> spliterator(){
+        return new LinkedListSpliterator();
+    }
+
+    //PACKAGE-PRIVATE NODE METHODS (used by the cursors of LinkedStorage)
+
+    /**
+     * removes the given node from the LinkedList in constant time, using its prev reference
+     * Precondition: node is a ListNode of this LinkedList.
+     * @param node the node to remove
+     */
+    void removeNode(ListNode<T> node){
+        if(node == getHead()){
+            removeHead();
+        }else{
+            indexRemove(node);
+            node.prev().next = node.next();
+            if(node == getLast()){
+                this.lastNode = node.prev();
+            }else{
+                node.next().prev = node.prev();
+            }
+            this.length--;
+            this.modCount++;
+        }
+    }
+
+
+    ListNode<T> getHead(){
+        return firstNode;
+    }
+
+    ListNode<T> getLast(){
+        return lastNode;
+    }
+
+    /**
+     * creates the empty list that clone fills in; subclasses override it so
+     * that clone returns their own type
+     * @param indexed true to keep the hash index
+     * @return the new list
+     */
+    GenericLinkedList<T> newList(boolean indexed){
+        return new GenericLinkedList<>(indexed);
+    }
+
+    //PRIVATE HELPER METHODS
+    private class LinkedListIterator implements Iterator<T>{
+        private ListNode<T> nextNode = getHead();
+        private int expectedModCount = modCount;
+
+        public boolean hasNext(){
+            return nextNode != null;
+        }
+
+        public T next(){
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextNode == null){
+                throw new NoSuchElementException();
+            }
+            T data = nextNode.getData();
+            nextNode = nextNode.next();
+            return data;
+        }
+    }
+
+    private class LinkedListSpliterator implements Spliterator<T>{
+        private final int expectedModCount;
+        private ListNode<T>[] boundaries;
+        private int boundaryStep;
+        private int firstSegment;
+        private int endSegment;
+        private ListNode<T> nextNode;
+        private int remaining;
+
+        LinkedListSpliterator(){
+            this.expectedModCount = modCount;
+            this.boundaries = null;
+            this.nextNode = getHead();
+            this.remaining = getLength();
+        }
+
+        LinkedListSpliterator(LinkedListSpliterator parent, int endSegment, int remaining){
+            this.expectedModCount = parent.expectedModCount;
+            this.boundaries = parent.boundaries;
+            this.boundaryStep = parent.boundaryStep;
+            this.firstSegment = parent.firstSegment;
+            this.endSegment = endSegment;
+            this.nextNode = parent.nextNode;
+            this.remaining = remaining;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action){
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(remaining == EMPTY){
+                return false;
+            }
+            action.accept(nextNode.getData());
+            nextNode = nextNode.next();
+            remaining--;
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action){
+            ListNode<T> runner = nextNode;
+            for(int i = 0; i < remaining; i++){
+                if(expectedModCount != modCount){
+                    throw new ConcurrentModificationException();
+                }
+                action.accept(runner.getData());
+                runner = runner.next();
+            }
+            nextNode = runner;
+            remaining = EMPTY;
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        public Spliterator<T> trySplit(){
+            if(expectedModCount != modCount){
+                return null;
+            }
+            if(boundaries == null){
+                if(nextNode != getHead()){
+                    return null;
+                }
+                boundaries = getSegmentBoundaries();
+                boundaryStep = segmentSize;
+                endSegment = boundaries.length;
+            }
+            if(endSegment - firstSegment < 2 || nextNode != boundaries[firstSegment]){
+                return null;
+            }
+            int midSegment = (firstSegment + endSegment) >>> 1;
+            int prefixLength = (midSegment - firstSegment) * boundaryStep;
+            LinkedListSpliterator prefix = new LinkedListSpliterator(this, midSegment, prefixLength);
+
+            firstSegment = midSegment;
+            nextNode = boundaries[midSegment];
+            remaining -= prefixLength;
+            return prefix;
+        }
+
+        public long estimateSize(){
+            return remaining;
+        }
+
+        public int characteristics(){
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ListNode<T>[] getSegmentBoundaries(){
+        if(segmentBoundaries == null || segmentModCount != modCount){
+            segmentSize = Math.max(MIN_SEGMENT_SIZE, (getLength() + MAX_SEGMENTS - 1) / MAX_SEGMENTS);
+            ListNode<T>[] boundaries = (ListNode<T>[]) new ListNode<?>[(getLength() + segmentSize - 1) / segmentSize];
+            ListNode<T> runner = getHead();
+
+            for(int i = 0; i < getLength(); i++){
+                if(i % segmentSize == START){
+                    boundaries[i / segmentSize] = runner;
+                }
+                runner = runner.next();
+            }
+            segmentBoundaries = boundaries;
+            segmentModCount = modCount;
+        }
+        return segmentBoundaries;
+    }
+
+    private static class IndexEntry<T>{
+        private int count;
+        private ListNode<T> first;
+
+        IndexEntry(ListNode<T> first){
+            this.count = 1;
+            this.first = first;
+        }
+    }
+
+    private void indexInsert(ListNode<T> node, boolean afterAll){
+        if(isIndexed()){
+            IndexEntry<T> entry = index.get(node.getData());
+            if(entry == null){
+                index.put(node.getData(), new IndexEntry<>(node));
+            }else{
+                entry.count++;
+                if(node == getHead() || (entry.first != null && node.next() == entry.first)){
+                    entry.first = node;
+                }else if(!afterAll){
+                    entry.first = null; // may or may not be before the first, look it up when needed
+                }
+            }
+        }
+    }
+
+    private void indexRemove(ListNode<T> node){
+        if(isIndexed()){
+            IndexEntry<T> entry = index.get(node.getData());
+            entry.count--;
+            if(entry.count == EMPTY){
+                index.remove(node.getData());
+            }else if(entry.first == node){
+                entry.first = null;
+            }
+        }
+    }
+
+    private ListNode<T> findFirstNode(T data){
+        IndexEntry<T> entry = null;
+        if(isIndexed()){
+            entry = index.get(data);
+            if(entry == null){
+                return null;
+            }
+            if(entry.first != null){
+                return entry.first;
+            }
+        }
+        ListNode<T> runner = getHead();
+        while(runner != null && !Objects.equals(runner.getData(), data)){
+            runner = runner.next();
+        }
+        if(entry != null){
+            entry.first = runner;
+        }
+        return runner;
+    }
+
+    private ListNode<T> getNodeAtIndex(int index){
+        int count = 0;
+        ListNode<T> runner = getHead();
+
+        while(runner != null && count != index){
+            runner = runner.next();
+            count++;
+        }
+        return runner;
+    }
+}
+
+
@@ -0,0 +1,679 @@
+package proj3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A class that represents a Sequence ADT. Holds items of any type T, stored
+ * directly, so they do not have to be turned into Strings and back.
+ * Elements are accessed by a "current" index. Sequence is the String version.
+ *
+ * The elements are kept in a storage engine chosen at construction (see
+ * Storage). The default, LINKED, is a doubly linked list.
+ *
+ * Invariants of the GenericSequence class:
+ *  1. If there is no current index, cursor = null (and the current index is -1).
+ *  2. -1 < current < size, (size(number of items) = holder.size())
+ *  3. If size > 0, the contents are stored in holder at indices 0 to size-1 and the contents at indices
+ *     >= size are irrelevant.
+ *  4. If size = 0, the contents are irrelevant.
+ *  5. 0 <= size <= capacity
+ *  6. If there is a current index, cursor is a cursor of holder on the current element.
+ *  7. holder may be shared with clones of this sequence. A shared holder is never changed,
+ *     not even its capacity or layout; it is copied first (see copyOnWrite). So a clone
+ *     can be read on another thread while this sequence changes (see ConcurrentSequence).
+ */
+public class GenericSequence<T> implements Iterable<T>
+{
+    private static final int DEFAULT_CAPACITY = 10;
+    private final int DEFAULT_CURRENT = -1;
+    private final int START = 0;
+    private final String TRUNCATED = "...";
+
+    /**
+     * The storage engines a Sequence can keep its elements in.
+     */
+    public enum Storage
+    {
+        /** doubly linked list: O(1) editing at the cursor, O(n) to reach a position */
+        LINKED,
+        /** array sized to the capacity: O(1) access, O(n) editing */
+        ARRAY,
+        /** array with a gap at the last edit: O(1) editing near the cursor,
+         *  O(distance) to edit somewhere else */
+        GAP_BUFFER,
+        /** linked list of small arrays: O(1) editing at the cursor with
+         *  a fraction of the per-element memory of LINKED */
+        UNROLLED,
+        /** indexable skip list: O(log n) to reach, insert at or remove any position */
+        SKIP_LIST,
+        /** balanced tree of immutable nodes: O(log n) positional editing, addAll,
+         *  split and constant time clone */
+        ROPE,
+        /** Strings only: packed as UTF-8 outside the Java heap, with one long per
+         *  element on the heap; lone surrogates are kept (see LosslessUtf8).
+         *  Adding any other type throws ClassCastException */
+        OFF_HEAP
+    }
+
+	private SequenceStorage<T> holder;
+	private SequenceStorage.Cursor<T> cursor;
+    private int capacity;
+    private Storage storage;
+
+    /**
+     * Creates a new sequence with initial capacity 10.
+     */
+    public GenericSequence() {
+        this(DEFAULT_CAPACITY, Storage.LINKED);
+    }
+    
+
+    /**
+     * Creates a new sequence.
+     * 
+     * @param initialCapacity the initial capacity of the sequence.
+     */
+    public GenericSequence(int initialCapacity){
+        this(initialCapacity, Storage.LINKED);
+    }
+
+
+    /**
+     * Creates a new sequence with initial capacity 10.
+     *
+     * @param storage the storage engine to keep the elements in.
+     */
+    public GenericSequence(Storage storage) {
+        this(DEFAULT_CAPACITY, storage);
+    }
+
+
+    /**
+     * Creates a new sequence.
+     *
+     * @param initialCapacity the initial capacity of the sequence.
+     * @param storage the storage engine to keep the elements in.
+     */
+    public GenericSequence(int initialCapacity, Storage storage){
+        clearCurrent();
+        this.capacity = initialCapacity;
+        this.storage = storage;
+        this.holder = SequenceStorage.create(storage, initialCapacity);
+    }
+
+
+    /**
+     * Creates a sequence on an existing storage (used by clone and split,
+     * PersistentSequence.toSequence and the binary readers).
+     * Precondition: holder.size() <= capacity, and holder is unshared or
+     * share() was called for this sequence
+     */
+    GenericSequence(SequenceStorage<T> holder, Storage storage, int capacity, int currentIndex){
+        clearCurrent();
+        this.capacity = capacity;
+        this.storage = storage;
+        this.holder = holder;
+        if(currentIndex != DEFAULT_CURRENT){
+            this.cursor = holder.cursorAt(currentIndex);
+        }
+    }
+
+
+    /**
+     * Adds an element to the sequence in the location before the
+     * current element. If the sequence has no current element, the
+     * element is added to the beginning of the sequence.
+     *
+     * The added element becomes the current element.
+     *
+     * If the sequences's capacity has been reached, the sequence will
+     * expand to twice its current capacity plus 1.
+     *
+     * @param value the element to add.
+     */
+    public void addBefore(T value)
+    {
+        copyOnWrite();
+        capacityReached();
+
+        this.cursor = this.holder.insertBefore(this.cursor, value);
+    }
+
+
+    /**
+     * Adds an element to the sequence in the location after the current
+     * element. If the sequence has no current element, the element is
+     * added to the end of the sequence.
+     *
+     * The added element becomes the current element.
+     *
+     * If the sequences's capacity has been reached, the sequence will
+     * expand to twice its current capacity plus 1.
+     *
+     * @param value the element to add.
+     */
+    public void addAfter(T value)
+    {
+        copyOnWrite();
+        capacityReached();
+
+        this.cursor = this.holder.insertAfter(this.cursor, value);
+    }
+
+    
+    /**
+     * @return true if and only if the sequence has a current element.
+     */
+    public boolean isCurrent()
+    {
+        return getCurrentIndex() != DEFAULT_CURRENT;
+    }
+    
+    
+    /**
+     * @return the capacity of the sequence.
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    
+    /**
+     * @return the element at the current location in the sequence, or
+     * null if there is no current element.
+     */
+    public T getCurrent()
+    {
+        if(isCurrent()){
+            return this.cursor.get();
+        }else{
+            return null;
+        }
+    }
+
+
+    /**
+     * @return the value of the current index
+     */
+    public int getCurrentIndex(){
+        if(this.cursor == null){
+            return DEFAULT_CURRENT;
+        }
+        return this.cursor.index();
+    }
+
+
+    /**
+     * @return the storage engine this sequence keeps its elements in.
+     */
+    public Storage getStorage(){
+        return this.storage;
+    }
+
+
+    /**
+     * Increase the sequence's capacity to be
+     * at least minCapacity.  Does nothing
+     * if current capacity is already >= minCapacity.
+     *
+     * @param minCapacity the minimum capacity that the sequence
+     * should now have.
+     */
+    public void ensureCapacity(int minCapacity)
+    {
+        if(getCapacity() < minCapacity){
+            copyOnWrite();
+            this.capacity = minCapacity;
+            this.holder.ensureCapacity(minCapacity);
+        }
+    }
+
+    
+    /**
+     * Places the contents of another sequence at the end of this sequence.
+     *
+     * If adding all elements of the other sequence would exceed the
+     * capacity of this sequence, the capacity is changed to make (just enough) room for
+     * all of the elements to be added.
+     * 
+     * Postcondition: NO SIDE EFFECTS!  the other sequence should be left
+     * unchanged.  The current element of both sequences should remain
+     * where they are. (When this method ends, the current element
+     * should refer to the same element that it did at the time this method
+     * started.)
+     *
+     * @param another the sequence whose contents should be added.
+     */
+    public void addAll(GenericSequence<T> another)
+    {
+        if((size() + another.size()) > this.getCapacity()){
+            ensureCapacity((size() + another.size()));
+        }
+        copyOnWrite();
+        this.holder.appendAll(another.holder);
+    }
+
+    
+    /**
+     * Move forward in the sequence so that the current element is now
+     * the next element in the sequence.
+     *
+     * If the current element was already the end of the sequence,
+     * then advancing causes there to be no current element.
+     *
+     * If there is no current element to begin with, do nothing.
+     */
+    public void advance()
+    {
+        if(isCurrent() && !this.cursor.next()){
+            clearCurrent();
+        }
+    }
+
+
+    /**
+     * Move backward in the sequence so that the current element is now
+     * the previous element in the sequence.
+     *
+     * If the current element was the start of the sequence,
+     * then retreating causes there to be no current element.
+     *
+     * If there is no current element to begin with, do nothing.
+     */
+    public void retreat()
+    {
+        if(isCurrent() && !this.cursor.previous()){
+            clearCurrent();
+        }
+    }
+
+    
+    /**
+     * Make a copy of this sequence.  Subsequence changes to the copy
+     * do not affect the current sequence, and vice versa.
+     * 
+     * Postcondition: NO SIDE EFFECTS!  This sequence's current
+     * element should remain unchanged.  The clone's current
+     * element will correspond to the same place as in the original.
+     *
+     * The copy shares this sequence's nodes until either of them is
+     * changed, so cloning takes constant time. Whichever sequence changes
+     * first copies the nodes for itself at that point.
+     *
+     * @return the copy of this sequence.
+     */
+    public GenericSequence<T> clone()
+    {
+        this.holder.share();
+        GenericSequence<T> copy = newSequence(this.holder, getStorage(), getCapacity(), DEFAULT_CURRENT);
+        if(isCurrent()){
+            copy.cursor = this.cursor.copy();
+        }
+
+        return copy;
+    }
+   
+    
+    /**
+     * Remove the current element from this sequence.  The following
+     * element, if there was one, becomes the current element.  If
+     * there was no following element (current was at the end of the
+     * sequence), the sequence now has no current element.
+     *
+     * If there is no current element, does nothing.
+     */
+    public void removeCurrent()
+    {
+        if(isCurrent()){
+            copyOnWrite();
+            this.cursor = this.holder.remove(this.cursor);
+        }
+    }
+
+
+    /**
+     * Removes the current element and every element after it from this
+     * sequence, and returns them as a new sequence with the same capacity
+     * and storage engine. The moved current element is the current element
+     * of the new sequence, and this sequence has no current element.
+     *
+     * If there is no current element, nothing is removed and the new
+     * sequence is empty.
+     *
+     * This takes O(log n) with ROPE storage and O(n) otherwise.
+     *
+     * @return the sequence of the elements that were split off.
+     */
+    public GenericSequence<T> split()
+    {
+        GenericSequence<T> tail = newSequence(SequenceStorage.create(getStorage(), getCapacity()),
+                getStorage(), getCapacity(), DEFAULT_CURRENT);
+        if(isCurrent()){
+            copyOnWrite();
+            this.holder.splitOff(getCurrentIndex(), tail.holder);
+            tail.cursor = tail.holder.cursorAt(START);
+            clearCurrent();
+        }
+        return tail;
+    }
+
+
+    /**
+     * @return the number of elements stored in the sequence.
+     */
+    public int size()
+    {
+        return this.holder.size();
+    }
+
+    
+    /**
+     * Sets the current element to the start of the sequence.  If the
+     * sequence is empty, the sequence has no current element.
+     */
+    public void start()
+    {
+        if(isEmpty()){
+            clearCurrent();
+        }else{
+            this.cursor = this.holder.cursorAt(START);
+        }
+    }
+
+
+    /**
+     * Sets the current element to the end of the sequence.  If the
+     * sequence is empty, the sequence has no current element.
+     */
+    public void end()
+    {
+        if(isEmpty()){
+            clearCurrent();
+        }else{
+            this.cursor = this.holder.cursorAt(size() - 1);
+        }
+    }
+
+
+    /**
+     * Sets the current element to the element at the given position. If there
+     * is no element at that position, the sequence has no current element.
+     *
+     * This takes O(log n) with SKIP_LIST storage, constant time with ARRAY and
+     * GAP_BUFFER storage, and O(n) with LINKED and UNROLLED storage.
+     *
+     * @param index the position of the new current element, starting at 0.
+     */
+    public void seek(int index)
+    {
+        if(index < START || index >= size()){
+            clearCurrent();
+        }else{
+            this.cursor = this.holder.cursorAt(index);
+        }
+    }
+
+    
+    /**
+     * Reduce the current capacity to its actual size, so that it has
+     * capacity to store only the elements currently stored.
+     */
+    public void trimToSize()
+    {
+        if(getCapacity() > size()){
+            copyOnWrite();
+            this.capacity = size();
+            this.holder.trimToSize();
+        }
+    }
+    
+    
+    /**
+     * Produce a string representation of this sequence.  The current
+     * location is indicated by a >.  For example, a sequence with "A"
+     * followed by "B", where "B" is the current element, and the
+     * capacity is 5, would print as:
+     * 
+     *    {A, >B} (capacity = 5)
+     * 
+     * The string you create should be formatted like the above example,
+     * with a comma following each element, no comma following the
+     * last element, and all on a single line.  An empty sequence
+     * should give back "{}" followed by its capacity.
+     * 
+     * @return a string representation of this sequence.
+     */
+    public String toString() 
+    {
+        StringBuilder sequenceString = new StringBuilder();
+        try {
+            writeTo(sequenceString);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringBuilder never throws
+        }
+        return sequenceString.toString();
+    }
+
+
+    /**
+     * Writes the same string representation as toString to the given
+     * Appendable, walking the sequence once without building the whole
+     * string first.
+     *
+     * @param out where to write the sequence.
+     * @throws IOException if out throws while being written to.
+     */
+    public void writeTo(Appendable out) throws IOException
+    {
+        writeTo(out, size());
+    }
+
+
+    /**
+     * Writes the string representation of this sequence to the given
+     * Appendable, but with at most maxElements elements. If elements
+     * are left out, "..." takes their place, for example:
+     *
+     *    {A, >B, ...} (capacity = 5)
+     *
+     * @param out where to write the sequence.
+     * @param maxElements the most elements to write.
+     * @throws IOException if out throws while being written to.
+     */
+    public void writeTo(Appendable out, int maxElements) throws IOException
+    {
+        out.append("{");
+
+        Iterator<T> items = iterator();
+        int count = 0;
+        while(items.hasNext() && count < maxElements){
+            if(count == getCurrentIndex()){
+                out.append(">");
+            }
+            out.append(String.valueOf(items.next()));
+            count++;
+            if(items.hasNext()){
+                out.append(", ");
+            }
+        }
+        if(items.hasNext()){
+            out.append(TRUNCATED);
+        }
+        out.append("} ");
+
+        out.append("(capacity = ").append(Integer.toString(getCapacity())).append(")");
+    }
+    
+    /**
+     * Checks whether another sequence is equal to this one.  To be
+     * considered equal, the other sequence must have the same size
+     * as this sequence, have the same elements, in the same
+     * order, and with the same element marked
+     * current.  The capacity can differ.
+     * 
+     * Postcondition: NO SIDE EFFECTS!  this sequence and the
+     * other sequence should remain unchanged, including the
+     * current element.
+     * 
+     * @param other the other Sequence with which to compare
+     * @return true iff the other sequence is equal to this one.
+     */
+    public boolean equals(GenericSequence<T> other) 
+    {
+        if(getCurrentIndex() != other.getCurrentIndex() || size() != other.size()){
+            return false;
+        }
+        return this.holder.sameElements(other.holder);
+    }
+
+
+    /**
+     * Checks whether the sequence holds an element equal to the given one.
+     * Does not change the current element.
+     *
+     * @param value the element to look for, may be null.
+     * @return true iff some element of the sequence is equal to value.
+     */
+    public boolean contains(T value)
+    {
+        return this.holder.contains(value);
+    }
+
+    /**
+     * 
+     * @return true if Sequence empty, else false
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     *  empty the sequence.  There should be no current element.
+     */
+    public void clear()
+    {
+        clearCurrent();
+        if(this.holder.isShared()){
+            this.holder.unshare();
+            this.holder = SequenceStorage.create(getStorage(), getCapacity());
+        }else{
+            this.holder.clear();
+        }
+    }
+
+
+
+    /**
+     * Returns an iterator over the elements of this sequence, from the
+     * start to the end. Iterating does not move the current element.
+     *
+     * The iterator is fail-fast: if this sequence is changed while
+     * iterating, the iterator throws a ConcurrentModificationException.
+     * An iterator taken from a clone keeps going over the elements the
+     * clone had when the iterator was created.
+     *
+     * @return an iterator over the elements of this sequence.
+     */
+    public Iterator<T> iterator()
+    {
+        return this.holder.iterator();
+    }
+
+
+    /**
+     * @return a SIZED, SUBSIZED and ORDERED spliterator over the elements of this sequence.
+     */
+    public Spliterator<T> spliterator()
+    {
+        return this.holder.spliterator();
+    }
+
+
+    /**
+     * @return a sequential stream of the elements of this sequence, in order.
+     */
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+
+    /**
+     * Returns a parallel stream of the elements of this sequence. The
+     * sequence is split into balanced chunks, so large sequences are
+     * spread across all cores.
+     *
+     * @return a parallel stream of the elements of this sequence.
+     */
+    public Stream<T> parallelStream()
+    {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+
+    /**
+     * Creates the sequence that clone and split return, on the given storage,
+     * without allocating one of its own. Subclasses override it so that those
+     * return their own type.
+     *
+     * @param holder the storage of the new sequence.
+     * @param storage the storage engine of holder.
+     * @param capacity the capacity of the new sequence.
+     * @param currentIndex the index of the current element, -1 for none.
+     * @return the new sequence.
+     */
+    GenericSequence<T> newSequence(SequenceStorage<T> holder, Storage storage, int capacity, int currentIndex)
+    {
+        return new GenericSequence<>(holder, storage, capacity, currentIndex);
+    }
+
+
+    /**
+     * Precondition: 0 <= index < size()
+     * @return a cursor on the element at index, for reading a run of elements
+     * without moving the current element; it must not be used once this
+     * sequence has changed
+     */
+    SequenceStorage.Cursor<T> cursorAt(int index)
+    {
+        return this.holder.cursorAt(index);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private void capacityReached(){
+        if(size() == getCapacity()){
+            ensureCapacity((getCapacity() * 2) + 1);
+        }
+    }
+
+    private void clearCurrent(){
+        this.cursor = null;
+    }
+
+    /**
+     * gives this sequence a holder of its own if it shares one. The old holder
+     * is only let go of once it has been read, since another sequence that
+     * shares it may be changed on another thread as soon as it is unshared
+     */
+    private void copyOnWrite(){
+        if(this.holder.isShared()){
+            SequenceStorage<T> copy = this.holder.copy();
+            SequenceStorage.Cursor<T> copyCursor = null;
+            if(isCurrent()){
+                copyCursor = copy.cursorAt(this.cursor.index());
+            }
+            this.holder.unshare();
+            this.holder = copy;
+            this.cursor = copyCursor;
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package proj3;
+
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+/**
+ * Tests GenericSequence and GenericLinkedList with elements that are not
+ * Strings, on every storage engine.
+ */
+public class GenericSequenceTest {
+    @Rule // a test will fail if it takes longer than 1/10 of a second to run
+    public Timeout timeout = Timeout.millis(100);
+
+    /**
+     * A record stored directly in a sequence, instead of as a String.
+     */
+    private static class Point {
+        private final int x;
+        private final int y;
+
+        Point(int x, int y){
+            this.x = x;
+            this.y = y;
+        }
+
+        public boolean equals(Object other){
+            return other instanceof Point && ((Point) other).x == x && ((Point) other).y == y;
+        }
+
+        public int hashCode(){
+            return 31 * x + y;
+        }
+
+        public String toString(){
+            return x + ":" + y;
+        }
+    }
+
+    @Test //elements are kept and returned as they are on every engine
+    public void testIntegerElements(){
+        for(Sequence.Storage storage: Sequence.Storage.values()){
+            if(storage == Sequence.Storage.OFF_HEAP){
+                continue;
+            }
+            GenericSequence<Integer> s = new GenericSequence<>(2, storage);
+            for(int i = 0; i < 100; i++){
+                s.addAfter(i);
+            }
+            s.start();
+            int sum = 0;
+            while(s.isCurrent()){
+                sum += s.getCurrent();
+                s.advance();
+            }
+            assertEquals(storage.toString(), 4950, sum);
+            assertEquals(4950, s.stream().mapToInt(Integer::intValue).sum());
+        }
+    }
+
+    @Test //toString, equals, clone and split work on records
+    public void testRecordElements(){
+        for(Sequence.Storage storage: Sequence.Storage.values()){
+            if(storage == Sequence.Storage.OFF_HEAP){
+                continue;
+            }
+            GenericSequence<Point> s = new GenericSequence<>(5, storage);
+            s.addAfter(new Point(1, 2));
+            s.addAfter(new Point(3, 4));
+            s.addBefore(null);
+            assertEquals("{1:2, >null, 3:4} (capacity = 5)", s.toString());
+
+            GenericSequence<Point> copy = s.clone();
+            assertTrue(s.equals(copy));
+            copy.advance();
+            GenericSequence<Point> tail = copy.split();
+            assertEquals(new Point(3, 4), tail.getCurrent());
+            assertEquals(2, copy.size());
+            assertEquals(3, s.size());
+        }
+    }
+
+    @Test //a GenericLinkedList finds and removes records by equals, with and without the index
+    public void testLinkedListRecords(){
+        for(boolean indexed: new boolean[] {false, true}){
+            GenericLinkedList<Point> ll = new GenericLinkedList<>(indexed);
+            ll.insertAtEnd(new Point(1, 1));
+            ll.insertAtEnd(new Point(2, 2));
+            ll.insertAtEnd(new Point(1, 1));
+            assertTrue(ll.containsData(new Point(2, 2)));
+            assertEquals(1, ll.getIndex(new Point(2, 2)));
+            ll.removeGivenData(new Point(1, 1));
+            assertEquals("(2:2, 1:1)", ll.toString());
+            assertEquals(new Point(1, 1), ll.getDataAtIndex(1));
+            assertTrue(ll.equals(ll.clone()));
+        }
+    }
+
+    @Test //the String versions return their own type from clone and split
+    public void testStringVersions(){
+        Sequence s = new Sequence();
+        s.addAfter("A");
+        Sequence copy = s.clone();
+        Sequence tail = copy.split();
+        assertEquals("A", tail.getCurrent());
+
+        LinkedList ll = new LinkedList();
+        ll.insertAtEnd("A");
+        LinkedList llCopy = ll.clone();
+        llCopy.removeGivenString("A");
+        assertTrue(llCopy.isEmpty());
+        assertEquals(1, ll.getLength());
+    }
+
+    @Test(expected = ClassCastException.class) //the off-heap engine only keeps Strings
+    public void testOffHeapRejectsOtherTypes(){
+        GenericSequence<Integer> s = new GenericSequence<>(Sequence.Storage.OFF_HEAP);
+        s.addAfter(1);
+    }
+}
@@ -0,0 +1,450 @@
+package proj3;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A Sequence of ints, kept in an int[] with no boxing. It has the same
+ * cursor API as Sequence, with int elements, and the same capacity rules:
+ * the capacity is the length of the array.
+ *
+ * The array is a gap buffer (see GapBufferStorage): the free slots sit where
+ * the last edit happened, so editing at or near the current element is
+ * amortized O(1), and moving the current element never copies anything.
+ *
+ * Invariants of the IntSequence class:
+ *  1. The elements are in buffer[0] to buffer[gapStart-1], followed by
+ *     buffer[gapEnd] to buffer[buffer.length-1].
+ *  2. 0 <= gapStart <= gapEnd <= buffer.length = capacity
+ *  3. size = buffer.length - (gapEnd - gapStart)
+ *  4. current = -1 if there is no current element, otherwise 0 <= current < size.
+ */
+public class IntSequence
+{
+    private static final int DEFAULT_CAPACITY = 10;
+    private final int DEFAULT_CURRENT = -1;
+    private final int START = 0;
+
+    private int[] buffer;
+    private int gapStart;
+    private int gapEnd;
+    private int current;
+
+    /**
+     * Creates a new sequence with initial capacity 10.
+     */
+    public IntSequence() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Creates a new sequence.
+     *
+     * @param initialCapacity the initial capacity of the sequence.
+     */
+    public IntSequence(int initialCapacity){
+        this.buffer = new int[initialCapacity];
+        this.gapStart = START;
+        this.gapEnd = initialCapacity;
+        clearCurrent();
+    }
+
+
+    /**
+     * Adds an int to the sequence in the location before the current
+     * element. If the sequence has no current element, the int is added
+     * to the beginning of the sequence.
+     *
+     * The added element becomes the current element.
+     *
+     * If the sequences's capacity has been reached, the sequence will
+     * expand to twice its current capacity plus 1.
+     *
+     * @param value the int to add.
+     */
+    public void addBefore(int value)
+    {
+        int index = START;
+        if(isCurrent()){
+            index = this.current;
+        }
+        insertAt(index, value);
+    }
+
+
+    /**
+     * Adds an int to the sequence in the location after the current
+     * element. If the sequence has no current element, the int is added
+     * to the end of the sequence.
+     *
+     * The added element becomes the current element.
+     *
+     * If the sequences's capacity has been reached, the sequence will
+     * expand to twice its current capacity plus 1.
+     *
+     * @param value the int to add.
+     */
+    public void addAfter(int value)
+    {
+        int index = size();
+        if(isCurrent()){
+            index = this.current + 1;
+        }
+        insertAt(index, value);
+    }
+
+
+    /**
+     * @return true if and only if the sequence has a current element.
+     */
+    public boolean isCurrent()
+    {
+        return this.current != DEFAULT_CURRENT;
+    }
+
+
+    /**
+     * @return the capacity of the sequence.
+     */
+    public int getCapacity()
+    {
+        return this.buffer.length;
+    }
+
+
+    /**
+     * Precondition: isCurrent()
+     * @return the element at the current location in the sequence.
+     * @throws IllegalStateException if there is no current element.
+     */
+    public int getCurrent()
+    {
+        if(!isCurrent()){
+            throw new IllegalStateException("no current element");
+        }
+        return get(this.current);
+    }
+
+
+    /**
+     * @return the value of the current index, or -1 if there is no current element.
+     */
+    public int getCurrentIndex()
+    {
+        return this.current;
+    }
+
+
+    /**
+     * Increase the sequence's capacity to be at least minCapacity. Does
+     * nothing if current capacity is already >= minCapacity.
+     *
+     * @param minCapacity the minimum capacity that the sequence
+     * should now have.
+     */
+    public void ensureCapacity(int minCapacity)
+    {
+        if(getCapacity() < minCapacity){
+            resize(minCapacity);
+        }
+    }
+
+
+    /**
+     * Places the contents of another sequence at the end of this sequence,
+     * with one array copy per half of the other's buffer.
+     *
+     * If adding all elements of the other sequence would exceed the
+     * capacity of this sequence, the capacity is changed to make (just
+     * enough) room for all of the elements to be added.
+     *
+     * Postcondition: NO SIDE EFFECTS! the other sequence is left unchanged,
+     * and the current element of both sequences stays where it was. The
+     * other sequence may be this one.
+     *
+     * @param another the sequence whose contents should be added.
+     */
+    public void addAll(IntSequence another)
+    {
+        int count = another.size();
+        ensureCapacity(size() + count);
+        moveGapTo(size());
+        int afterGap = another.buffer.length - another.gapEnd;
+        System.arraycopy(another.buffer, START, this.buffer, this.gapStart, another.gapStart);
+        System.arraycopy(another.buffer, another.gapEnd, this.buffer, this.gapStart + another.gapStart, afterGap);
+        this.gapStart += count;
+    }
+
+
+    /**
+     * Move forward in the sequence so that the current element is now the
+     * next element in the sequence. If the current element was the end of
+     * the sequence, there is no current element afterwards. If there is no
+     * current element to begin with, do nothing.
+     */
+    public void advance()
+    {
+        if(isCurrent()){
+            seek(this.current + 1);
+        }
+    }
+
+
+    /**
+     * Move backward in the sequence so that the current element is now the
+     * previous element in the sequence. If the current element was the start
+     * of the sequence, there is no current element afterwards. If there is
+     * no current element to begin with, do nothing.
+     */
+    public void retreat()
+    {
+        if(isCurrent()){
+            seek(this.current - 1);
+        }
+    }
+
+
+    /**
+     * Make a copy of this sequence, with the same capacity and current
+     * element. Changes to the copy do not affect this sequence, and vice versa.
+     *
+     * @return the copy of this sequence.
+     */
+    public IntSequence clone()
+    {
+        IntSequence copy = new IntSequence(START);
+        copy.buffer = this.buffer.clone();
+        copy.gapStart = this.gapStart;
+        copy.gapEnd = this.gapEnd;
+        copy.current = this.current;
+        return copy;
+    }
+
+
+    /**
+     * Remove the current element from this sequence. The following element,
+     * if there was one, becomes the current element. If there was no
+     * following element, the sequence now has no current element.
+     *
+     * If there is no current element, does nothing.
+     */
+    public void removeCurrent()
+    {
+        if(isCurrent()){
+            moveGapTo(this.current);
+            this.gapEnd++;
+            if(this.current == size()){
+                clearCurrent();
+            }
+        }
+    }
+
+
+    /**
+     * @return the number of elements stored in the sequence.
+     */
+    public int size()
+    {
+        return this.buffer.length - (this.gapEnd - this.gapStart);
+    }
+
+
+    /**
+     * Sets the current element to the start of the sequence. If the
+     * sequence is empty, the sequence has no current element.
+     */
+    public void start()
+    {
+        seek(START);
+    }
+
+
+    /**
+     * Sets the current element to the end of the sequence. If the
+     * sequence is empty, the sequence has no current element.
+     */
+    public void end()
+    {
+        seek(size() - 1);
+    }
+
+
+    /**
+     * Sets the current element to the element at the given position, in
+     * constant time. If there is no element at that position, the sequence
+     * has no current element.
+     *
+     * @param index the position of the new current element, starting at 0.
+     */
+    public void seek(int index)
+    {
+        if(index < START || index >= size()){
+            clearCurrent();
+        }else{
+            this.current = index;
+        }
+    }
+
+
+    /**
+     * Reduce the current capacity to its actual size, so that it has
+     * capacity to store only the elements currently stored.
+     */
+    public void trimToSize()
+    {
+        if(getCapacity() > size()){
+            resize(size());
+        }
+    }
+
+
+    /**
+     * Produce a string representation of this sequence, in the same format
+     * as Sequence, for example:
+     *
+     *    {1, >2} (capacity = 5)
+     *
+     * @return a string representation of this sequence.
+     */
+    public String toString()
+    {
+        StringBuilder sequenceString = new StringBuilder("{");
+        for(int i = START; i < size(); i++){
+            if(i > START){
+                sequenceString.append(", ");
+            }
+            if(i == this.current){
+                sequenceString.append(">");
+            }
+            sequenceString.append(get(i));
+        }
+        sequenceString.append("} (capacity = ").append(getCapacity()).append(")");
+        return sequenceString.toString();
+    }
+
+
+    /**
+     * Checks whether another sequence is equal to this one: the same size,
+     * the same elements in the same order, and the same element marked
+     * current. The capacity can differ.
+     *
+     * @param other the other IntSequence with which to compare
+     * @return true iff the other sequence is equal to this one.
+     */
+    public boolean equals(IntSequence other)
+    {
+        if(this.current != other.current || size() != other.size()){
+            return false;
+        }
+        for(int i = START; i < size(); i++){
+            if(get(i) != other.get(i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * @return true if the sequence is empty, else false
+     */
+    public boolean isEmpty()
+    {
+        return size() == START;
+    }
+
+
+    /**
+     * empty the sequence. There should be no current element.
+     */
+    public void clear()
+    {
+        this.gapStart = START;
+        this.gapEnd = this.buffer.length;
+        clearCurrent();
+    }
+
+
+    /**
+     * @return a new array with the elements of this sequence, in order.
+     */
+    public int[] toArray()
+    {
+        int[] items = new int[size()];
+        System.arraycopy(this.buffer, START, items, START, this.gapStart);
+        System.arraycopy(this.buffer, this.gapEnd, items, this.gapStart, this.buffer.length - this.gapEnd);
+        return items;
+    }
+
+
+    /**
+     * Returns a stream of the elements of this sequence, in order, read
+     * straight from the array without boxing. The sequence must not be
+     * changed while the stream is used.
+     *
+     * @return a sequential IntStream of the elements.
+     */
+    public IntStream stream()
+    {
+        return IntStream.concat(Arrays.stream(this.buffer, START, this.gapStart),
+                Arrays.stream(this.buffer, this.gapEnd, this.buffer.length));
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private void clearCurrent(){
+        this.current = DEFAULT_CURRENT;
+    }
+
+    private int get(int index){
+        if(index < this.gapStart){
+            return this.buffer[index];
+        }
+        return this.buffer[index + this.gapEnd - this.gapStart];
+    }
+
+    /**
+     * inserts value at position index, growing to twice the capacity plus 1
+     * if the sequence is full, and makes it the current element
+     */
+    private void insertAt(int index, int value){
+        if(size() == getCapacity()){
+            resize((getCapacity() * 2) + 1);
+        }
+        moveGapTo(index);
+        this.buffer[this.gapStart] = value;
+        this.gapStart++;
+        this.current = index;
+    }
+
+    /**
+     * moves the gap so that it starts at the given position, shifting only
+     * the elements between the old and the new place of the gap
+     */
+    private void moveGapTo(int index){
+        if(index < this.gapStart){
+            int count = this.gapStart - index;
+            System.arraycopy(this.buffer, index, this.buffer, this.gapEnd - count, count);
+            this.gapStart -= count;
+            this.gapEnd -= count;
+        }else if(index > this.gapStart){
+            int count = index - this.gapStart;
+            System.arraycopy(this.buffer, this.gapEnd, this.buffer, this.gapStart, count);
+            this.gapStart += count;
+            this.gapEnd += count;
+        }
+    }
+
+    /**
+     * copies the elements into an array of the given length, keeping the gap where it is
+     */
+    private void resize(int newLength){
+        int[] newBuffer = new int[newLength];
+        int afterGap = this.buffer.length - this.gapEnd;
+        System.arraycopy(this.buffer, START, newBuffer, START, this.gapStart);
+        System.arraycopy(this.buffer, this.gapEnd, newBuffer, newLength - afterGap, afterGap);
+        this.buffer = newBuffer;
+        this.gapEnd = newLength - afterGap;
+    }
+}
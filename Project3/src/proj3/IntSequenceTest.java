@@ -0,0 +1,146 @@
+package proj3;
+
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+public class IntSequenceTest {
+    @Rule // a test will fail if it takes longer than 1/10 of a second to run
+    public Timeout timeout = Timeout.millis(100);
+
+    /**
+     * Creates a new sequence with the given capacity by adding the items
+     * after each other. The final element added is the current element.
+     * @param items the values to be added
+     * @return the new sequence
+     */
+    private IntSequence makeSequence(int[] items, int initialCapacity){
+        IntSequence s = new IntSequence(initialCapacity);
+        for(int item: items){
+            s.addAfter(item);
+        }
+        return s;
+    }
+
+    @Test //empty upon construction with capacity 10
+    public void testConstructDefault(){
+        IntSequence s = new IntSequence();
+        assertEquals(0, s.size());
+        assertEquals(10, s.getCapacity());
+        assertFalse(s.isCurrent());
+        assertEquals("{} (capacity = 10)", s.toString());
+    }
+
+    @Test //added elements become current, full sequences grow to 2c+1
+    public void testAddBeforeAndAfter(){
+        IntSequence s = makeSequence(new int[] {1, 3}, 2);
+        s.addBefore(2);
+        assertEquals("{1, >2, 3} (capacity = 5)", s.toString());
+        s.advance();
+        s.advance();
+        s.addBefore(0);
+        assertEquals("{>0, 1, 2, 3} (capacity = 5)", s.toString());
+        s.end();
+        s.addAfter(4);
+        assertEquals(4, s.getCurrent());
+        assertEquals(4, s.getCurrentIndex());
+    }
+
+    @Test //the following element becomes current, none after the last
+    public void testRemoveCurrent(){
+        IntSequence s = makeSequence(new int[] {1, 2, 3}, 5);
+        s.start();
+        s.removeCurrent();
+        assertEquals("{>2, 3} (capacity = 5)", s.toString());
+        s.end();
+        s.removeCurrent();
+        assertFalse(s.isCurrent());
+        assertEquals("{2} (capacity = 5)", s.toString());
+        s.removeCurrent();
+        assertEquals(1, s.size());
+    }
+
+    @Test //advance and retreat past the ends leave no current
+    public void testAdvanceRetreat(){
+        IntSequence s = makeSequence(new int[] {1, 2}, 5);
+        s.advance();
+        assertFalse(s.isCurrent());
+        s.end();
+        s.retreat();
+        assertEquals(1, s.getCurrent());
+        s.retreat();
+        assertFalse(s.isCurrent());
+        s.seek(1);
+        assertEquals(2, s.getCurrent());
+        s.seek(2);
+        assertFalse(s.isCurrent());
+    }
+
+    @Test //moving the cursor back and forth moves the gap, and edits land where the cursor is
+    public void testEditAcrossGap(){
+        IntSequence s = makeSequence(new int[] {1, 2, 3, 4, 5}, 5);
+        s.seek(1);
+        s.removeCurrent();
+        s.seek(3);
+        s.addAfter(6);
+        s.start();
+        s.addBefore(0);
+        s.seek(4);
+        s.removeCurrent();
+        assertEquals("{0, 1, 3, 4, >6} (capacity = 11)", s.toString());
+        assertArrayEquals(new int[] {0, 1, 3, 4, 6}, s.toArray());
+    }
+
+    @Test(expected = IllegalStateException.class) //no current, no value to return
+    public void testGetCurrentNone(){
+        new IntSequence().getCurrent();
+    }
+
+    @Test //addAll appends and leaves both currents and the other sequence unchanged
+    public void testAddAll(){
+        IntSequence s = makeSequence(new int[] {1, 2}, 2);
+        s.start();
+        IntSequence other = makeSequence(new int[] {3, 4}, 10);
+        other.start();
+        other.addBefore(0);
+        s.addAll(other);
+        assertEquals("{>1, 2, 0, 3, 4} (capacity = 5)", s.toString());
+        assertEquals("{>0, 3, 4} (capacity = 10)", other.toString());
+        s.addAll(s);
+        assertArrayEquals(new int[] {1, 2, 0, 3, 4, 1, 2, 0, 3, 4}, s.toArray());
+    }
+
+    @Test //a clone is independent and equal
+    public void testClone(){
+        IntSequence s = makeSequence(new int[] {1, 2, 3}, 5);
+        s.retreat();
+        IntSequence copy = s.clone();
+        assertTrue(s.equals(copy));
+        copy.removeCurrent();
+        assertFalse(s.equals(copy));
+        assertEquals("{1, >2, 3} (capacity = 5)", s.toString());
+    }
+
+    @Test //trimToSize, ensureCapacity and clear
+    public void testCapacity(){
+        IntSequence s = makeSequence(new int[] {1, 2, 3}, 20);
+        s.trimToSize();
+        assertEquals(3, s.getCapacity());
+        s.ensureCapacity(30);
+        assertEquals(30, s.getCapacity());
+        assertArrayEquals(new int[] {1, 2, 3}, s.toArray());
+        s.clear();
+        assertTrue(s.isEmpty());
+        assertFalse(s.isCurrent());
+        assertEquals(30, s.getCapacity());
+    }
+
+    @Test //stream reads both sides of the gap in order
+    public void testStream(){
+        IntSequence s = makeSequence(new int[] {1, 2, 4, 5}, 10);
+        s.seek(2);
+        s.addBefore(3);
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, s.stream().toArray());
+        assertEquals(15, s.stream().sum());
+    }
+}
@@ -0,0 +1,502 @@
+package proj3;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A Sequence that survives a crash. It lives in a directory, as a checkpoint
+ * of the whole sequence plus a write-ahead journal of every change made
+ * since the checkpoint was taken. open rebuilds the sequence by restoring
+ * the checkpoint and replaying the journal onto it.
+ *
+ * Each change is written to the journal as a small record (an op code, then
+ * its argument, if any) before it is made. Records are collected into
+ * batches, and each batch reaches the disk with one sequential write and one
+ * fsync (see SequenceJournal), so durability costs one sync per batch of
+ * changes instead of rewriting the whole sequence. A batch is committed when
+ * it holds batchRecords records, on commit(), and on close(). After a crash,
+ * the sequence comes back as it was at the end of the last committed batch.
+ *
+ * checkpoint() takes a new checkpoint and starts an empty journal, so the
+ * journal, and the time open takes to replay it, stay small. Checkpoints are
+ * incremental: only the segments of the sequence that changed since the
+ * last one are written (see SequenceCheckpoint), so a checkpoint costs about
+ * as much as the changes it covers, not the whole sequence.
+ *
+ * Files in the directory, for generation n:
+ *
+ *    manifest.n    checkpoint n, listing the segments of the sequence and
+ *                  the delta files they are in; written to manifest.n.tmp,
+ *                  synced, then renamed, so a checkpoint is either whole or
+ *                  absent. Generation 0 has none: open takes checkpoint 1 as
+ *                  soon as it starts a new sequence, so the capacity and
+ *                  storage engine are kept from the start
+ *    delta.n       the segments written by checkpoint n
+ *    journal.n     the changes made since checkpoint n
+ *
+ * Every method that changes the sequence is journaled, not just the editing
+ * ones: the cursor moves (advance, retreat, start, end, seek) decide where
+ * the next edit lands, and the capacity changes (ensureCapacity,
+ * trimToSize) show in toString, so replay needs them all to come back to
+ * the same state. Clones and split-off tails are plain Sequences, and are
+ * not journaled.
+ *
+ * If a record cannot be written, the change throws an UncheckedIOException.
+ * A JournaledSequence is not thread safe, and a directory must be opened by
+ * only one JournaledSequence at a time.
+ */
+public class JournaledSequence extends Sequence implements Closeable
+{
+    private static final int DEFAULT_BATCH_RECORDS = 64;
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final String JOURNAL = "journal.";
+    private static final long FIRST_GENERATION = 0;
+    private static final int NULL_LENGTH = -1;
+    private static final int DEFAULT_CURRENT = -1;
+
+    private static final byte ADD_BEFORE = 1;
+    private static final byte ADD_AFTER = 2;
+    private static final byte REMOVE_CURRENT = 3;
+    private static final byte ADVANCE = 4;
+    private static final byte RETREAT = 5;
+    private static final byte START = 6;
+    private static final byte END = 7;
+    private static final byte SEEK = 8;
+    private static final byte CLEAR = 9;
+    private static final byte ADD_ALL = 10;
+    private static final byte SPLIT = 11;
+    private static final byte ENSURE_CAPACITY = 12;
+    private static final byte TRIM_TO_SIZE = 13;
+
+    private final Path directory;
+    private final int batchRecords;
+    private long generation;
+    private SequenceJournal journal;
+    private SequenceCheckpoint checkpoints;
+    private int nesting;
+
+    /**
+     * writes the argument of a record
+     */
+    private interface Argument
+    {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final Argument NO_ARGUMENT = out -> { };
+    private static final Runnable NOT_TRACKED = () -> { };
+
+
+    private JournaledSequence(Path directory, int batchRecords, SequenceStorage<String> holder,
+            SequenceCheckpoint checkpoints)
+    {
+        super(holder, checkpoints.storage(), checkpoints.capacity(), checkpoints.current());
+        this.directory = directory;
+        this.batchRecords = batchRecords;
+        this.checkpoints = checkpoints;
+    }
+
+
+    /**
+     * Opens the journaled sequence kept in a directory, committing a batch
+     * every 64 changes (see open(Path, int)).
+     *
+     * @param directory the directory the sequence is kept in.
+     * @return the sequence, as of its last committed change.
+     * @throws IOException if the directory cannot be read or written.
+     */
+    public static JournaledSequence open(Path directory) throws IOException
+    {
+        return open(directory, DEFAULT_BATCH_RECORDS);
+    }
+
+
+    /**
+     * Opens the journaled sequence kept in a directory, starting a new one
+     * with the default capacity and storage engine if there is none (see
+     * open(Path, int, int, Storage)).
+     *
+     * @param directory the directory the sequence is kept in.
+     * @param batchRecords how many changes to collect before committing
+     * them together. 1 makes every change durable before it returns.
+     * @return the sequence, as of its last committed change.
+     * @throws IOException if the directory cannot be read or written, or
+     * holds a damaged checkpoint.
+     */
+    public static JournaledSequence open(Path directory, int batchRecords) throws IOException
+    {
+        return open(directory, batchRecords, DEFAULT_CAPACITY, Storage.LINKED);
+    }
+
+
+    /**
+     * Opens the journaled sequence kept in a directory. If the directory
+     * does not exist or holds no sequence, a new empty sequence is started
+     * in it. Otherwise the newest checkpoint is restored, with the capacity
+     * and storage engine it was taken with, and its journal is replayed onto
+     * it, up to the last whole batch. Anything after that, left by a crash
+     * in the middle of a commit, is cut off.
+     *
+     * @param directory the directory the sequence is kept in.
+     * @param batchRecords how many changes to collect before committing
+     * them together. 1 makes every change durable before it returns.
+     * @param initialCapacity the capacity of a new sequence.
+     * @param storage the storage engine of a new sequence.
+     * @return the sequence, as of its last committed change.
+     * @throws IOException if the directory cannot be read or written, or
+     * holds a damaged checkpoint.
+     */
+    public static JournaledSequence open(Path directory, int batchRecords, int initialCapacity, Storage storage)
+            throws IOException
+    {
+        if(batchRecords < 1){
+            throw new IllegalArgumentException("batchRecords must be at least 1: " + batchRecords);
+        }
+        Files.createDirectories(directory);
+        long generation = SequenceCheckpoint.newest(directory, FIRST_GENERATION);
+        SequenceCheckpoint checkpoints = new SequenceCheckpoint(storage, initialCapacity);
+        if(generation != FIRST_GENERATION){
+            checkpoints = SequenceCheckpoint.read(directory, generation);
+        }
+        SequenceStorage<String> holder = SequenceStorage.create(checkpoints.storage(), checkpoints.capacity());
+        holder.appendAll(checkpoints.readElements(directory));
+
+        JournaledSequence sequence = new JournaledSequence(directory, batchRecords, holder, checkpoints);
+        sequence.generation = generation;
+        Path journalFile = directory.resolve(JOURNAL + generation);
+        SequenceJournal.replay(journalFile, sequence::replay);
+        sequence.journal = new SequenceJournal(journalFile, batchRecords);
+        if(generation == FIRST_GENERATION){
+            sequence.checkpoint();
+        }
+        sequence.deleteUnused();
+        return sequence;
+    }
+
+
+    /**
+     * Makes every change so far durable, by committing the batch being
+     * collected.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    public void commit() throws IOException
+    {
+        if(this.journal != null){
+            this.journal.commit();
+        }
+    }
+
+
+    /**
+     * Takes a new checkpoint and starts a new, empty journal, then deletes
+     * the old journal and the files of older checkpoints that are no longer
+     * needed. This keeps the journal short, so open has less to replay.
+     *
+     * Only the segments of about a thousand elements that changed since the
+     * last checkpoint are written, plus a few bytes per segment for the
+     * manifest. Finding the changed segments takes O(1) per segment with
+     * ARRAY and GAP_BUFFER storage and O(log n) with SKIP_LIST and ROPE, so
+     * with those this takes time in proportion to the changes. With LINKED
+     * and UNROLLED one walk goes from the first changed segment to the last,
+     * so however few segments changed it can take O(n). The first
+     * checkpoint, and one that writes a new base, write every segment and
+     * take O(n) with any storage.
+     *
+     * @throws IOException if the checkpoint or journal cannot be written.
+     */
+    public void checkpoint() throws IOException
+    {
+        commit();
+        long next = this.generation + 1;
+        this.checkpoints.write(this.directory, next, this);
+        if(this.journal != null){
+            this.journal.close();
+            this.journal = new SequenceJournal(this.directory.resolve(JOURNAL + next), this.batchRecords);
+        }
+        this.generation = next;
+        deleteUnused();
+    }
+
+
+    /**
+     * Commits the last changes and closes the journal. The sequence can
+     * still be used afterwards, but its changes are no longer journaled.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    public void close() throws IOException
+    {
+        if(this.journal != null){
+            SequenceJournal closing = this.journal;
+            this.journal = null;
+            closing.close();
+        }
+    }
+
+
+    public void addBefore(String value)
+    {
+        int index = isCurrent() ? getCurrentIndex() : 0;
+        journaled(ADD_BEFORE, out -> writeString(out, value), () -> super.addBefore(value),
+                () -> this.checkpoints.inserted(index));
+    }
+
+
+    public void addAfter(String value)
+    {
+        int index = isCurrent() ? getCurrentIndex() + 1 : size();
+        journaled(ADD_AFTER, out -> writeString(out, value), () -> super.addAfter(value),
+                () -> this.checkpoints.inserted(index));
+    }
+
+
+    public void removeCurrent()
+    {
+        int index = getCurrentIndex();
+        journaled(REMOVE_CURRENT, NO_ARGUMENT, super::removeCurrent, () -> {
+            if(index >= 0){
+                this.checkpoints.removed(index);
+            }
+        });
+    }
+
+
+    public void advance()
+    {
+        journaled(ADVANCE, NO_ARGUMENT, super::advance);
+    }
+
+
+    public void retreat()
+    {
+        journaled(RETREAT, NO_ARGUMENT, super::retreat);
+    }
+
+
+    public void start()
+    {
+        journaled(START, NO_ARGUMENT, super::start);
+    }
+
+
+    public void end()
+    {
+        journaled(END, NO_ARGUMENT, super::end);
+    }
+
+
+    public void seek(int index)
+    {
+        journaled(SEEK, out -> out.writeInt(index), () -> super.seek(index));
+    }
+
+
+    public void clear()
+    {
+        journaled(CLEAR, NO_ARGUMENT, super::clear, () -> this.checkpoints.cleared());
+    }
+
+
+    /**
+     * Places the contents of another sequence at the end of this sequence
+     * (see GenericSequence.addAll). The journal records the added elements
+     * themselves, so this costs time and journal space in proportion to
+     * another.size().
+     *
+     * @param another the sequence whose contents should be added.
+     */
+    public void addAll(GenericSequence<String> another)
+    {
+        int added = another.size();
+        journaled(ADD_ALL, out -> {
+            out.writeInt(another.size());
+            for(String item: another){
+                writeString(out, item);
+            }
+        }, () -> super.addAll(another), () -> this.checkpoints.appended(added));
+    }
+
+
+    /**
+     * Splits off the current element and every element after it (see
+     * Sequence.split). The tail is a plain Sequence, and is not journaled.
+     *
+     * @return the sequence of the elements that were split off.
+     */
+    public Sequence split()
+    {
+        int index = getCurrentIndex();
+        Sequence[] tail = new Sequence[1];
+        journaled(SPLIT, NO_ARGUMENT, () -> tail[0] = super.split(), () -> {
+            if(index >= 0){
+                this.checkpoints.truncated(index);
+            }
+        });
+        return tail[0];
+    }
+
+
+    public void ensureCapacity(int minCapacity)
+    {
+        journaled(ENSURE_CAPACITY, out -> out.writeInt(minCapacity), () -> super.ensureCapacity(minCapacity));
+    }
+
+
+    public void trimToSize()
+    {
+        journaled(TRIM_TO_SIZE, NO_ARGUMENT, super::trimToSize);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    /**
+     * journals a change that does not touch the elements, so the checkpoint
+     * has nothing to track (see the method below)
+     */
+    private void journaled(byte op, Argument argument, Runnable change)
+    {
+        journaled(op, argument, change, NOT_TRACKED);
+    }
+
+    /**
+     * Writes the record of a change to the journal, makes the change, then
+     * tells the checkpoint which segments it touched. Only the outermost
+     * change is recorded and tracked: the ones it makes itself (as addAll
+     * calls ensureCapacity) come back when it is replayed. Nothing is
+     * recorded while the sequence is being opened, or once it is closed.
+     * If the record cannot be written or the change throws, the record is
+     * taken back out of the batch, so replay never meets a change that was
+     * not made.
+     */
+    private void journaled(byte op, Argument argument, Runnable change, Runnable tracking)
+    {
+        boolean outermost = this.nesting == 0;
+        boolean recording = this.journal != null && outermost;
+        try{
+            int mark = recording ? this.journal.mark() : 0;
+            try{
+                if(recording){
+                    DataOutputStream out = this.journal.records();
+                    out.writeByte(op);
+                    argument.write(out);
+                }
+                this.nesting++;
+                try{
+                    change.run();
+                }finally{
+                    this.nesting--;
+                }
+            }catch(Throwable e){
+                if(recording){
+                    this.journal.discard(mark);
+                }
+                throw e;
+            }
+            if(outermost){
+                tracking.run();
+            }
+            if(recording){
+                this.journal.recorded();
+            }
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * makes the changes recorded in one batch of the journal
+     */
+    private void replay(DataInputStream records) throws IOException
+    {
+        int op;
+        while((op = records.read()) != -1){
+            switch(op){
+                case ADD_BEFORE: addBefore(readString(records)); break;
+                case ADD_AFTER: addAfter(readString(records)); break;
+                case REMOVE_CURRENT: removeCurrent(); break;
+                case ADVANCE: advance(); break;
+                case RETREAT: retreat(); break;
+                case START: start(); break;
+                case END: end(); break;
+                case SEEK: seek(records.readInt()); break;
+                case CLEAR: clear(); break;
+                case ADD_ALL: addAll(readSequence(records)); break;
+                case SPLIT: split(); break;
+                case ENSURE_CAPACITY: ensureCapacity(records.readInt()); break;
+                case TRIM_TO_SIZE: trimToSize(); break;
+                default: throw new IOException("corrupt journal record " + op);
+            }
+        }
+    }
+
+
+    /**
+     * reads the elements of an addAll record into a sequence of the same
+     * storage engine, so they are appended the same way as the first time
+     */
+    private Sequence readSequence(DataInputStream records) throws IOException
+    {
+        int size = records.readInt();
+        if(size < 0){
+            throw new IOException("corrupt journal record size " + size);
+        }
+        String[] items = new String[size];
+        for(int i = 0; i < size; i++){
+            items[i] = readString(records);
+        }
+        return SequenceFormat.load(getStorage(), size, DEFAULT_CURRENT, items);
+    }
+
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        if(value == null){
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = LosslessUtf8.encode(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if(length == NULL_LENGTH){
+            return null;
+        }
+        if(length < 0 || length > in.available()){
+            throw new EOFException("corrupt journal string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return LosslessUtf8.decode(bytes, 0, length);
+    }
+
+
+    /**
+     * deletes the journals older than this generation, and the checkpoint
+     * files no longer needed (see SequenceCheckpoint.deleteUnused)
+     */
+    private void deleteUnused() throws IOException
+    {
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, JOURNAL + "*")){
+            for(Path file: files){
+                if(SequenceCheckpoint.generationOf(file, JOURNAL) < this.generation){
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        this.checkpoints.deleteUnused(this.directory, this.generation);
+    }
+}
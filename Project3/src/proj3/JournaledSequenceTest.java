@@ -0,0 +1,473 @@
+package proj3;
+/**
+ * JUnit test class.
+ */
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+public class JournaledSequenceTest {
+
+    @Rule //a test will fail if it takes longer than 1 second to run (every commit and checkpoint waits for the disk)
+    public Timeout timeout = Timeout.seconds(1);
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("sequence");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)){
+            for(Path file: files){
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private Sequence makeSequence(String[] items){
+        Sequence s = new Sequence();
+        for(String item: items){
+            s.addAfter(item);
+        }
+        return s;
+    }
+
+    private void assertRecovered(JournaledSequence s) throws IOException {
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        assertEquals(s.toString(), recovered.toString());
+        assertEquals(s.getCurrentIndex(), recovered.getCurrentIndex());
+        recovered.close();
+    }
+
+    @Test //an empty directory opens as an empty sequence
+    public void testOpenEmpty() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        assertEquals(0, s.size());
+        assertEquals("{} (capacity = 10)", s.toString());
+        s.close();
+    }
+
+    @Test //every kind of change comes back after reopening
+    public void testReopen() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("A");
+        s.addAfter("B");
+        s.addBefore("C");
+        s.addAfter(null);
+        s.start();
+        s.advance();
+        s.removeCurrent();
+        s.end();
+        s.retreat();
+        s.addAll(makeSequence(new String[] {"D", "E"}));
+        s.seek(1);
+        s.ensureCapacity(20);
+        s.addAfter("F");
+        s.close();
+        assertEquals("{A, null, >F, B, D, E} (capacity = 20)", s.toString());
+        assertRecovered(s);
+    }
+
+    @Test //clear, trimToSize and addAll of itself replay to the same state
+    public void testReopenClearTrimSelf() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("X");
+        s.clear();
+        s.addAfter("A");
+        s.addAfter("B");
+        s.addAll(s);
+        s.trimToSize();
+        s.close();
+        assertEquals("{A, >B, A, B} (capacity = 4)", s.toString());
+        assertRecovered(s);
+    }
+
+    @Test //the split-off tail is gone after reopening, and is not journaled itself
+    public void testReopenSplit() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAll(makeSequence(new String[] {"A", "B", "C"}));
+        s.seek(1);
+        Sequence tail = s.split();
+        tail.addAfter("D");
+        s.close();
+        assertEquals("{A} (capacity = 10)", s.toString());
+        assertFalse(tail instanceof JournaledSequence);
+        assertRecovered(s);
+    }
+
+    @Test //a full batch is committed without being asked
+    public void testGroupCommit() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory, 2);
+        s.addAfter("A");
+        s.addAfter("B");
+        s.addAfter("C");
+        // not closed: "C" is still waiting for its batch
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        assertEquals("{A, >B} (capacity = 10)", recovered.toString());
+        recovered.close();
+        s.close();
+    }
+
+    @Test //commit makes every change so far durable
+    public void testCommit() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("A");
+        s.addAfter("B");
+        s.start();
+        s.commit();
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        assertEquals("{>A, B} (capacity = 10)", recovered.toString());
+        recovered.close();
+        s.close();
+    }
+
+    @Test //a half written batch at the end of the journal is cut off
+    public void testTornBatch() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("A");
+        s.close();
+        Path journal = directory.resolve("journal.1");
+        long whole = Files.size(journal);
+        try(FileChannel channel = FileChannel.open(journal, StandardOpenOption.APPEND)){
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 20, 1, 2, 3}));
+        }
+
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        assertEquals("{>A} (capacity = 10)", recovered.toString());
+        assertEquals(whole, Files.size(journal));
+        recovered.addAfter("B");
+        recovered.close();
+        assertRecovered(recovered);
+    }
+
+    @Test //a batch that fails its checksum is not replayed
+    public void testCorruptBatch() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory, 1);
+        s.addAfter("A");
+        s.addAfter("B");
+        s.close();
+        Path journal = directory.resolve("journal.1");
+        try(FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)){
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), Files.size(journal) - 1);
+        }
+
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        assertEquals("{>A} (capacity = 10)", recovered.toString());
+        recovered.close();
+    }
+
+    @Test //a checkpoint starts a new manifest and journal, and removes the old ones
+    public void testCheckpoint() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAll(makeSequence(new String[] {"A", "B", "C"}));
+        s.seek(2);
+        s.checkpoint();
+        assertTrue(Files.exists(directory.resolve("manifest.2")));
+        assertFalse(Files.exists(directory.resolve("journal.1")));
+        s.removeCurrent();
+        s.start();
+        s.addBefore("Z");
+        s.checkpoint();
+        s.addAfter("Y");
+        s.close();
+        assertFalse(Files.exists(directory.resolve("manifest.2")));
+        assertTrue(Files.exists(directory.resolve("manifest.3")));
+        assertEquals("{Z, >Y, A, B} (capacity = 10)", s.toString());
+        assertRecovered(s);
+    }
+
+    @Test //restoring composes the base and the deltas of later checkpoints
+    public void testRestoreComposesDeltas() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory, 1024);
+        Sequence items = new Sequence(2100);
+        for(int i = 0; i < 2100; i++){
+            items.addAfter(Integer.toString(i));
+        }
+        s.addAll(items);
+        s.checkpoint();
+        s.end();
+        s.addAfter("last");
+        s.checkpoint();
+        s.start();
+        s.removeCurrent();
+        s.addBefore("first");
+        s.checkpoint();
+        assertTrue(Files.exists(directory.resolve("delta.2")));
+        assertTrue(Files.exists(directory.resolve("delta.3")));
+        assertTrue(Files.exists(directory.resolve("delta.4")));
+        s.seek(1000);
+        s.split();
+        s.close();
+        assertEquals(1000, s.size());
+        assertRecovered(s);
+    }
+
+    @Test //a checkpoint that fails can be tried again, without spoiling what the first try wrote
+    public void testCheckpointRetry() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory, 1024);
+        Sequence items = new Sequence(2100);
+        for(int i = 0; i < 2100; i++){
+            items.addAfter(Integer.toString(i));
+        }
+        s.addAll(items);
+        s.checkpoint();
+        s.start();
+        s.addBefore("first");
+        Path blocked = Files.createDirectory(directory.resolve("manifest.3.tmp"));
+        try{
+            s.checkpoint();
+            fail("the manifest could not be written");
+        }catch(IOException e){
+            // expected
+        }
+        Files.delete(blocked);
+        s.end();
+        s.addAfter("last");
+        s.checkpoint();
+        assertTrue(Files.exists(directory.resolve("manifest.3")));
+        s.close();
+        assertEquals(2102, s.size());
+        assertRecovered(s);
+    }
+
+    @Test //a new sequence keeps its storage engine and capacity
+    public void testOpenStorage() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory, 1, 30, Sequence.Storage.GAP_BUFFER);
+        s.addAfter("A");
+        s.close();
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        assertEquals(Sequence.Storage.GAP_BUFFER, recovered.getStorage());
+        assertEquals("{>A} (capacity = 30)", recovered.toString());
+        recovered.close();
+    }
+
+    @Test //changes after close are not journaled
+    public void testClose() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("A");
+        s.close();
+        s.addAfter("B");
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        assertEquals("{>A} (capacity = 10)", recovered.toString());
+        recovered.close();
+    }
+
+    @Test //a clone is a plain Sequence, and changing it leaves the journal alone
+    public void testClone() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("A");
+        Sequence copy = s.clone();
+        assertFalse(copy instanceof JournaledSequence);
+        copy.addAfter("B");
+        s.close();
+        assertEquals("{>A} (capacity = 10)", s.toString());
+        assertRecovered(s);
+    }
+
+    @Test //a change that throws leaves no record behind, so the changes after it still replay
+    public void testFailedChange() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("A");
+        Sequence unreadable = new Sequence(){
+            public Iterator<String> iterator(){
+                throw new IllegalStateException("cannot be read");
+            }
+        };
+        unreadable.addAfter("X");
+        try{
+            s.addAll(unreadable);
+            fail("the added sequence could not be read");
+        }catch(IllegalStateException e){
+            // expected
+        }
+        s.addAfter("B");
+        s.commit();
+        assertEquals("{A, >B} (capacity = 10)", s.toString());
+        assertRecovered(s);
+        s.checkpoint();
+        s.close();
+        assertRecovered(s);
+    }
+
+    @Test //unpaired surrogates come back unchanged, not as '?'
+    public void testUnpairedSurrogate() throws IOException {
+        JournaledSequence s = JournaledSequence.open(directory);
+        s.addAfter("a\ud800b");
+        s.addAll(makeSequence(new String[] {"\udc00", "smile \ud83d\ude00"}));
+        s.close();
+        JournaledSequence recovered = JournaledSequence.open(directory);
+        recovered.start();
+        assertEquals("a\ud800b", recovered.getCurrent());
+        recovered.advance();
+        assertEquals("\udc00", recovered.getCurrent());
+        recovered.advance();
+        assertEquals("smile \ud83d\ude00", recovered.getCurrent());
+        recovered.close();
+    }
+
+    /**
+     * A journal file that can be told to fail its next write halfway, or its
+     * next force after the write went through.
+     */
+    private static class FailingChannel extends FileChannel {
+        private final FileChannel file;
+        private boolean failWrite;
+        private boolean failForce;
+
+        FailingChannel(FileChannel file){
+            this.file = file;
+        }
+
+        public int write(ByteBuffer src) throws IOException {
+            if(failWrite){
+                failWrite = false;
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                file.write(half);
+                throw new IOException("disk full");
+            }
+            return file.write(src);
+        }
+
+        public void force(boolean metaData) throws IOException {
+            if(failForce){
+                failForce = false;
+                throw new IOException("sync failed");
+            }
+            file.force(metaData);
+        }
+
+        public int read(ByteBuffer dst) throws IOException {
+            return file.read(dst);
+        }
+
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return file.read(dsts, offset, length);
+        }
+
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return file.write(srcs, offset, length);
+        }
+
+        public long position() throws IOException {
+            return file.position();
+        }
+
+        public FileChannel position(long newPosition) throws IOException {
+            file.position(newPosition);
+            return this;
+        }
+
+        public long size() throws IOException {
+            return file.size();
+        }
+
+        public FileChannel truncate(long size) throws IOException {
+            file.truncate(size);
+            return this;
+        }
+
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return file.transferTo(position, count, target);
+        }
+
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return file.transferFrom(src, position, count);
+        }
+
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return file.read(dst, position);
+        }
+
+        public int write(ByteBuffer src, long position) throws IOException {
+            return file.write(src, position);
+        }
+
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return file.map(mode, position, size);
+        }
+
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return file.lock(position, size, shared);
+        }
+
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return file.tryLock(position, size, shared);
+        }
+
+        protected void implCloseChannel() throws IOException {
+            file.close();
+        }
+    }
+
+    private void record(SequenceJournal journal, int value) throws IOException {
+        journal.records().writeInt(value);
+        journal.recorded();
+    }
+
+    private void assertCommitFails(SequenceJournal journal){
+        try{
+            journal.commit();
+            fail("the commit could not be written");
+        }catch(IOException e){
+            // expected
+        }
+    }
+
+    @Test //a commit that fails leaves nothing behind: the batches after it replay, each exactly once
+    public void testFailedCommit() throws IOException {
+        Path file = directory.resolve("journal.test");
+        FailingChannel channel = new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+        SequenceJournal journal = new SequenceJournal(channel, 100);
+        record(journal, 1);
+        journal.commit();
+        record(journal, 2);
+        channel.failWrite = true;
+        assertCommitFails(journal);
+        record(journal, 3);
+        journal.commit();
+        record(journal, 4);
+        channel.failForce = true;
+        assertCommitFails(journal);
+        record(journal, 5);
+        journal.close();
+
+        List<Integer> replayed = new ArrayList<>();
+        SequenceJournal.replay(file, records -> {
+            try{
+                while(true){
+                    replayed.add(records.readInt());
+                }
+            }catch(EOFException e){
+                // the end of the batch
+            }
+        });
+        assertEquals("[1, 2, 3, 4, 5]", replayed.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchRecordsZero() throws IOException {
+        JournaledSequence.open(directory, 0);
+    }
+}
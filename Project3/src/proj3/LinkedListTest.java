@@ -4,6 +4,13 @@ import org.junit.*;
 import org.junit.rules.Timeout;
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+
 public class LinkedListTest {
 
     @Rule //a test will fail if it takes longer than 1/10 of a second to run
@@ -176,6 +183,17 @@ public class LinkedListTest {
 
         assertTrue(ll.equals(expected));
     }
+    @Test //Tests insertAtEnd; appending after removing the last node links onto the new last node
+    public void insertAtEndAfterRemoveLast(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+
+        ll.removeLast();
+        ll.insertAtEnd("X");
+
+        assertEquals("(A, B, X)", ll.toString());
+    }
+
     @Test //Tests insertAfter; inserts new node after the head
     public void insertAfterFirstNode(){
         String[] items = {"C", "B", "A"};
@@ -224,6 +242,63 @@ public class LinkedListTest {
         assertTrue(ll.equals(expected));
     }
 
+    @Test //Tests insertAfter; with duplicates, inserts after the first matching node
+    public void insertAfterDuplicates(){
+        String[] items = {"A", "B", "A"};
+        LinkedList ll = makeLL(items);
+        String[] expectedItems = {"A", "B", "X", "A"};
+        LinkedList expected = makeLL(expectedItems);
+
+        ll.insertAfterGivenData("X", "A");
+
+        assertEquals(4, ll.getLength());
+        assertTrue(ll.equals(expected));
+    }
+
+    @Test //Tests insertAfterIndex; inserts after the node at the given position, even with duplicates
+    public void insertAfterIndex(){
+        String[] items = {"A", "A", "A"};
+        LinkedList ll = makeLL(items);
+
+        ll.insertAfterIndex("X", 1);
+
+        assertEquals(4, ll.getLength());
+        assertEquals("(A, A, X, A)", ll.toString());
+    }
+
+    @Test //Tests insertAfterIndex; index not in the list, does nothing
+    public void insertAfterIndexNotContained(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+
+        ll.insertAfterIndex("X", 3);
+
+        assertEquals(3, ll.getLength());
+        assertEquals("(A, B, C)", ll.toString());
+    }
+
+    @Test //Tests insertAfterNode; a null node inserts at the head
+    public void insertAfterNodeNull(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+
+        ListNode<String> added = ll.insertAfterNode("X", null);
+
+        assertEquals("X", added.getData());
+        assertEquals("(X, A, B, C)", ll.toString());
+    }
+
+    @Test //Tests insertBefore; inserts new node before the head
+    public void insertBeforeHead(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+
+        ll.insertBeforeGivenData("X", "A");
+
+        assertEquals(4, ll.getLength());
+        assertEquals("(X, A, B, C)", ll.toString());
+    }
+
     @Test //Tests insertBefore; inserts new node before a current node in the list
     public void insertBefore(){
         String[] items = {"C", "B", "A"};
@@ -365,6 +440,49 @@ public class LinkedListTest {
         assertTrue(ll.equals(expected));
     }
 
+    @Test //Tests addAll; appending after insertAll continues from the other list's last node
+    public void insertAllThenInsertAtEnd(){
+        String[] items = {"B", "A"};
+        LinkedList ll = makeLL(items);
+        String[] otherItems = {"D", "C"};
+        LinkedList other = makeLL(otherItems);
+
+        ll.insertAll(other);
+        ll.insertAtEnd("E");
+
+        assertEquals(5, ll.getLength());
+        assertEquals("(A, B, C, D, E)", ll.toString());
+    }
+
+    @Test //Tests insertAllData; the new nodes are linked in order and can be walked both ways
+    public void insertAllData(){
+        String[] items = {"B", "A"};
+        LinkedList ll = makeLL(items);
+        String[] data = {"C", null, "E"};
+
+        ll.insertAllData(data);
+        ll.insertAtEnd("F");
+
+        assertEquals(6, ll.getLength());
+        assertEquals("(A, B, C, null, E, F)", ll.toString());
+        assertEquals("E", ll.getLast().prev().getData());
+        assertNull(ll.getLast().prev().prev().getData());
+    }
+
+    @Test //Tests insertAllData; the index finds the inserted data in an empty indexed list
+    public void insertAllDataIndexed(){
+        LinkedList ll = new LinkedList(true);
+        String[] data = {"A", "B", "A"};
+
+        ll.insertAllData(data);
+
+        assertEquals(0, ll.getIndex("A"));
+        assertEquals(1, ll.getIndex("B"));
+        ll.removeGivenString("A");
+        assertEquals("(B, A)", ll.toString());
+        assertEquals(1, ll.getIndex("A"));
+    }
+
     @Test //Tests removeAtHead;
     public void removeAtHead(){
         String[] items = {"C", "B", "A"};
@@ -414,6 +532,31 @@ public class LinkedListTest {
         assertTrue(ll.equals(expected));
     }
 
+    @Test //Tests removeLast; removing every node from the tail empties the list
+    public void removeLastUntilEmpty(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+
+        ll.removeLast();
+        ll.removeLast();
+        ll.removeLast();
+        ll.insertAtHead("X");
+
+        assertEquals(1, ll.getLength());
+        assertEquals("(X)", ll.toString());
+    }
+
+    @Test //Tests removeAtIndex; removing the first index moves the head forward
+    public void removeAtIndexFirst(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+
+        ll.removeAtIndex(0);
+        ll.insertAtIndex("X", 0);
+
+        assertEquals("(X, B, C)", ll.toString());
+    }
+
     @Test //Tests remove;
     public void remove(){
         String[] items = {"C", "B", "A"};
@@ -562,4 +705,167 @@ public class LinkedListTest {
         LinkedList ll = makeLL(items);
         assertEquals("(A, B, C)", ll.toString());
     }
+
+    @Test //Tests writeTo; writes at most the given number of nodes
+    public void writeToTruncated() throws IOException {
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+        StringBuilder out = new StringBuilder();
+
+        ll.writeTo(out, 1);
+
+        assertEquals("(A, ...)", out.toString());
+    }
+
+    @Test //Tests toString; called on an empty list
+    public void toStringEmpty(){
+        LinkedList ll = new LinkedList();
+        assertEquals("()", ll.toString());
+    }
+
+    @Test //Tests iterator; visits the data from the head to the last node
+    public void iteratorTest(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+        Iterator<String> it = ll.iterator();
+
+        assertEquals("A", it.next());
+        assertEquals("B", it.next());
+        assertEquals("C", it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = ConcurrentModificationException.class) //Tests iterator; list changed while iterating
+    public void iteratorFailFast(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+        Iterator<String> it = ll.iterator();
+
+        it.next();
+        ll.removeLast();
+        it.next();
+    }
+
+    @Test(expected = ConcurrentModificationException.class) //Tests spliterator; list shortened during forEachRemaining
+    public void spliteratorFailFast(){
+        String[] items = {"D", "C", "B", "A"};
+        LinkedList ll = makeLL(items);
+        ll.spliterator().forEachRemaining(data -> {
+            if(data.equals("B")){
+                ll.removeLast();
+                ll.removeLast();
+            }
+        });
+    }
+
+    @Test(expected = NoSuchElementException.class) //Tests iterator; nothing left to iterate
+    public void iteratorEmpty(){
+        LinkedList ll = new LinkedList();
+        ll.iterator().next();
+    }
+
+    @Test //Tests spliterator; a long list splits into balanced halves along segment boundaries
+    public void spliteratorSplitsInHalf(){
+        LinkedList ll = new LinkedList();
+        for(int i = 0; i < 4096; i++){
+            ll.insertAtEnd(Integer.toString(i));
+        }
+        Spliterator<String> second = ll.spliterator();
+
+        Spliterator<String> first = second.trySplit();
+        Spliterator<String> firstQuarter = first.trySplit();
+
+        assertEquals(2048, second.estimateSize());
+        assertEquals(1024, first.estimateSize());
+        assertEquals(1024, firstQuarter.estimateSize());
+        firstQuarter.tryAdvance(data -> assertEquals("0", data));
+        first.tryAdvance(data -> assertEquals("1024", data));
+        second.tryAdvance(data -> assertEquals("2048", data));
+    }
+
+    @Test //Tests spliterator; a short list is not worth splitting
+    public void spliteratorShortList(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeLL(items);
+        Spliterator<String> split = ll.spliterator();
+
+        assertNull(split.trySplit());
+        assertEquals(3, split.estimateSize());
+        assertTrue(split.hasCharacteristics(Spliterator.SUBSIZED));
+    }
+
+    /**
+     * creates an indexed LinkedList with elements from an array
+     * @param itemsToAdd the array of items
+     * @return new indexed Linked List
+     */
+    private LinkedList makeIndexedLL(String[] itemsToAdd){
+        LinkedList ll = new LinkedList(true);
+        for(String item: itemsToAdd){
+            ll.insertAtHead(item);
+        }
+        return ll;
+    }
+
+    @Test //Tests the index; lookups find the first of several equal nodes
+    public void indexedDuplicates(){
+        String[] items = {"A", "B", "A"};
+        LinkedList ll = makeIndexedLL(items);
+
+        assertTrue(ll.isIndexed());
+        assertEquals(0, ll.getIndex("A"));
+        ll.removeGivenString("A");
+        assertEquals("(B, A)", ll.toString());
+        assertEquals(1, ll.getIndex("A"));
+        ll.removeGivenString("A");
+        assertFalse(ll.containsData("A"));
+        assertEquals(-1, ll.getIndex("A"));
+    }
+
+    @Test //Tests the index; an equal node inserted before the first one becomes the first
+    public void indexedInsertBeforeFirst(){
+        String[] items = {"A", "C", "B"};
+        LinkedList ll = makeIndexedLL(items);
+
+        ll.insertAfterGivenData("A", "B");
+
+        assertEquals("(B, A, C, A)", ll.toString());
+        assertEquals(1, ll.getIndex("A"));
+        ll.clear();
+        assertFalse(ll.containsData("B"));
+    }
+
+    @Test //Tests the index; random changes give the same answers as an unindexed list
+    public void indexedMatchesUnindexed(){
+        LinkedList indexed = new LinkedList(true);
+        LinkedList plain = new LinkedList();
+        Random random = new Random(151);
+
+        for(int i = 0; i < 2000; i++){
+            String data = Integer.toString(random.nextInt(20));
+            String other = Integer.toString(random.nextInt(20));
+            switch(random.nextInt(6)){
+                case 0: indexed.insertAtHead(data); plain.insertAtHead(data); break;
+                case 1: indexed.insertAtEnd(data); plain.insertAtEnd(data); break;
+                case 2: indexed.insertAfterGivenData(data, other); plain.insertAfterGivenData(data, other); break;
+                case 3: indexed.insertBeforeGivenData(data, other); plain.insertBeforeGivenData(data, other); break;
+                case 4: indexed.removeGivenString(data); plain.removeGivenString(data); break;
+                default: indexed.removeLast(); plain.removeLast(); break;
+            }
+            assertEquals(plain.getIndex(other), indexed.getIndex(other));
+            assertEquals(plain.containsData(data), indexed.containsData(data));
+        }
+        assertTrue(indexed.equals(plain));
+    }
+
+    @Test //Tests clone; the copy of an indexed list is indexed too
+    public void cloneIndexed(){
+        String[] items = {"C", "B", "A"};
+        LinkedList ll = makeIndexedLL(items);
+
+        LinkedList copy = ll.clone();
+
+        assertTrue(copy.isIndexed());
+        assertEquals(2, copy.getIndex("C"));
+    }
 }
@@ -0,0 +1,168 @@
+package proj3;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * The default Sequence storage: a doubly linked GenericLinkedList. A cursor holds the
+ * ListNode of its element, so moving, inserting and removing at the cursor are
+ * all constant time, while cursorAt has to walk to the position.
+ *
+ * Invariant of the LinkedStorage class:
+ *  1. A NodeCursor's node is the ListNode at position index in holder.
+ */
+class LinkedStorage<T> extends SequenceStorage<T>
+{
+    private final int START = 0;
+
+    private GenericLinkedList<T> holder;
+
+    /**
+     * Creates an empty linked storage.
+     */
+    LinkedStorage()
+    {
+        this.holder = new GenericLinkedList<>();
+    }
+
+
+    private class NodeCursor implements Cursor<T>
+    {
+        private ListNode<T> node;
+        private int index;
+
+        NodeCursor(ListNode<T> node, int index)
+        {
+            this.node = node;
+            this.index = index;
+        }
+
+        public int index()
+        {
+            return this.index;
+        }
+
+        public T get()
+        {
+            return this.node.getData();
+        }
+
+        public boolean next()
+        {
+            this.node = this.node.next();
+            this.index++;
+            return this.node != null;
+        }
+
+        public boolean previous()
+        {
+            this.node = this.node.prev();
+            this.index--;
+            return this.node != null;
+        }
+
+        public Cursor<T> copy()
+        {
+            return new NodeCursor(this.node, this.index);
+        }
+    }
+
+
+    int size()
+    {
+        return this.holder.getLength();
+    }
+
+
+    Cursor<T> cursorAt(int index)
+    {
+        NodeCursor cursor;
+        if(index < size() / 2){
+            cursor = new NodeCursor(this.holder.getHead(), START);
+            while(cursor.index() != index){
+                cursor.next();
+            }
+        }else{
+            cursor = new NodeCursor(this.holder.getLast(), size() - 1);
+            while(cursor.index() != index){
+                cursor.previous();
+            }
+        }
+        return cursor;
+    }
+
+
+    Cursor<T> insertBefore(Cursor<T> cursor, T value)
+    {
+        if(cursor == null){
+            return new NodeCursor(this.holder.insertAfterNode(value, null), START);
+        }
+        NodeCursor at = (NodeCursor) cursor;
+        return new NodeCursor(this.holder.insertAfterNode(value, at.node.prev()), at.index);
+    }
+
+
+    Cursor<T> insertAfter(Cursor<T> cursor, T value)
+    {
+        if(cursor == null){
+            this.holder.insertAtEnd(value);
+            return new NodeCursor(this.holder.getLast(), size() - 1);
+        }
+        NodeCursor at = (NodeCursor) cursor;
+        return new NodeCursor(this.holder.insertAfterNode(value, at.node), at.index + 1);
+    }
+
+
+    Cursor<T> remove(Cursor<T> cursor)
+    {
+        NodeCursor at = (NodeCursor) cursor;
+        ListNode<T> nextNode = at.node.next();
+        this.holder.removeNode(at.node);
+        if(nextNode == null){
+            return null;
+        }
+        return new NodeCursor(nextNode, at.index);
+    }
+
+
+    void clear()
+    {
+        this.holder.clear();
+    }
+
+
+    SequenceStorage<T> copy()
+    {
+        LinkedStorage<T> copy = new LinkedStorage<>();
+        copy.holder = this.holder.clone();
+        return copy;
+    }
+
+
+    void appendAll(SequenceStorage<T> other)
+    {
+        if(other instanceof LinkedStorage){
+            this.holder.insertAllCopy(((LinkedStorage<T>) other).holder);
+        }else{
+            super.appendAll(other);
+        }
+    }
+
+
+    void appendAll(T[] items)
+    {
+        this.holder.insertAllData(items);
+    }
+
+
+    public Iterator<T> iterator()
+    {
+        return this.holder.iterator();
+    }
+
+
+    public Spliterator<T> spliterator()
+    {
+        return this.holder.spliterator();
+    }
+}
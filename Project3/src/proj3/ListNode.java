@@ -3,40 +3,49 @@ package proj3;
 /**
  * The ListNode class is more data-specific than the LinkedList class.  It
  * details what a single node looks like.  This node has one data field,
- * holding a pointer to a String object. 
+ * holding a pointer to an object of type T (a String in a LinkedList).
  *
  * This is the only class where I'll let you use public instance variables.
  *
  * Invariant of the List Node class:
  * 1. Each ListNode contains data and a reference to the next ListNode
+ * 2. Each ListNode also holds a reference to the previous ListNode (null for the first node),
+ *    so a LinkedList can be walked backward and unlink a node without searching for it
  *
  */
-public class ListNode
+public class ListNode<T>
 {
-    public String data;
-    public ListNode next;
+    public T data;
+    public ListNode<T> next;
+    public ListNode<T> prev;
 
-    public ListNode(String newData)
+    public ListNode(T newData)
     {
         data = newData;
         next = null;
+        prev = null;
     }
 
-    public ListNode(String newData, ListNode nextNode){
+    public ListNode(T newData, ListNode<T> nextNode){
         data = newData;
         next = nextNode;
+        prev = null;
     }
 
-    public ListNode next(){
+    public ListNode<T> next(){
         return this.next;
     }
 
-    public String getData(){
+    public ListNode<T> prev(){
+        return this.prev;
+    }
+
+    public T getData(){
         return this.data;
     }
 
     public String toString(){
-    	return getData();
+    	return String.valueOf(getData());
     }
 
 }
@@ -0,0 +1,171 @@
+package proj3;
+
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+public class LongSequenceTest {
+    @Rule // a test will fail if it takes longer than 1/10 of a second to run
+    public Timeout timeout = Timeout.millis(100);
+
+    /**
+     * Creates a new sequence with the given capacity by adding the items
+     * after each other. The final element added is the current element.
+     * @param items the values to be added
+     * @return the new sequence
+     */
+    private LongSequence makeSequence(long[] items, int initialCapacity){
+        LongSequence s = new LongSequence(initialCapacity);
+        for(long item: items){
+            s.addAfter(item);
+        }
+        return s;
+    }
+
+    @Test //empty upon construction with capacity 10
+    public void testConstructDefault(){
+        LongSequence s = new LongSequence();
+        assertEquals(0, s.size());
+        assertEquals(10, s.getCapacity());
+        assertFalse(s.isCurrent());
+        assertEquals("{} (capacity = 10)", s.toString());
+    }
+
+    @Test //added elements become current, full sequences grow to 2c+1
+    public void testAddBeforeAndAfter(){
+        LongSequence s = makeSequence(new long[] {1, 3}, 2);
+        s.addBefore(2);
+        assertEquals("{1, >2, 3} (capacity = 5)", s.toString());
+        s.advance();
+        s.advance();
+        s.addBefore(0);
+        assertEquals("{>0, 1, 2, 3} (capacity = 5)", s.toString());
+        s.end();
+        s.addAfter(4);
+        assertEquals(4L, s.getCurrent());
+        assertEquals(4, s.getCurrentIndex());
+    }
+
+    @Test //the following element becomes current, none after the last
+    public void testRemoveCurrent(){
+        LongSequence s = makeSequence(new long[] {1, 2, 3}, 5);
+        s.start();
+        s.removeCurrent();
+        assertEquals("{>2, 3} (capacity = 5)", s.toString());
+        s.end();
+        s.removeCurrent();
+        assertFalse(s.isCurrent());
+        assertEquals("{2} (capacity = 5)", s.toString());
+        s.removeCurrent();
+        assertEquals(1, s.size());
+    }
+
+    @Test //advance and retreat past the ends leave no current
+    public void testAdvanceRetreat(){
+        LongSequence s = makeSequence(new long[] {1, 2}, 5);
+        s.advance();
+        assertFalse(s.isCurrent());
+        s.end();
+        s.retreat();
+        assertEquals(1L, s.getCurrent());
+        s.retreat();
+        assertFalse(s.isCurrent());
+        s.seek(1);
+        assertEquals(2L, s.getCurrent());
+        s.seek(2);
+        assertFalse(s.isCurrent());
+    }
+
+    @Test //moving the cursor back and forth moves the gap, and edits land where the cursor is
+    public void testEditAcrossGap(){
+        LongSequence s = makeSequence(new long[] {1, 2, 3, 4, 5}, 5);
+        s.seek(1);
+        s.removeCurrent();
+        s.seek(3);
+        s.addAfter(6);
+        s.start();
+        s.addBefore(0);
+        s.seek(4);
+        s.removeCurrent();
+        assertEquals("{0, 1, 3, 4, >6} (capacity = 11)", s.toString());
+        assertArrayEquals(new long[] {0, 1, 3, 4, 6}, s.toArray());
+    }
+
+    @Test(expected = IllegalStateException.class) //no current, no value to return
+    public void testGetCurrentNone(){
+        new LongSequence().getCurrent();
+    }
+
+    @Test //addAll appends and leaves both currents and the other sequence unchanged
+    public void testAddAll(){
+        LongSequence s = makeSequence(new long[] {1, 2}, 2);
+        s.start();
+        LongSequence other = makeSequence(new long[] {3, 4}, 10);
+        other.start();
+        other.addBefore(0);
+        s.addAll(other);
+        assertEquals("{>1, 2, 0, 3, 4} (capacity = 5)", s.toString());
+        assertEquals("{>0, 3, 4} (capacity = 10)", other.toString());
+        s.addAll(s);
+        assertArrayEquals(new long[] {1, 2, 0, 3, 4, 1, 2, 0, 3, 4}, s.toArray());
+    }
+
+    @Test //a clone is independent and equal
+    public void testClone(){
+        LongSequence s = makeSequence(new long[] {1, 2, 3}, 5);
+        s.retreat();
+        LongSequence copy = s.clone();
+        assertTrue(s.equals(copy));
+        copy.removeCurrent();
+        assertFalse(s.equals(copy));
+        assertEquals("{1, >2, 3} (capacity = 5)", s.toString());
+    }
+
+    @Test //trimToSize, ensureCapacity and clear
+    public void testCapacity(){
+        LongSequence s = makeSequence(new long[] {1, 2, 3}, 20);
+        s.trimToSize();
+        assertEquals(3, s.getCapacity());
+        s.ensureCapacity(30);
+        assertEquals(30, s.getCapacity());
+        assertArrayEquals(new long[] {1, 2, 3}, s.toArray());
+        s.clear();
+        assertTrue(s.isEmpty());
+        assertFalse(s.isCurrent());
+        assertEquals(30, s.getCapacity());
+    }
+
+    @Test //stream reads both sides of the gap in order
+    public void testStream(){
+        LongSequence s = makeSequence(new long[] {1, 2, 4, 5}, 10);
+        s.seek(2);
+        s.addBefore(3);
+        assertArrayEquals(new long[] {1, 2, 3, 4, 5}, s.stream().toArray());
+        assertEquals(15L, s.stream().sum());
+    }
+
+    @Test //values beyond the int range are kept exactly
+    public void testLongValues(){
+        LongSequence s = new LongSequence(1);
+        s.addAfter(Long.MAX_VALUE);
+        s.addBefore(1L << 40);
+        s.addAfter(-1);
+        assertEquals("{1099511627776, >-1, 9223372036854775807} (capacity = 3)", s.toString());
+        s.removeCurrent();
+        assertEquals(Long.MAX_VALUE, s.getCurrent());
+    }
+
+    @Test //addAll, clone and stream match the elements in order
+    public void testAddAllCloneStream(){
+        LongSequence s = new LongSequence();
+        for(long i = 0; i < 100; i++){
+            s.addAfter(i);
+        }
+        s.start();
+        s.addAll(s.clone());
+        assertEquals(200, s.size());
+        assertEquals(0L, s.getCurrent());
+        assertEquals(9900L, s.stream().sum());
+        assertArrayEquals(s.stream().toArray(), s.toArray());
+    }
+}
@@ -0,0 +1,158 @@
+package proj3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Turns Strings into bytes and back without losing any of them.
+ *
+ * String.getBytes(UTF_8) replaces a lone surrogate (half of a surrogate pair,
+ * which a Java String may hold) with '?', so the String read back is not the
+ * one written. Here a lone surrogate is encoded as the three bytes UTF-8 would
+ * give its code point, as WTF-8 does, and everything else exactly as UTF-8.
+ * So the bytes of every well-formed String are its plain UTF-8 bytes: files
+ * written before these were used read back the same, and String.getBytes and
+ * new String(bytes, UTF_8) still do all the work unless a lone surrogate turns up.
+ */
+final class LosslessUtf8
+{
+    private static final char REPLACEMENT = '\uFFFD';
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private LosslessUtf8()
+    {
+    }
+
+
+    /**
+     * @param value the String to encode, not null
+     * @return the bytes of value: UTF-8, with lone surrogates encoded like code points
+     */
+    static byte[] encode(String value)
+    {
+        if(!hasLoneSurrogate(value)){
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[MAX_BYTES_PER_CHAR * value.length()];
+        int at = 0;
+        for(int i = 0; i < value.length(); i++){
+            int codePoint = value.charAt(i);
+            if(Character.isHighSurrogate(value.charAt(i)) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))){
+                codePoint = Character.toCodePoint(value.charAt(i), value.charAt(i + 1));
+                i++;
+            }
+            at = put(codePoint, bytes, at);
+        }
+        return Arrays.copyOf(bytes, at);
+    }
+
+
+    /**
+     * @param bytes holds the encoded String
+     * @param offset where the encoded String starts in bytes
+     * @param length the number of bytes of the encoded String
+     * @return the String that encode gave those bytes for; bytes that are not
+     * a valid encoding become U+FFFD, as with new String(bytes, UTF_8)
+     */
+    static String decode(byte[] bytes, int offset, int length)
+    {
+        String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        if(value.indexOf(REPLACEMENT) < 0){
+            return value;
+        }
+        return decodeSurrogates(bytes, offset, offset + length);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private static boolean hasLoneSurrogate(String value)
+    {
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))){
+                i++;
+            }else if(Character.isSurrogate(c)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * writes the UTF-8 bytes of codePoint (which may be a surrogate) at bytes[at]
+     * @return the index after the last byte written
+     */
+    private static int put(int codePoint, byte[] bytes, int at)
+    {
+        if(codePoint < 0x80){
+            bytes[at++] = (byte) codePoint;
+        }else if(codePoint < 0x800){
+            bytes[at++] = (byte) (0xC0 | (codePoint >> 6));
+            bytes[at++] = (byte) (0x80 | (codePoint & 0x3F));
+        }else if(codePoint < 0x10000){
+            bytes[at++] = (byte) (0xE0 | (codePoint >> 12));
+            bytes[at++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[at++] = (byte) (0x80 | (codePoint & 0x3F));
+        }else{
+            bytes[at++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[at++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[at++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[at++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return at;
+    }
+
+    /**
+     * decodes bytes[from] to bytes[to-1] one sequence at a time, taking the
+     * three byte sequences of surrogates as they are
+     */
+    private static String decodeSurrogates(byte[] bytes, int from, int to)
+    {
+        StringBuilder value = new StringBuilder(to - from);
+        int at = from;
+        while(at < to){
+            int lead = bytes[at] & 0xFF;
+            int count;
+            int codePoint;
+            int min;
+            if(lead < 0x80){
+                count = 1;
+                codePoint = lead;
+                min = 0;
+            }else if((lead & 0xE0) == 0xC0){
+                count = 2;
+                codePoint = lead & 0x1F;
+                min = 0x80;
+            }else if((lead & 0xF0) == 0xE0){
+                count = 3;
+                codePoint = lead & 0x0F;
+                min = 0x800;
+            }else if((lead & 0xF8) == 0xF0){
+                count = 4;
+                codePoint = lead & 0x07;
+                min = 0x10000;
+            }else{
+                count = 0;
+                codePoint = -1;
+                min = 0;
+            }
+            for(int k = 1; k < count && codePoint >= 0; k++){
+                if(at + k >= to || (bytes[at + k] & 0xC0) != 0x80){
+                    codePoint = -1;
+                }else{
+                    codePoint = (codePoint << 6) | (bytes[at + k] & 0x3F);
+                }
+            }
+            if(codePoint < min || codePoint > Character.MAX_CODE_POINT){
+                value.append(REPLACEMENT);
+                at++;
+            }else{
+                value.appendCodePoint(codePoint);
+                at += count;
+            }
+        }
+        return value.toString();
+    }
+}
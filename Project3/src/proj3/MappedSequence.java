@@ -0,0 +1,523 @@
+package proj3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only Sequence of Strings served straight from a file mapped into
+ * memory. Opening a file maps it and reads the header, so it is O(1) however
+ * big the file is; the operating system loads the pages an element is on
+ * the first time it is read. Only the current element can change, and that
+ * change is not written back to the file.
+ *
+ * The file format, written by write(Sequence, Path), is big-endian:
+ *
+ *    header  MAGIC, VERSION, size, current, capacity, 0    (6 ints)
+ *    index   size + 1 longs; entry i is the file position of element i,
+ *            with NULL_FLAG set if it is null, and entry size is the
+ *            position where the data ends
+ *    data    the elements as UTF-8 (see LosslessUtf8, which keeps lone
+ *            surrogates), back to back
+ *
+ * So element i is the bytes from entry i to entry i+1. A mapping is at most
+ * 2 GB, so the file is mapped in segments of SEGMENT_BYTES. The index starts
+ * on a multiple of 8 and the segments are too, so no entry straddles two.
+ *
+ * Invariants of the MappedSequence class:
+ *  1. segments[k] maps the bytes from k * SEGMENT_BYTES to the next segment or the end of the file.
+ *  2. current = -1 if there is no current element, otherwise 0 <= current < size.
+ */
+public final class MappedSequence implements Iterable<String>
+{
+    private static final int MAGIC = 0x5345514D; // "SEQM"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+    private static final long NULL_FLAG = Long.MIN_VALUE;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int DEFAULT_CURRENT = -1;
+    private final int START = 0;
+
+    private final MappedByteBuffer[] segments;
+    private final int size;
+    private final int capacity;
+    private int current;
+
+    private MappedSequence(MappedByteBuffer[] segments, int size, int current, int capacity)
+    {
+        this.segments = segments;
+        this.size = size;
+        this.current = current;
+        this.capacity = capacity;
+    }
+
+
+    /**
+     * Writes the elements, current element and capacity of a sequence to a
+     * file, in one pass over the sequence, replacing the file if it exists.
+     *
+     * @param sequence the sequence to write.
+     * @param file the file to write it to.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Sequence sequence, Path file) throws IOException
+    {
+        int size = sequence.size();
+        long[] index = new long[size + 1];
+        long position = HEADER_BYTES + (long) index.length * Long.BYTES;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            channel.position(position);
+            int i = 0;
+            for(String item: sequence){
+                if(item == null){
+                    index[i] = position | NULL_FLAG;
+                }else{
+                    byte[] bytes = LosslessUtf8.encode(item);
+                    index[i] = position;
+                    position += bytes.length;
+                    if(buffer.remaining() < bytes.length){
+                        drain(buffer, channel);
+                    }
+                    if(bytes.length > buffer.capacity()){
+                        ByteBuffer large = ByteBuffer.wrap(bytes);
+                        while(large.hasRemaining()){
+                            channel.write(large);
+                        }
+                    }else{
+                        buffer.put(bytes);
+                    }
+                }
+                i++;
+            }
+            index[size] = position;
+            drain(buffer, channel);
+
+            channel.position(0);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size)
+                    .putInt(sequence.getCurrentIndex()).putInt(sequence.getCapacity()).putInt(0);
+            for(long entry: index){
+                if(buffer.remaining() < Long.BYTES){
+                    drain(buffer, channel);
+                }
+                buffer.putLong(entry);
+            }
+            drain(buffer, channel);
+        }
+    }
+
+
+    /**
+     * Opens a file written by write(Sequence, Path) by mapping it into
+     * memory. No elements are read until they are asked for. The current
+     * element is the one that was current when the file was written.
+     *
+     * The file must not be changed while the returned sequence is in use.
+     *
+     * @param file the file to open.
+     * @return a sequence reading from the file.
+     * @throws IOException if the file cannot be read or is not a sequence file.
+     */
+    public static MappedSequence open(Path file) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long length = channel.size();
+            if(length < HEADER_BYTES + Long.BYTES){
+                throw new IOException("not a sequence file: " + file);
+            }
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length - 1) >>> SEGMENT_SHIFT) + 1];
+            for(int k = 0; k < segments.length; k++){
+                long from = k * SEGMENT_BYTES;
+                segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(SEGMENT_BYTES, length - from));
+            }
+
+            ByteBuffer header = segments[0];
+            int size = header.getInt(2 * Integer.BYTES);
+            int current = header.getInt(3 * Integer.BYTES);
+            int capacity = header.getInt(4 * Integer.BYTES);
+            if(header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION || size < 0
+                    || current < DEFAULT_CURRENT || current >= size || capacity < size
+                    || HEADER_BYTES + (size + 1L) * Long.BYTES > length){
+                throw new IOException("not a sequence file: " + file);
+            }
+            MappedSequence mapped = new MappedSequence(segments, size, current, capacity);
+            if(mapped.entry(size) != length){
+                throw new IOException("not a sequence file: " + file);
+            }
+            return mapped;
+        }
+    }
+
+
+    /**
+     * @return true if and only if the sequence has a current element.
+     */
+    public boolean isCurrent()
+    {
+        return this.current != DEFAULT_CURRENT;
+    }
+
+
+    /**
+     * @return the capacity the sequence had when it was written.
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+
+    /**
+     * @return the element at the current location in the sequence, or
+     * null if there is no current element.
+     */
+    public String getCurrent()
+    {
+        if(!isCurrent()){
+            return null;
+        }
+        return get(this.current);
+    }
+
+
+    /**
+     * @return the value of the current index, or -1 if there is no current element.
+     */
+    public int getCurrentIndex()
+    {
+        return this.current;
+    }
+
+
+    /**
+     * Move forward in the sequence so that the current element is now the
+     * next element in the sequence. If the current element was the end of
+     * the sequence, there is no current element afterwards. If there is no
+     * current element to begin with, do nothing.
+     */
+    public void advance()
+    {
+        if(isCurrent()){
+            seek(this.current + 1);
+        }
+    }
+
+
+    /**
+     * Move backward in the sequence so that the current element is now the
+     * previous element in the sequence. If the current element was the start
+     * of the sequence, there is no current element afterwards. If there is
+     * no current element to begin with, do nothing.
+     */
+    public void retreat()
+    {
+        if(isCurrent()){
+            seek(this.current - 1);
+        }
+    }
+
+
+    /**
+     * Sets the current element to the start of the sequence. If the
+     * sequence is empty, the sequence has no current element.
+     */
+    public void start()
+    {
+        seek(START);
+    }
+
+
+    /**
+     * Sets the current element to the end of the sequence. If the
+     * sequence is empty, the sequence has no current element.
+     */
+    public void end()
+    {
+        seek(this.size - 1);
+    }
+
+
+    /**
+     * Sets the current element to the element at the given position, in
+     * constant time. If there is no element at that position, the sequence
+     * has no current element.
+     *
+     * @param index the position of the new current element, starting at 0.
+     */
+    public void seek(int index)
+    {
+        if(index < START || index >= this.size){
+            this.current = DEFAULT_CURRENT;
+        }else{
+            this.current = index;
+        }
+    }
+
+
+    /**
+     * @return the number of elements stored in the sequence.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+
+    /**
+     * @return true if the sequence is empty, else false
+     */
+    public boolean isEmpty()
+    {
+        return this.size == START;
+    }
+
+
+    /**
+     * Checks whether another mapped sequence is equal to this one: the same
+     * size, the same elements in the same order, and the same element marked
+     * current. The capacity can differ. The elements are compared as bytes
+     * in the two mappings, without making any Strings.
+     *
+     * @param other the other MappedSequence with which to compare
+     * @return true iff the other sequence is equal to this one.
+     */
+    public boolean equals(MappedSequence other)
+    {
+        if(this.current != other.current || this.size != other.size){
+            return false;
+        }
+        for(int i = START; i < this.size; i++){
+            if(isNull(i) != other.isNull(i) || !sameBytes(i, other)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Checks whether a Sequence is equal to this one, in the sense of
+     * Sequence.equals. Each element of the other sequence is encoded and
+     * compared with the bytes in the mapping.
+     *
+     * @param other the Sequence with which to compare
+     * @return true iff the other sequence is equal to this one.
+     */
+    public boolean equals(Sequence other)
+    {
+        if(this.current != other.getCurrentIndex() || this.size != other.size()){
+            return false;
+        }
+        int i = START;
+        for(String item: other){
+            if((item == null) != isNull(i)){
+                return false;
+            }
+            if(item != null && !sameBytes(i, LosslessUtf8.encode(item))){
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+
+    /**
+     * Reads every element into a new Sequence with the same current element
+     * and capacity.
+     *
+     * @return a Sequence with the contents of this one.
+     */
+    public Sequence toSequence()
+    {
+        Sequence sequence = new Sequence(this.capacity);
+        for(String item: this){
+            sequence.addAfter(item);
+        }
+        sequence.seek(this.current);
+        return sequence;
+    }
+
+
+    /**
+     * @return an iterator over the elements, from the start to the end; it does
+     * not move the current element.
+     */
+    public Iterator<String> iterator()
+    {
+        return new MappedIterator();
+    }
+
+
+    /**
+     * Produce a string representation of this sequence, in the same format
+     * as Sequence, for example:
+     *
+     *    {A, >B} (capacity = 5)
+     *
+     * @return a string representation of this sequence.
+     */
+    public String toString()
+    {
+        StringBuilder sequenceString = new StringBuilder("{");
+        for(int i = START; i < this.size; i++){
+            if(i > START){
+                sequenceString.append(", ");
+            }
+            if(i == this.current){
+                sequenceString.append(">");
+            }
+            sequenceString.append(get(i));
+        }
+        sequenceString.append("} (capacity = ").append(this.capacity).append(")");
+        return sequenceString.toString();
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private class MappedIterator implements Iterator<String>
+    {
+        private int nextIndex = START;
+
+        public boolean hasNext()
+        {
+            return nextIndex < size;
+        }
+
+        public String next()
+        {
+            if(nextIndex >= size){
+                throw new NoSuchElementException();
+            }
+            String item = get(nextIndex);
+            nextIndex++;
+            return item;
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException
+    {
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return index entry i, flag included
+     */
+    private long entry(int i)
+    {
+        return longAt(HEADER_BYTES + (long) i * Long.BYTES);
+    }
+
+    private boolean isNull(int i)
+    {
+        return (entry(i) & NULL_FLAG) != 0;
+    }
+
+    /**
+     * @return the file position where element i starts
+     */
+    private long dataStart(int i)
+    {
+        return entry(i) & ~NULL_FLAG;
+    }
+
+    private long length(int i)
+    {
+        return dataStart(i + 1) - dataStart(i);
+    }
+
+    private byte byteAt(long position)
+    {
+        return this.segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & (SEGMENT_BYTES - 1)));
+    }
+
+    /**
+     * @return the 8 bytes at position, read byte by byte if they straddle two segments
+     */
+    private long longAt(long position)
+    {
+        MappedByteBuffer segment = this.segments[(int) (position >>> SEGMENT_SHIFT)];
+        int offset = (int) (position & (SEGMENT_BYTES - 1));
+        if(offset + Long.BYTES <= segment.limit()){
+            return segment.getLong(offset);
+        }
+        long value = 0;
+        for(int k = 0; k < Long.BYTES; k++){
+            value = (value << Byte.SIZE) | (byteAt(position + k) & 0xFF);
+        }
+        return value;
+    }
+
+    private String get(int i)
+    {
+        if(isNull(i)){
+            return null;
+        }
+        long start = dataStart(i);
+        byte[] bytes = new byte[(int) length(i)];
+        int copied = 0;
+        while(copied < bytes.length){
+            long position = start + copied;
+            MappedByteBuffer segment = this.segments[(int) (position >>> SEGMENT_SHIFT)];
+            int offset = (int) (position & (SEGMENT_BYTES - 1));
+            int count = Math.min(bytes.length - copied, segment.limit() - offset);
+            segment.get(offset, bytes, copied, count);
+            copied += count;
+        }
+        return LosslessUtf8.decode(bytes, START, bytes.length);
+    }
+
+    /**
+     * @return true iff element i has the same bytes as element i of other, compared 8 at a time
+     */
+    private boolean sameBytes(int i, MappedSequence other)
+    {
+        long length = length(i);
+        if(length != other.length(i)){
+            return false;
+        }
+        long start = dataStart(i);
+        long otherStart = other.dataStart(i);
+        long k = 0;
+        for(; k + Long.BYTES <= length; k += Long.BYTES){
+            if(longAt(start + k) != other.longAt(otherStart + k)){
+                return false;
+            }
+        }
+        for(; k < length; k++){
+            if(byteAt(start + k) != other.byteAt(otherStart + k)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true iff element i has the given bytes
+     */
+    private boolean sameBytes(int i, byte[] bytes)
+    {
+        if(bytes.length != length(i)){
+            return false;
+        }
+        long start = dataStart(i);
+        for(int k = 0; k < bytes.length; k++){
+            if(byteAt(start + k) != bytes[k]){
+                return false;
+            }
+        }
+        return true;
+    }
+}
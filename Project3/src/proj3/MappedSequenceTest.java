@@ -0,0 +1,150 @@
+package proj3;
+/**
+ * JUnit test class.
+ */
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+public class MappedSequenceTest {
+
+    @Rule //a test will fail if it takes longer than 1/10 of a second to run
+    public Timeout timeout = Timeout.millis(100);
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("sequence", ".seq");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private Sequence makeSequence(String[] items, int initialCapacity){
+        Sequence s = new Sequence(initialCapacity);
+        for(String item: items){
+            s.addAfter(item);
+        }
+        return s;
+    }
+
+    @Test //the elements, current element and capacity come back as they were written
+    public void testWriteOpen() throws IOException {
+        Sequence s = makeSequence(new String[] {"A", "B", "C"}, 5);
+        s.start();
+        s.advance();
+        MappedSequence.write(s, file);
+        MappedSequence m = MappedSequence.open(file);
+        assertEquals(3, m.size());
+        assertEquals(5, m.getCapacity());
+        assertEquals(1, m.getCurrentIndex());
+        assertEquals("B", m.getCurrent());
+        assertEquals("{A, >B, C} (capacity = 5)", m.toString());
+        assertTrue(m.equals(s));
+        assertTrue(s.equals(m.toSequence()));
+    }
+
+    @Test //the cursor moves like a Sequence's, without changing the file
+    public void testCursor() throws IOException {
+        Sequence s = makeSequence(new String[] {"A", "B", "C"}, 3);
+        MappedSequence.write(s, file);
+        MappedSequence m = MappedSequence.open(file);
+        assertEquals("C", m.getCurrent());
+        m.advance();
+        assertFalse(m.isCurrent());
+        assertNull(m.getCurrent());
+        m.start();
+        assertEquals("A", m.getCurrent());
+        m.retreat();
+        assertFalse(m.isCurrent());
+        m.seek(1);
+        assertEquals("B", m.getCurrent());
+        m.end();
+        assertEquals("C", m.getCurrent());
+        assertEquals(2, MappedSequence.open(file).getCurrentIndex());
+    }
+
+    @Test //empty strings, nulls, commas and non-ASCII characters are kept exactly
+    public void testAwkwardElements() throws IOException {
+        String[] items = {"", null, "a, b", "caf\u00e9", "smile \ud83d\ude00", null};
+        Sequence s = makeSequence(items, 6);
+        MappedSequence.write(s, file);
+        MappedSequence m = MappedSequence.open(file);
+        int i = 0;
+        for(String item: m){
+            assertEquals(items[i], item);
+            i++;
+        }
+        assertEquals(items.length, i);
+        assertTrue(m.equals(s));
+        s.start();
+        s.addAfter("x");
+        s.removeCurrent();
+        s.end();
+        assertTrue(m.equals(s));
+        s.retreat();
+        s.removeCurrent();
+        s.addBefore("smile \ud83d\ude01");
+        s.end();
+        assertFalse(m.equals(s));
+    }
+
+    @Test //unpaired surrogates are kept too, and not taken for '?'
+    public void testUnpairedSurrogate() throws IOException {
+        String[] items = {"a\ud800b", "\udc00", "x\ud83d"};
+        Sequence s = makeSequence(items, 3);
+        MappedSequence.write(s, file);
+        MappedSequence m = MappedSequence.open(file);
+        int i = 0;
+        for(String item: m){
+            assertEquals(items[i], item);
+            i++;
+        }
+        assertTrue(m.equals(s));
+        assertFalse(m.equals(makeSequence(new String[] {"a?b", "?", "x?"}, 3)));
+    }
+
+    @Test //an empty sequence with no current element
+    public void testEmpty() throws IOException {
+        MappedSequence.write(new Sequence(), file);
+        MappedSequence m = MappedSequence.open(file);
+        assertTrue(m.isEmpty());
+        assertFalse(m.isCurrent());
+        assertEquals("{} (capacity = 10)", m.toString());
+        m.start();
+        assertFalse(m.isCurrent());
+    }
+
+    @Test //two mappings compare their bytes, and tell apart elements that differ only in length or nullness
+    public void testEqualsMapped() throws IOException {
+        Path other = Files.createTempFile("sequence", ".seq");
+        try{
+            MappedSequence.write(makeSequence(new String[] {"a long element", "", "x"}, 3), file);
+            MappedSequence.write(makeSequence(new String[] {"a long element", "", "x"}, 9), other);
+            MappedSequence m = MappedSequence.open(file);
+            assertTrue(m.equals(MappedSequence.open(other)));
+            MappedSequence.write(makeSequence(new String[] {"a long element", null, "x"}, 3), other);
+            assertFalse(m.equals(MappedSequence.open(other)));
+            MappedSequence.write(makeSequence(new String[] {"a long elemenT", "", "x"}, 3), other);
+            assertFalse(m.equals(MappedSequence.open(other)));
+            MappedSequence.write(makeSequence(new String[] {"a long element", "x", ""}, 3), other);
+            assertFalse(m.equals(MappedSequence.open(other)));
+        }finally{
+            Files.deleteIfExists(other);
+        }
+    }
+
+    @Test(expected = IOException.class) //a file that is not a sequence file is refused
+    public void testNotASequenceFile() throws IOException {
+        Files.write(file, "{A, >B, C} (capacity = 5)".getBytes());
+        MappedSequence.open(file);
+    }
+}
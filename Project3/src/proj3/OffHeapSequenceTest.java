@@ -0,0 +1,109 @@
+package proj3;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Runs every SequenceTest against the off-heap storage engine, plus tests
+ * for the UTF-8 encoding and for how slabs are shared and compacted.
+ */
+public class OffHeapSequenceTest extends SequenceTest {
+
+    @Override
+    protected Sequence.Storage storage(){
+        return Sequence.Storage.OFF_HEAP;
+    }
+
+    @Test //characters of every UTF-8 length, surrogate pairs and empty strings come back unchanged
+    public void testUnicodeRoundTrip(){
+        String[] items = {"", "plain", "caf\u00e9", "\u4e2d\u6587", "smile \ud83d\ude00", "\u00df\u20ac\ud834\udd1e"};
+        Sequence s = new Sequence(storage());
+        for(String item: items){
+            s.addAfter(item);
+        }
+        s.start();
+        for(String item: items){
+            assertEquals(item, s.getCurrent());
+            assertTrue(s.contains(item));
+            s.advance();
+        }
+        assertFalse(s.contains("caf"));
+        assertFalse(s.contains("cafe"));
+        assertFalse(s.contains("smile \ud83d"));
+    }
+
+    @Test //unpaired surrogates come back unchanged, and are not taken for '?'
+    public void testUnpairedSurrogate(){
+        String[] items = {"a\ud800b", "\udc00", "x\ud83d", "\ude00\ud83d", "\ud83d\ude00\ud83d"};
+        Sequence s = new Sequence(storage());
+        for(String item: items){
+            s.addAfter(item);
+        }
+        s.start();
+        for(String item: items){
+            assertEquals(item, s.getCurrent());
+            assertTrue(s.contains(item));
+            s.advance();
+        }
+        assertFalse(s.contains("a?b"));
+        assertFalse(s.contains("a\ufffdb"));
+        assertFalse(s.contains("\ud83d\ude00"));
+    }
+
+    @Test //equals compares bytes, and tells apart strings that share a prefix
+    public void testEqualsComparesBytes(){
+        Sequence s = new Sequence(storage());
+        Sequence t = new Sequence(storage());
+        s.addAfter("the same long string");
+        t.addAfter("the same long string");
+        s.addAfter(null);
+        t.addAfter(null);
+        assertTrue(s.equals(t));
+        s.addAfter("the same long strinG");
+        t.addAfter("the same long string");
+        assertFalse(s.equals(t));
+        Sequence linked = new Sequence(Sequence.Storage.LINKED);
+        linked.addAfter("the same long string");
+        linked.addAfter(null);
+        linked.addAfter("the same long string");
+        assertTrue(t.equals(linked));
+    }
+
+    @Test //removing most elements compacts the slabs down to the live bytes
+    public void testCompaction(){
+        String padding = "x".repeat(100);
+        OffHeapStorage storage = new OffHeapStorage(0);
+        for(int i = 0; i < 1000; i++){
+            storage.insertAfter(null, Integer.toString(i).concat(padding));
+        }
+        long written = storage.slabBytes();
+        while(storage.size() > 10){
+            storage.remove(storage.cursorAt(0));
+        }
+        assertTrue(storage.slabBytes() < written / 10);
+        assertEquals("990".concat(padding), storage.get(0));
+        storage.trimToSize();
+        assertEquals(10, storage.capacity());
+        assertEquals(10 * (Integer.BYTES + 103), storage.slabBytes());
+        assertEquals("999".concat(padding), storage.get(9));
+    }
+
+    @Test //clones, addAll and split share slabs without changing each other's elements
+    public void testSharedSlabs(){
+        Sequence s = new Sequence(storage());
+        s.addAfter("A");
+        s.addAfter("B");
+        Sequence copy = s.clone();
+        copy.addAfter("C");
+        s.addAfter("D");
+        s.addAll(copy);
+        assertEquals("{A, B, >D, A, B, C} (capacity = 10)", s.toString());
+        s.advance();
+        Sequence tail = s.split();
+        tail.end();
+        tail.addAfter("E");
+        assertEquals("{A, B, D} (capacity = 10)", s.toString());
+        assertEquals("{A, B, C, >E} (capacity = 10)", tail.toString());
+        assertEquals("{A, B, >C} (capacity = 10)", copy.toString());
+    }
+}
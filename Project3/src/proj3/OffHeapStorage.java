@@ -0,0 +1,587 @@
+package proj3;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Sequence storage for Strings outside the Java heap. The characters are
+ * packed as UTF-8 (see LosslessUtf8, which keeps lone surrogates) into
+ * direct ByteBuffer slabs, each element as a 4 byte length followed by its
+ * bytes, and the heap only holds a table with one long per element giving
+ * the slab and offset where it starts. So the garbage collector sees a
+ * single primitive array instead of millions of Strings. A String is only
+ * made when an element is read; contains and comparing two off-heap
+ * storages work on the bytes without making any.
+ *
+ * The table is a gap buffer (see GapBufferStorage), so editing near the
+ * cursor is amortized O(1). Slabs are only ever appended to, and only by the
+ * storage that made them, so copy(), appendAll and splitOff share slabs
+ * instead of copying bytes. Removed elements leave their bytes behind; when
+ * the slabs hold more than twice the live bytes they are compacted.
+ *
+ * Invariants of the OffHeapStorage class:
+ *  1. The locations of the elements are in table[0] to table[gapStart-1],
+ *     followed by table[gapEnd] to table[table.length-1].
+ *  2. A location is (slab index << 32 | offset), or NULL_LOCATION for null.
+ *  3. writeSlab is null or the last slab this storage made, at slabs[writeSlabIndex];
+ *     bytes are only written past writeSlab.position(), nowhere else.
+ *  4. liveBytes = slab bytes taken by the elements, counted once per element,
+ *     writtenBytes = bytes written in the slabs.
+ */
+class OffHeapStorage extends SequenceStorage<String>
+{
+    private static final int MIN_SLAB_SIZE = 256;
+    private static final int MAX_SLAB_SIZE = 1 << 20;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final long NULL_LOCATION = -1;
+    private static final int COMPACT_RATIO = 2;
+    private final int EMPTY = 0;
+    private final int START = 0;
+
+    private List<ByteBuffer> slabs;
+    private ByteBuffer writeSlab;
+    private int writeSlabIndex;
+    private long[] table;
+    private int gapStart;
+    private int gapEnd;
+    private long liveBytes;
+    private long writtenBytes;
+    private int modCount;
+
+    /**
+     * Creates an empty off-heap storage.
+     * @param initialCapacity the number of elements to preallocate the table for
+     */
+    OffHeapStorage(int initialCapacity)
+    {
+        this.slabs = new ArrayList<>();
+        this.writeSlab = null;
+        this.table = new long[initialCapacity];
+        this.gapStart = START;
+        this.gapEnd = initialCapacity;
+    }
+
+
+    int size()
+    {
+        return this.table.length - gapLength();
+    }
+
+
+    /**
+     * @return the number of elements the table can hold without growing
+     */
+    int capacity()
+    {
+        return this.table.length;
+    }
+
+
+    /**
+     * @return the number of bytes written in the slabs, live or not
+     */
+    long slabBytes()
+    {
+        return this.writtenBytes;
+    }
+
+
+    Cursor<String> cursorAt(int index)
+    {
+        return new IndexCursor(index);
+    }
+
+
+    String get(int index)
+    {
+        long location = location(index);
+        if(location == NULL_LOCATION){
+            return null;
+        }
+        ByteBuffer slab = slab(location);
+        int offset = offset(location);
+        byte[] bytes = new byte[slab.getInt(offset)];
+        slab.get(offset + LENGTH_BYTES, bytes);
+        return LosslessUtf8.decode(bytes, START, bytes.length);
+    }
+
+
+    Cursor<String> insertBefore(Cursor<String> cursor, String value)
+    {
+        int index = START;
+        if(cursor != null){
+            index = cursor.index();
+        }
+        insertAt(index, write(value));
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<String> insertAfter(Cursor<String> cursor, String value)
+    {
+        int index = size();
+        if(cursor != null){
+            index = cursor.index() + 1;
+        }
+        insertAt(index, write(value));
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<String> remove(Cursor<String> cursor)
+    {
+        int index = cursor.index();
+        moveGapTo(index);
+        this.liveBytes -= storedBytes(this.table[this.gapEnd]);
+        this.gapEnd++;
+        this.modCount++;
+        if(this.writtenBytes > COMPACT_RATIO * this.liveBytes + MIN_SLAB_SIZE){
+            compact();
+        }
+        if(index == size()){
+            return null;
+        }
+        return new IndexCursor(index);
+    }
+
+
+    void clear()
+    {
+        this.slabs = new ArrayList<>();
+        this.writeSlab = null;
+        this.gapStart = START;
+        this.gapEnd = this.table.length;
+        this.liveBytes = EMPTY;
+        this.writtenBytes = EMPTY;
+        this.modCount++;
+    }
+
+
+    /**
+     * copies the table only; the copy shares the slabs and starts a slab of
+     * its own for the elements added to it
+     */
+    SequenceStorage<String> copy()
+    {
+        OffHeapStorage copy = new OffHeapStorage(EMPTY);
+        copy.slabs = new ArrayList<>(this.slabs);
+        copy.table = this.table.clone();
+        copy.gapStart = this.gapStart;
+        copy.gapEnd = this.gapEnd;
+        copy.liveBytes = this.liveBytes;
+        copy.writtenBytes = this.writtenBytes;
+        return copy;
+    }
+
+
+    /**
+     * appends the other storage's locations, sharing its slabs, without
+     * reading or copying any bytes
+     */
+    void appendAll(SequenceStorage<String> other)
+    {
+        if(other instanceof OffHeapStorage){
+            OffHeapStorage otherStorage = (OffHeapStorage) other;
+            appendLocations(otherStorage, START, otherStorage.size());
+        }else{
+            super.appendAll(other);
+        }
+    }
+
+
+    /**
+     * hands the locations from index on to another off-heap storage, which
+     * shares the slabs they point into
+     */
+    void splitOff(int index, SequenceStorage<String> tail)
+    {
+        if(tail instanceof OffHeapStorage){
+            ((OffHeapStorage) tail).appendLocations(this, index, size());
+            moveGapTo(index);
+            for(int i = this.gapEnd; i < this.table.length; i++){
+                this.liveBytes -= storedBytes(this.table[i]);
+            }
+            this.gapEnd = this.table.length;
+            this.modCount++;
+        }else{
+            super.splitOff(index, tail);
+        }
+    }
+
+
+    /**
+     * compares the encoded value with each element's bytes, without making any Strings
+     */
+    boolean contains(String value)
+    {
+        for(int i = START; i < size(); i++){
+            if(matches(location(i), value)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * compares the bytes of two off-heap storages directly, without making any Strings
+     */
+    boolean sameElements(SequenceStorage<String> other)
+    {
+        if(!(other instanceof OffHeapStorage)){
+            return super.sameElements(other);
+        }
+        OffHeapStorage otherStorage = (OffHeapStorage) other;
+        for(int i = START; i < size(); i++){
+            if(!sameBytes(location(i), otherStorage, otherStorage.location(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    void ensureCapacity(int minCapacity)
+    {
+        if(this.table.length < minCapacity){
+            resize(minCapacity);
+        }
+    }
+
+
+    /**
+     * trims the table to the number of elements and packs the elements'
+     * bytes into as few slabs as they need
+     */
+    void trimToSize()
+    {
+        if(this.table.length > size()){
+            resize(size());
+        }
+        if(this.writtenBytes > this.liveBytes){
+            compact();
+        }
+    }
+
+
+    public Iterator<String> iterator()
+    {
+        return new OffHeapIterator();
+    }
+
+
+    public Spliterator<String> spliterator()
+    {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private class OffHeapIterator implements Iterator<String>
+    {
+        private int nextIndex = EMPTY;
+        private int expectedModCount = modCount;
+
+        public boolean hasNext()
+        {
+            return nextIndex < size();
+        }
+
+        public String next()
+        {
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextIndex >= size()){
+                throw new NoSuchElementException();
+            }
+            String item = get(nextIndex);
+            nextIndex++;
+            return item;
+        }
+    }
+
+    private int gapLength()
+    {
+        return this.gapEnd - this.gapStart;
+    }
+
+    private long location(int index)
+    {
+        if(index < this.gapStart){
+            return this.table[index];
+        }
+        return this.table[index + gapLength()];
+    }
+
+    private ByteBuffer slab(long location)
+    {
+        return this.slabs.get((int) (location >>> Integer.SIZE));
+    }
+
+    private static int offset(long location)
+    {
+        return (int) location;
+    }
+
+    /**
+     * @return the number of slab bytes the element at location takes
+     */
+    private long storedBytes(long location)
+    {
+        if(location == NULL_LOCATION){
+            return EMPTY;
+        }
+        return LENGTH_BYTES + slab(location).getInt(offset(location));
+    }
+
+    private void insertAt(int index, long location)
+    {
+        if(gapLength() == EMPTY){
+            resize(2 * this.table.length + 1);
+        }
+        moveGapTo(index);
+        this.table[this.gapStart] = location;
+        this.gapStart++;
+        this.modCount++;
+    }
+
+    /**
+     * encodes value at the end of the write slab, starting a new slab if it does not fit
+     * @return the location of the encoded value
+     */
+    private long write(String value)
+    {
+        if(value == null){
+            return NULL_LOCATION;
+        }
+        byte[] bytes = LosslessUtf8.encode(value);
+        int needed = LENGTH_BYTES + bytes.length;
+        if(this.writeSlab == null || this.writeSlab.remaining() < needed){
+            int slabSize = MIN_SLAB_SIZE;
+            if(this.writeSlab != null){
+                slabSize = Math.min(MAX_SLAB_SIZE, 2 * this.writeSlab.capacity());
+            }
+            newWriteSlab(Math.max(slabSize, needed));
+        }
+        long location = ((long) this.writeSlabIndex << Integer.SIZE) | this.writeSlab.position();
+        this.writeSlab.putInt(bytes.length);
+        this.writeSlab.put(bytes);
+        this.liveBytes += needed;
+        this.writtenBytes += needed;
+        return location;
+    }
+
+    /**
+     * appends the locations from..to-1 of source, adding source's slabs after this storage's
+     */
+    private void appendLocations(OffHeapStorage source, int from, int to)
+    {
+        int count = to - from;
+        ensureCapacity(size() + count);
+        moveGapTo(size());
+        long slabShift = EMPTY;
+        if(source != this){
+            slabShift = (long) this.slabs.size() << Integer.SIZE;
+            this.slabs.addAll(source.slabs);
+            this.writtenBytes += source.writtenBytes;
+        }
+        for(int i = from; i < to; i++){
+            long location = source.location(i);
+            if(location != NULL_LOCATION){
+                location += slabShift;
+            }
+            this.table[this.gapStart] = location;
+            this.gapStart++;
+            this.liveBytes += storedBytes(location);
+        }
+        this.modCount++;
+    }
+
+    private void newWriteSlab(int slabSize)
+    {
+        this.writeSlab = ByteBuffer.allocateDirect(slabSize);
+        this.slabs.add(this.writeSlab);
+        this.writeSlabIndex = this.slabs.size() - 1;
+    }
+
+    /**
+     * rewrites the live elements into fresh slabs, in order, leaving the old slabs to the
+     * garbage collector once no storage shares them
+     */
+    private void compact()
+    {
+        List<ByteBuffer> oldSlabs = this.slabs;
+        long[] locations = new long[size()];
+        for(int i = START; i < locations.length; i++){
+            locations[i] = location(i);
+        }
+        this.slabs = new ArrayList<>();
+        this.writeSlab = null;
+        if(this.liveBytes > EMPTY){
+            newWriteSlab((int) Math.min(Integer.MAX_VALUE, this.liveBytes));
+        }
+        this.writtenBytes = EMPTY;
+        for(int i = START; i < locations.length; i++){
+            long location = locations[i];
+            if(location != NULL_LOCATION){
+                ByteBuffer oldSlab = oldSlabs.get((int) (location >>> Integer.SIZE));
+                int oldOffset = offset(location);
+                int stored = LENGTH_BYTES + oldSlab.getInt(oldOffset);
+                if(this.writeSlab.remaining() < stored){
+                    newWriteSlab(Math.max(MAX_SLAB_SIZE, stored));
+                }
+                int position = this.writeSlab.position();
+                this.writeSlab.put(position, oldSlab, oldOffset, stored);
+                this.writeSlab.position(position + stored);
+                this.writtenBytes += stored;
+                locations[i] = ((long) this.writeSlabIndex << Integer.SIZE) | position;
+            }
+        }
+        int afterGap = this.table.length - this.gapEnd;
+        System.arraycopy(locations, START, this.table, START, this.gapStart);
+        System.arraycopy(locations, this.gapStart, this.table, this.gapEnd, afterGap);
+    }
+
+    /**
+     * moves the gap so that it starts at the given position, shifting only
+     * the locations between the old and the new place of the gap
+     */
+    private void moveGapTo(int index)
+    {
+        if(index < this.gapStart){
+            int count = this.gapStart - index;
+            System.arraycopy(this.table, index, this.table, this.gapEnd - count, count);
+            this.gapStart -= count;
+            this.gapEnd -= count;
+        }else if(index > this.gapStart){
+            int count = index - this.gapStart;
+            System.arraycopy(this.table, this.gapEnd, this.table, this.gapStart, count);
+            this.gapStart += count;
+            this.gapEnd += count;
+        }
+    }
+
+    /**
+     * copies the locations into a table of the given length, keeping the gap where it is
+     */
+    private void resize(int newLength)
+    {
+        long[] newTable = new long[newLength];
+        int afterGap = this.table.length - this.gapEnd;
+        System.arraycopy(this.table, START, newTable, START, this.gapStart);
+        System.arraycopy(this.table, this.gapEnd, newTable, newLength - afterGap, afterGap);
+        this.table = newTable;
+        this.gapEnd = newLength - afterGap;
+    }
+
+    /**
+     * @return true iff the element at location has the same bytes as the element
+     * at otherLocation of other
+     */
+    private boolean sameBytes(long location, OffHeapStorage other, long otherLocation)
+    {
+        if(location == NULL_LOCATION || otherLocation == NULL_LOCATION){
+            return location == otherLocation;
+        }
+        ByteBuffer slab = slab(location);
+        ByteBuffer otherSlab = other.slab(otherLocation);
+        int offset = offset(location);
+        int otherOffset = offset(otherLocation);
+        int length = slab.getInt(offset);
+        if(length != otherSlab.getInt(otherOffset)){
+            return false;
+        }
+        offset += LENGTH_BYTES;
+        otherOffset += LENGTH_BYTES;
+        int i = START;
+        for(; i + Long.BYTES <= length; i += Long.BYTES){
+            if(slab.getLong(offset + i) != otherSlab.getLong(otherOffset + i)){
+                return false;
+            }
+        }
+        for(; i < length; i++){
+            if(slab.get(offset + i) != otherSlab.get(otherOffset + i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * encodes value one char at a time, as LosslessUtf8.encode does, and compares
+     * each byte with the element at location
+     * @return true iff the element at location is equal to value
+     */
+    private boolean matches(long location, String value)
+    {
+        if(location == NULL_LOCATION || value == null){
+            return location == NULL_LOCATION && value == null;
+        }
+        ByteBuffer slab = slab(location);
+        int offset = offset(location);
+        int end = offset + LENGTH_BYTES + slab.getInt(offset);
+        int at = offset + LENGTH_BYTES;
+        for(int i = START; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c < 0x80){
+                if(at >= end || slab.get(at++) != (byte) c){
+                    return false;
+                }
+                continue;
+            }
+            int codePoint = c;
+            if(Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))){
+                codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+                i++;
+            }
+            int count = utf8Length(codePoint);
+            if(at + count > end){
+                return false;
+            }
+            for(int k = START; k < count; k++){
+                if(slab.get(at++) != utf8Byte(codePoint, count, k)){
+                    return false;
+                }
+            }
+        }
+        return at == end;
+    }
+
+    private static int utf8Length(int codePoint)
+    {
+        if(codePoint < 0x80){
+            return 1;
+        }
+        if(codePoint < 0x800){
+            return 2;
+        }
+        if(codePoint < 0x10000){
+            return 3;
+        }
+        return 4;
+    }
+
+    /**
+     * @return byte k of the count byte UTF-8 encoding of codePoint
+     */
+    private static byte utf8Byte(int codePoint, int count, int k)
+    {
+        if(count == 1){
+            return (byte) codePoint;
+        }
+        int shift = 6 * (count - 1 - k);
+        if(k == 0){
+            int lead = 0xFF00 >> count;
+            return (byte) ((lead & 0xFF) | (codePoint >> shift));
+        }
+        return (byte) (0x80 | ((codePoint >> shift) & 0x3F));
+    }
+}
@@ -0,0 +1,334 @@
+package proj3;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * An immutable Sequence of Strings. Every method that would change a Sequence
+ * instead returns a new version, and leaves this one as it was, so any number
+ * of old versions can be kept and read.
+ *
+ * Versions are kept in RopeStorage trees, whose nodes are never changed. A new
+ * version copies only the O(log n) nodes on the path to its edit and shares all
+ * the others with the version it came from. Moving the current element shares
+ * the whole tree. So keeping a version costs O(log n) memory per edit, instead
+ * of the O(n) of a Sequence.clone() that is then changed.
+ *
+ * There is no capacity: a version holds exactly its elements.
+ *
+ * Invariants of the PersistentSequence class:
+ *  1. holder is never changed after this version is made.
+ *  2. current = -1 if there is no current element, otherwise 0 <= current < size().
+ */
+public final class PersistentSequence implements Iterable<String>
+{
+    private static final int DEFAULT_CURRENT = -1;
+    private final int START = 0;
+
+    private final RopeStorage<String> holder;
+    private final int current;
+
+    /**
+     * Creates an empty persistent sequence with no current element.
+     */
+    public PersistentSequence()
+    {
+        this(new RopeStorage<>(), DEFAULT_CURRENT);
+    }
+
+
+    /**
+     * Creates a persistent sequence with the elements and current element of
+     * the given Sequence. This copies the elements, in O(n log n).
+     *
+     * @param sequence the sequence to copy.
+     */
+    public PersistentSequence(Sequence sequence)
+    {
+        this.holder = new RopeStorage<>();
+        for(String item: sequence){
+            this.holder.insertAfter(null, item);
+        }
+        this.current = sequence.getCurrentIndex();
+    }
+
+
+    private PersistentSequence(RopeStorage<String> holder, int current)
+    {
+        this.holder = holder;
+        this.current = current;
+    }
+
+
+    /**
+     * Returns a version with a string added before the current element, or at
+     * the beginning if there is no current element. The added element is the
+     * current element of the new version.
+     *
+     * @param value the string to add.
+     * @return the new version.
+     */
+    public PersistentSequence addBefore(String value)
+    {
+        RopeStorage<String> next = (RopeStorage<String>) this.holder.copy();
+        SequenceStorage.Cursor<String> added = next.insertBefore(cursorOn(next), value);
+        return new PersistentSequence(next, added.index());
+    }
+
+
+    /**
+     * Returns a version with a string added after the current element, or at
+     * the end if there is no current element. The added element is the
+     * current element of the new version.
+     *
+     * @param value the string to add.
+     * @return the new version.
+     */
+    public PersistentSequence addAfter(String value)
+    {
+        RopeStorage<String> next = (RopeStorage<String>) this.holder.copy();
+        SequenceStorage.Cursor<String> added = next.insertAfter(cursorOn(next), value);
+        return new PersistentSequence(next, added.index());
+    }
+
+
+    /**
+     * Returns a version with the contents of another persistent sequence
+     * added at the end, in O(log n). The current element stays where it is.
+     *
+     * @param another the sequence whose contents should be added.
+     * @return the new version.
+     */
+    public PersistentSequence addAll(PersistentSequence another)
+    {
+        RopeStorage<String> next = (RopeStorage<String>) this.holder.copy();
+        next.appendAll(another.holder);
+        return new PersistentSequence(next, this.current);
+    }
+
+
+    /**
+     * Returns a version without the current element. The following element,
+     * if there was one, is the current element of the new version. If there
+     * is no current element, returns this version.
+     *
+     * @return the new version.
+     */
+    public PersistentSequence removeCurrent()
+    {
+        if(!isCurrent()){
+            return this;
+        }
+        RopeStorage<String> next = (RopeStorage<String>) this.holder.copy();
+        SequenceStorage.Cursor<String> following = next.remove(next.cursorAt(this.current));
+        if(following == null){
+            return new PersistentSequence(next, DEFAULT_CURRENT);
+        }
+        return new PersistentSequence(next, following.index());
+    }
+
+
+    /**
+     * Returns a version whose current element is the one after this version's
+     * current element, or with no current element if it was the last. If
+     * there is no current element, returns this version.
+     *
+     * @return the new version, sharing all elements with this one.
+     */
+    public PersistentSequence advance()
+    {
+        if(!isCurrent()){
+            return this;
+        }
+        return seek(this.current + 1);
+    }
+
+
+    /**
+     * Returns a version whose current element is the one before this version's
+     * current element, or with no current element if it was the first. If
+     * there is no current element, returns this version.
+     *
+     * @return the new version, sharing all elements with this one.
+     */
+    public PersistentSequence retreat()
+    {
+        if(!isCurrent()){
+            return this;
+        }
+        return seek(this.current - 1);
+    }
+
+
+    /**
+     * @return a version whose current element is the first element, or with
+     * no current element if the sequence is empty.
+     */
+    public PersistentSequence start()
+    {
+        return seek(START);
+    }
+
+
+    /**
+     * @return a version whose current element is the last element, or with
+     * no current element if the sequence is empty.
+     */
+    public PersistentSequence end()
+    {
+        return seek(size() - 1);
+    }
+
+
+    /**
+     * Returns a version whose current element is the element at the given
+     * position, or with no current element if there is none there.
+     *
+     * @param index the position of the new current element, starting at 0.
+     * @return the new version, sharing all elements with this one.
+     */
+    public PersistentSequence seek(int index)
+    {
+        if(index < START || index >= size()){
+            index = DEFAULT_CURRENT;
+        }
+        if(index == this.current){
+            return this;
+        }
+        return new PersistentSequence(this.holder, index);
+    }
+
+
+    /**
+     * @return true if and only if the sequence has a current element.
+     */
+    public boolean isCurrent()
+    {
+        return this.current != DEFAULT_CURRENT;
+    }
+
+
+    /**
+     * @return the element at the current location in the sequence, or
+     * null if there is no current element.
+     */
+    public String getCurrent()
+    {
+        if(isCurrent()){
+            return this.holder.get(this.current);
+        }else{
+            return null;
+        }
+    }
+
+
+    /**
+     * @return the value of the current index, or -1 if there is no current element.
+     */
+    public int getCurrentIndex()
+    {
+        return this.current;
+    }
+
+
+    /**
+     * @return the number of elements stored in the sequence.
+     */
+    public int size()
+    {
+        return this.holder.size();
+    }
+
+
+    /**
+     * @return true if and only if the sequence contains no elements.
+     */
+    public boolean isEmpty()
+    {
+        return size() == START;
+    }
+
+
+    /**
+     * Makes a Sequence with ROPE storage holding this version's elements and
+     * current element, in constant time. The Sequence shares this version's
+     * tree and copies the nodes it changes, so this version stays as it is.
+     * Its capacity is the number of elements.
+     *
+     * @return the new sequence.
+     */
+    public Sequence toSequence()
+    {
+        return new Sequence(this.holder.copy(), Sequence.Storage.ROPE, size(), this.current);
+    }
+
+
+    /**
+     * @return an iterator over the elements, first to last.
+     */
+    public Iterator<String> iterator()
+    {
+        return this.holder.iterator();
+    }
+
+
+    /**
+     * Produce a string representation of this sequence, in the same format
+     * as Sequence but without the capacity, for example:
+     *
+     *    {A, >B, C}
+     *
+     * @return a string representation of this sequence.
+     */
+    public String toString()
+    {
+        StringBuilder sequenceString = new StringBuilder("{");
+        int count = START;
+        for(String item: this){
+            if(count > START){
+                sequenceString.append(", ");
+            }
+            if(count == this.current){
+                sequenceString.append(">");
+            }
+            sequenceString.append(item);
+            count++;
+        }
+        return sequenceString.append("}").toString();
+    }
+
+
+    /**
+     * Checks whether another persistent sequence is equal to this one: the
+     * same elements, in the same order, with the same element marked current.
+     *
+     * @param other the other sequence with which to compare
+     * @return true iff the other sequence is equal to this one.
+     */
+    public boolean equals(PersistentSequence other)
+    {
+        if(this.current != other.current || size() != other.size()){
+            return false;
+        }
+        Iterator<String> otherItems = other.iterator();
+        for(String item: this){
+            if(!Objects.equals(item, otherItems.next())){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    //PRIVATE HELPER METHODS
+    /**
+     * @return a cursor of the given copy of holder on the current element, or null
+     */
+    private SequenceStorage.Cursor<String> cursorOn(RopeStorage<String> storage)
+    {
+        if(!isCurrent()){
+            return null;
+        }
+        return storage.cursorAt(this.current);
+    }
+}
@@ -0,0 +1,137 @@
+package proj3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.*;
+import org.junit.rules.Timeout;
+import static org.junit.Assert.*;
+
+public class PersistentSequenceTest {
+    @Rule // a test will fail if it takes longer than 1/10 of a second to run
+    public Timeout timeout = Timeout.millis(100);
+
+    /**
+     * Creates a persistent sequence by adding the items after each other.
+     * The final element added is the current element.
+     * @param items the array of String values to be added
+     * @return the new version
+     */
+    private PersistentSequence makeSequence(String[] items){
+        PersistentSequence s = new PersistentSequence();
+        for(String item: items){
+            s = s.addAfter(item);
+        }
+        return s;
+    }
+
+    @Test //empty upon construction, with no current
+    public void testConstructEmpty(){
+        PersistentSequence s = new PersistentSequence();
+        assertEquals(0, s.size());
+        assertTrue(s.isEmpty());
+        assertFalse(s.isCurrent());
+        assertEquals("{}", s.toString());
+    }
+
+    @Test //every edit leaves the version it came from unchanged
+    public void testOldVersionsUnchanged(){
+        PersistentSequence v1 = makeSequence(new String[] {"A", "B", "C"});
+        PersistentSequence v2 = v1.retreat().addBefore("X");
+        PersistentSequence v3 = v2.removeCurrent();
+        PersistentSequence v4 = v3.start().addAfter("Y");
+
+        assertEquals("{A, B, >C}", v1.toString());
+        assertEquals("{A, >X, B, C}", v2.toString());
+        assertEquals("{A, >B, C}", v3.toString());
+        assertEquals("{A, >Y, B, C}", v4.toString());
+    }
+
+    @Test //moving the current element gives new versions that read the same elements
+    public void testMoveCurrent(){
+        PersistentSequence s = makeSequence(new String[] {"A", "B", "C"});
+        assertEquals("A", s.start().getCurrent());
+        assertEquals("B", s.start().advance().getCurrent());
+        assertFalse(s.advance().isCurrent());
+        assertFalse(s.start().retreat().isCurrent());
+        assertEquals("B", s.seek(1).getCurrent());
+        assertFalse(s.seek(3).isCurrent());
+        assertEquals(2, s.getCurrentIndex());
+    }
+
+    @Test //with no current, adds go to the ends and removal does nothing
+    public void testNoCurrent(){
+        PersistentSequence s = makeSequence(new String[] {"B"}).advance();
+        assertEquals("{>A, B}", s.addBefore("A").toString());
+        assertEquals("{B, >C}", s.addAfter("C").toString());
+        assertSame(s, s.removeCurrent());
+        assertSame(s, s.advance());
+    }
+
+    @Test //removing the last element leaves no current
+    public void testRemoveLast(){
+        PersistentSequence s = makeSequence(new String[] {"A", "B"}).removeCurrent();
+        assertEquals("{A}", s.toString());
+        assertFalse(s.isCurrent());
+    }
+
+    @Test //addAll appends another version, which is left unchanged, even itself
+    public void testAddAll(){
+        PersistentSequence s = makeSequence(new String[] {"A", "B"}).start();
+        PersistentSequence other = makeSequence(new String[] {"C"});
+        assertEquals("{>A, B, C}", s.addAll(other).toString());
+        assertEquals("{>A, B, A, B}", s.addAll(s).toString());
+        assertEquals("{A, >B}", s.advance().toString());
+        assertEquals("{>C}", other.toString());
+    }
+
+    @Test //converting from and to a Sequence keeps elements and current
+    public void testSequenceConversion(){
+        Sequence sequence = new Sequence();
+        sequence.addAfter("A");
+        sequence.addAfter("B");
+        sequence.start();
+        PersistentSequence s = new PersistentSequence(sequence);
+        assertEquals("{>A, B}", s.toString());
+
+        Sequence back = s.toSequence();
+        assertEquals(Sequence.Storage.ROPE, back.getStorage());
+        assertTrue(sequence.equals(back));
+        back.addAfter("C");
+        assertEquals("{>A, B}", s.toString());
+        assertEquals("{A, >C, B} (capacity = 5)", back.toString());
+    }
+
+    @Test //equal versions made by different edits
+    public void testEquals(){
+        PersistentSequence s = makeSequence(new String[] {"A", "B"});
+        PersistentSequence other = makeSequence(new String[] {"A", "X", "B"}).seek(1).removeCurrent();
+        assertTrue(s.equals(other));
+        assertFalse(s.equals(s.start()));
+        assertFalse(s.equals(s.addAfter("C")));
+    }
+
+    @Test //null elements compare like any other element
+    public void testEqualsNull(){
+        PersistentSequence s = makeSequence(new String[] {null, "B"});
+        assertTrue(s.equals(makeSequence(new String[] {null, "B"})));
+        assertFalse(s.equals(makeSequence(new String[] {"A", "B"})));
+        assertFalse(makeSequence(new String[] {"A", "B"}).equals(s));
+    }
+
+    @Test //a thousand versions, each one edit from the last, all stay readable
+    public void testManyVersions(){
+        List<PersistentSequence> versions = new ArrayList<>();
+        PersistentSequence s = new PersistentSequence();
+        for(int i = 0; i < 1000; i++){
+            s = s.addAfter(Integer.toString(i));
+            versions.add(s);
+        }
+
+        for(int i = 0; i < 1000; i++){
+            PersistentSequence version = versions.get(i);
+            assertEquals(i + 1, version.size());
+            assertEquals(Integer.toString(i), version.getCurrent());
+        }
+    }
+}
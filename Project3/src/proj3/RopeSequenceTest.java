@@ -0,0 +1,51 @@
+package proj3;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Runs every SequenceTest against the rope storage engine, plus tests for
+ * concatenating and splitting whole trees.
+ */
+public class RopeSequenceTest extends SequenceTest {
+
+    @Override
+    protected Sequence.Storage storage(){
+        return Sequence.Storage.ROPE;
+    }
+
+    @Test //repeated concatenation with itself keeps every position in order
+    public void testConcatenateSelf(){
+        Sequence s = new Sequence(storage());
+        s.addAfter("A");
+        s.addAfter("B");
+        for(int i = 0; i < 10; i++){
+            s.addAll(s);
+        }
+
+        assertEquals(2048, s.size());
+        s.seek(1001);
+        assertEquals("B", s.getCurrent());
+        s.seek(1024);
+        assertEquals("A", s.getCurrent());
+    }
+
+    @Test //splitting at every position and joining back gives the original
+    public void testSplitEveryPosition(){
+        Sequence s = new Sequence(storage());
+        for(int i = 0; i < 100; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        String expected = s.toString();
+
+        for(int i = 0; i < 100; i++){
+            s.seek(i);
+            Sequence tail = s.split();
+            assertEquals(i, s.size());
+            assertEquals(Integer.toString(i), tail.getCurrent());
+            s.addAll(tail);
+            s.end();
+        }
+        assertEquals(expected, s.toString());
+    }
+}
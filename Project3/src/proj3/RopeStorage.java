@@ -0,0 +1,365 @@
+package proj3;
+
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Sequence storage in a rope: an AVL tree ordered by position, where every
+ * node knows the size of its subtree. Getting, inserting and removing at any
+ * position walk one path, so they are O(log n). Concatenating and splitting
+ * use join, which glues two trees around a middle element in O(log n).
+ *
+ * Nodes are never changed after they are made; every edit copies the path it
+ * walks. So copy() and the storage that appendAll takes its elements from can
+ * share subtrees with this one freely, and copy() is constant time.
+ *
+ * Invariants of the RopeStorage class:
+ *  1. An in-order walk of root visits the elements in order; root is null when empty.
+ *  2. Every node's size and height are those of its subtree, and the heights
+ *     of its two children differ by at most one.
+ */
+class RopeStorage<T> extends SequenceStorage<T>
+{
+    private final int EMPTY = 0;
+    private final int START = 0;
+
+    private Node<T> root;
+    private int modCount;
+
+    /**
+     * Creates an empty rope storage.
+     */
+    RopeStorage()
+    {
+        this.root = null;
+    }
+
+
+    private static class Node<T>
+    {
+        private final Node<T> left;
+        private final T data;
+        private final Node<T> right;
+        private final int size;
+        private final int height;
+
+        Node(Node<T> left, T data, Node<T> right)
+        {
+            this.left = left;
+            this.data = data;
+            this.right = right;
+            this.size = size(left) + 1 + size(right);
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+
+    int size()
+    {
+        return size(this.root);
+    }
+
+
+    Cursor<T> cursorAt(int index)
+    {
+        return new IndexCursor(index);
+    }
+
+
+    T get(int index)
+    {
+        Node<T> x = this.root;
+        while(true){
+            int leftSize = size(x.left);
+            if(index < leftSize){
+                x = x.left;
+            }else if(index > leftSize){
+                index -= leftSize + 1;
+                x = x.right;
+            }else{
+                return x.data;
+            }
+        }
+    }
+
+
+    Cursor<T> insertBefore(Cursor<T> cursor, T value)
+    {
+        int index = START;
+        if(cursor != null){
+            index = cursor.index();
+        }
+        this.root = insertAt(this.root, index, value);
+        this.modCount++;
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<T> insertAfter(Cursor<T> cursor, T value)
+    {
+        int index = size();
+        if(cursor != null){
+            index = cursor.index() + 1;
+        }
+        this.root = insertAt(this.root, index, value);
+        this.modCount++;
+        return new IndexCursor(index);
+    }
+
+
+    Cursor<T> remove(Cursor<T> cursor)
+    {
+        int index = cursor.index();
+        this.root = removeAt(this.root, index);
+        this.modCount++;
+        if(index == size()){
+            return null;
+        }
+        return new IndexCursor(index);
+    }
+
+
+    void clear()
+    {
+        this.root = null;
+        this.modCount++;
+    }
+
+
+    SequenceStorage<T> copy()
+    {
+        RopeStorage<T> copy = new RopeStorage<>();
+        copy.root = this.root;
+        return copy;
+    }
+
+
+    /**
+     * concatenates the other rope's tree onto this one in O(log n),
+     * sharing its nodes
+     */
+    void appendAll(SequenceStorage<T> other)
+    {
+        if(other instanceof RopeStorage){
+            this.root = concat(this.root, ((RopeStorage<T>) other).root);
+            this.modCount++;
+        }else{
+            super.appendAll(other);
+        }
+    }
+
+
+    /**
+     * builds a perfectly balanced tree of the elements in O(k), and
+     * concatenates it onto this one
+     */
+    void appendAll(T[] items)
+    {
+        this.root = concat(this.root, build(items, START, items.length));
+        this.modCount++;
+    }
+
+
+    /**
+     * splits the tree in O(log n), handing the right part to another rope
+     */
+    void splitOff(int index, SequenceStorage<T> tail)
+    {
+        if(tail instanceof RopeStorage){
+            RopeStorage<T> tailRope = (RopeStorage<T>) tail;
+            Node<T>[] parts = split(this.root, index);
+            this.root = parts[0];
+            tailRope.root = concat(tailRope.root, parts[1]);
+            this.modCount++;
+            tailRope.modCount++;
+        }else{
+            super.splitOff(index, tail);
+        }
+    }
+
+
+    public Iterator<T> iterator()
+    {
+        return new RopeIterator();
+    }
+
+
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    /**
+     * walks the tree in order, keeping the path of left turns still to visit
+     */
+    private class RopeIterator implements Iterator<T>
+    {
+        private Deque<Node<T>> path = new ArrayDeque<>();
+        private int expectedModCount = modCount;
+
+        RopeIterator()
+        {
+            pushLeftSpine(root);
+        }
+
+        public boolean hasNext()
+        {
+            return !path.isEmpty();
+        }
+
+        public T next()
+        {
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(path.isEmpty()){
+                throw new NoSuchElementException();
+            }
+            Node<T> x = path.pop();
+            pushLeftSpine(x.right);
+            return x.data;
+        }
+
+        private void pushLeftSpine(Node<T> x)
+        {
+            while(x != null){
+                path.push(x);
+                x = x.left;
+            }
+        }
+    }
+
+    private static int size(Node<?> x)
+    {
+        if(x == null){
+            return 0;
+        }
+        return x.size;
+    }
+
+    private static int height(Node<?> x)
+    {
+        if(x == null){
+            return 0;
+        }
+        return x.height;
+    }
+
+    /**
+     * makes a node from two subtrees whose heights differ by at most two,
+     * rotating once or twice if they differ by two
+     */
+    private static <T> Node<T> balance(Node<T> left, T data, Node<T> right)
+    {
+        if(height(left) > height(right) + 1){
+            if(height(left.left) >= height(left.right)){
+                return new Node<>(left.left, left.data, new Node<>(left.right, data, right));
+            }
+            Node<T> middle = left.right;
+            return new Node<>(new Node<>(left.left, left.data, middle.left), middle.data,
+                    new Node<>(middle.right, data, right));
+        }
+        if(height(right) > height(left) + 1){
+            if(height(right.right) >= height(right.left)){
+                return new Node<>(new Node<>(left, data, right.left), right.data, right.right);
+            }
+            Node<T> middle = right.left;
+            return new Node<>(new Node<>(left, data, middle.left), middle.data,
+                    new Node<>(middle.right, right.data, right.right));
+        }
+        return new Node<>(left, data, right);
+    }
+
+    /**
+     * joins two trees of any heights around a middle element, descending the
+     * taller tree until the heights are close; O(difference in heights)
+     */
+    private static <T> Node<T> join(Node<T> left, T data, Node<T> right)
+    {
+        if(height(left) > height(right) + 1){
+            return balance(left.left, left.data, join(left.right, data, right));
+        }
+        if(height(right) > height(left) + 1){
+            return balance(join(left, data, right.left), right.data, right.right);
+        }
+        return new Node<>(left, data, right);
+    }
+
+    /**
+     * @return the elements of left followed by the elements of right
+     */
+    private static <T> Node<T> concat(Node<T> left, Node<T> right)
+    {
+        if(left == null){
+            return right;
+        }
+        if(right == null){
+            return left;
+        }
+        Node<T>[] parts = split(left, left.size - 1);
+        return join(parts[0], parts[1].data, right);
+    }
+
+    /**
+     * @return the first index elements of x, and the rest
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] split(Node<T> x, int index)
+    {
+        if(x == null){
+            return (Node<T>[]) new Node<?>[] {null, null};
+        }
+        int leftSize = size(x.left);
+        if(index <= leftSize){
+            Node<T>[] parts = split(x.left, index);
+            parts[1] = join(parts[1], x.data, x.right);
+            return parts;
+        }
+        Node<T>[] parts = split(x.right, index - leftSize - 1);
+        parts[0] = join(x.left, x.data, parts[0]);
+        return parts;
+    }
+
+    /**
+     * @return a balanced tree of items[from] to items[to-1]
+     */
+    private static <T> Node<T> build(T[] items, int from, int to)
+    {
+        if(from == to){
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node<>(build(items, from, middle), items[middle], build(items, middle + 1, to));
+    }
+
+    private static <T> Node<T> insertAt(Node<T> x, int index, T value)
+    {
+        if(x == null){
+            return new Node<>(null, value, null);
+        }
+        int leftSize = size(x.left);
+        if(index <= leftSize){
+            return balance(insertAt(x.left, index, value), x.data, x.right);
+        }
+        return balance(x.left, x.data, insertAt(x.right, index - leftSize - 1, value));
+    }
+
+    private static <T> Node<T> removeAt(Node<T> x, int index)
+    {
+        int leftSize = size(x.left);
+        if(index < leftSize){
+            return balance(removeAt(x.left, index), x.data, x.right);
+        }
+        if(index > leftSize){
+            return balance(x.left, x.data, removeAt(x.right, index - leftSize - 1));
+        }
+        return concat(x.left, x.right);
+    }
+}
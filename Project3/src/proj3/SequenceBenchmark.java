@@ -0,0 +1,662 @@
+package proj3;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Command line benchmarks for the Sequence and LinkedList classes. These
+ * measure throughput and are too slow (and too machine dependent) to be JUnit
+ * tests; BenchmarkTest only checks that the big operations scale.
+ *
+ * Run with the name of a benchmark and, optionally, the number of elements:
+ *
+ *    java proj3.SequenceBenchmark parallel 10000000
+ *    java proj3.SequenceBenchmark memory 1000000
+ *    java proj3.SequenceBenchmark generic 1000000
+ *    java proj3.SequenceBenchmark primitive 1000000
+ *    java proj3.SequenceBenchmark offheap 1000000
+ *    java proj3.SequenceBenchmark mapped 1000000
+ *    java proj3.SequenceBenchmark binary 1000000
+ *    java proj3.SequenceBenchmark journal 100000
+ *    java proj3.SequenceBenchmark checkpoint 1000000
+ *    java proj3.SequenceBenchmark concurrent 10000000
+ *    java proj3.SequenceBenchmark lockfree 1000000
+ */
+public class SequenceBenchmark
+{
+    private static final int DEFAULT_SIZE = 10000000;
+    private static final int ROUNDS = 5;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    public static void main(String[] args) throws IOException
+    {
+        String benchmark = "parallel";
+        int size = DEFAULT_SIZE;
+        if(args.length > 0){
+            benchmark = args[0];
+        }
+        if(args.length > 1){
+            size = Integer.parseInt(args[1]);
+        }
+
+        switch(benchmark){
+            case "parallel":
+                parallelStreams(size);
+                break;
+            case "memory":
+                memoryFootprint(size);
+                break;
+            case "generic":
+                genericElements(size);
+                break;
+            case "primitive":
+                primitiveElements(size);
+                break;
+            case "offheap":
+                offHeapStrings(size);
+                break;
+            case "mapped":
+                mappedFile(size);
+                break;
+            case "binary":
+                binaryForm(size);
+                break;
+            case "journal":
+                journaling(size);
+                break;
+            case "checkpoint":
+                checkpoints(size);
+                break;
+            case "concurrent":
+                concurrentReads(size);
+                break;
+            case "lockfree":
+                lockFreeList(size);
+                break;
+            default:
+                System.out.println("unknown benchmark: " + benchmark);
+        }
+    }
+
+
+    /**
+     * Compares filter/map/count throughput of Sequence.stream() and
+     * Sequence.parallelStream().
+     * @param size number of elements in the sequence
+     */
+    private static void parallelStreams(int size)
+    {
+        Sequence s = new Sequence(size);
+        for(int i = 0; i < size; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        System.out.printf("filter/map/count over %d elements, %d cores%n",
+                size, Runtime.getRuntime().availableProcessors());
+
+        report("sequential", size, () -> s.stream()
+                .filter(item -> item.length() % 2 == 0)
+                .map(String::hashCode)
+                .count());
+        report("parallel", size, () -> s.parallelStream()
+                .filter(item -> item.length() % 2 == 0)
+                .map(String::hashCode)
+                .count());
+    }
+
+
+    /**
+     * Compares the heap used by each storage engine to hold the same elements,
+     * and how long a full scan of each takes. The strings are created once and
+     * shared, so only the engine's own overhead is counted.
+     * @param size number of elements in each sequence
+     */
+    private static void memoryFootprint(int size)
+    {
+        String[] items = new String[size];
+        for(int i = 0; i < size; i++){
+            items[i] = Integer.toString(i);
+        }
+        System.out.printf("heap per element and scan time over %d elements%n", size);
+
+        for(Sequence.Storage storage: Sequence.Storage.values()){
+            long before = usedMemory();
+            Sequence s = new Sequence(storage);
+            for(String item: items){
+                s.addAfter(item);
+            }
+            long used = usedMemory() - before;
+            System.out.printf("%-12s %6.1f bytes/element%n",
+                    storage, (double) used / size);
+            report("  scan", size, () -> s.stream().filter(item -> item.isEmpty()).count());
+        }
+    }
+
+
+    /**
+     * Compares a cursor scan that parses numbers stored as Strings in a
+     * Sequence with one that reads Integers stored directly in a
+     * GenericSequence.
+     * @param size number of elements in each sequence
+     */
+    private static void genericElements(int size)
+    {
+        Sequence strings = new Sequence(size);
+        GenericSequence<Integer> integers = new GenericSequence<>(size);
+        for(int i = 0; i < size; i++){
+            strings.addAfter(Integer.toString(i));
+            integers.addAfter(i);
+        }
+        System.out.printf("cursor scan summing %d numbers%n", size);
+
+        report("parsed", size, () -> {
+            long sum = 0;
+            for(strings.start(); strings.isCurrent(); strings.advance()){
+                sum += Integer.parseInt(strings.getCurrent());
+            }
+            return sum;
+        });
+        report("generic", size, () -> {
+            long sum = 0;
+            for(integers.start(); integers.isCurrent(); integers.advance()){
+                sum += integers.getCurrent();
+            }
+            return sum;
+        });
+    }
+
+
+    /**
+     * Compares the heap per element and the cursor scan time of numeric IDs
+     * kept as Strings in a Sequence with the same IDs in an IntSequence and
+     * a LongSequence. Here the Strings are counted, since they are what the
+     * primitive sequences save.
+     * @param size number of elements in each sequence
+     */
+    private static void primitiveElements(int size)
+    {
+        System.out.printf("heap per element and cursor scan over %d ids%n", size);
+        stringIds(size);
+        intIds(size);
+        longIds(size);
+    }
+
+
+    /**
+     * Compares a linked Sequence of distinct Strings with an off-heap one:
+     * the heap each needs, how long a full garbage collection takes while it
+     * is alive, and how long contains takes to search it for a missing String.
+     * @param size number of elements in each sequence
+     */
+    private static void offHeapStrings(int size)
+    {
+        System.out.printf("heap, full gc and contains over %d strings%n", size);
+        heapAndGc(Sequence.Storage.LINKED, size);
+        heapAndGc(Sequence.Storage.OFF_HEAP, size);
+    }
+
+
+    /**
+     * Times writing a Sequence to a file, opening the file as a
+     * MappedSequence, reading every element from the mapping, and loading
+     * it back into a Sequence.
+     * @param size number of elements in the sequence
+     * @throws IOException if the temporary file cannot be written
+     */
+    private static void mappedFile(int size) throws IOException
+    {
+        Sequence s = new Sequence();
+        for(int i = 0; i < size; i++){
+            s.addAfter("element " + i);
+        }
+        Path file = Files.createTempFile("sequence", ".seq");
+        try{
+            System.out.printf("mapped file of %d elements%n", size);
+            report("write", size, () -> {
+                try{
+                    MappedSequence.write(s, file);
+                    return file;
+                }catch(IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            });
+            System.out.printf("%-12s %8.1f MB%n", "file", Files.size(file) / 1e6);
+            report("open", size, () -> openMapped(file).size());
+            report("open + scan", size, () -> {
+                long length = 0;
+                for(String item: openMapped(file)){
+                    length += item.length();
+                }
+                return length;
+            });
+            report("load", size, () -> openMapped(file).toSequence());
+        }finally{
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Compares writing a Sequence with toString and with writeTo(DataOutput),
+     * building one from an array of Strings with addAfter and with the bulk
+     * loader readFrom uses, and reading it back with readFrom.
+     * @param size number of elements in the sequence
+     * @throws IOException never, the streams are in memory
+     */
+    private static void binaryForm(int size) throws IOException
+    {
+        Sequence s = new Sequence();
+        for(int i = 0; i < size; i++){
+            s.addAfter("element " + i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeBinary(s, bytes);
+        byte[] binary = bytes.toByteArray();
+        System.out.printf("binary form of %d elements, %.1f MB%n", size, binary.length / 1e6);
+
+        report("toString", size, () -> s.toString().length());
+        report("writeTo", size, () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(binary.length);
+            writeBinary(s, out);
+            return out.size();
+        });
+        String[] items = s.stream().toArray(String[]::new);
+        report("addAfter", size, () -> {
+            Sequence loaded = new Sequence();
+            for(String item: items){
+                loaded.addAfter(item);
+            }
+            return loaded;
+        });
+        report("bulk load", size, () -> SequenceFormat.load(Sequence.Storage.LINKED, size, -1, items));
+        report("readFrom", size, () -> {
+            try{
+                return Sequence.readFrom(new DataInputStream(new BufferedInputStream(new ByteArrayInputStream(binary))));
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+
+    /**
+     * Compares making a queue of changes durable with a JournaledSequence,
+     * committing batches of 1, 64 and 1024 journal records, with rewriting
+     * the whole sequence to a synced file after every 1024 changes. Each
+     * change adds an element at the end, and every other change also takes
+     * one off the front; with the cursor moves, that is two to four records.
+     * @param size number of changes
+     * @throws IOException if the temporary directory cannot be made
+     */
+    private static void journaling(int size) throws IOException
+    {
+        Path directory = Files.createTempDirectory("sequence");
+        try{
+            System.out.printf("%d durable changes%n", size);
+            for(int batch: new int[] {1, 64, 1024}){
+                report("journal " + batch, size, () -> journaledChanges(directory, batch, size));
+            }
+            report("rewrite 1024", size, () -> rewrittenChanges(directory.resolve("snapshot"), 1024, size));
+        }finally{
+            deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Compares an incremental checkpoint of a JournaledSequence after 100
+     * edits in one place, which writes only the segments they changed, with
+     * writing the whole sequence to a synced file, and times restoring the
+     * sequence from its checkpoints.
+     * @param size number of elements in the sequence
+     * @throws IOException if the temporary directory cannot be written
+     */
+    private static void checkpoints(int size) throws IOException
+    {
+        Path directory = Files.createTempDirectory("sequence");
+        JournaledSequence s = JournaledSequence.open(directory, 1024, size, Sequence.Storage.GAP_BUFFER);
+        try{
+            for(int i = 0; i < size; i++){
+                s.addAfter("element " + i);
+            }
+            s.checkpoint();
+            System.out.printf("checkpoints of %d elements%n", size);
+
+            Path file = directory.resolve("full");
+            report("full", size, () -> writeSynced(s, file));
+            report("incremental", size, () -> {
+                for(int i = 0; i < 100; i++){
+                    s.seek(size / 2);
+                    s.addAfter("edit " + i);
+                    s.removeCurrent();
+                }
+                try{
+                    s.checkpoint();
+                }catch(IOException e){
+                    throw new UncheckedIOException(e);
+                }
+                return s.size();
+            });
+            Files.delete(file);
+            report("restore", size, () -> {
+                try{
+                    JournaledSequence restored = JournaledSequence.open(directory);
+                    restored.close();
+                    return restored.size();
+                }catch(IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }finally{
+            s.close();
+            deleteDirectory(directory);
+        }
+    }
+
+
+    /**
+     * Compares the read throughput (getCurrent and size) of a
+     * ConcurrentSequence, whose reads are optimistic and take no lock, with
+     * that of a Sequence read under a shared synchronized lock, on 1, 2, 4...
+     * threads, up to twice the number of cores.
+     * @param size number of reads, shared out among the threads
+     */
+    private static void concurrentReads(int size)
+    {
+        ConcurrentSequence concurrent = new ConcurrentSequence();
+        Sequence synced = new Sequence();
+        for(int i = 0; i < 1000; i++){
+            concurrent.addAfter("element " + i);
+            synced.addAfter("element " + i);
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d reads, %d cores%n", size, cores);
+
+        for(int threads = 1; threads <= Math.max(4, 2 * cores); threads *= 2){
+            int each = size / threads;
+            report("synchronized " + threads, size, onThreads(threads, () -> {
+                long read = 0;
+                for(int i = 0; i < each; i++){
+                    synchronized(synced){
+                        read += synced.size() + synced.getCurrent().length();
+                    }
+                }
+                return read;
+            }));
+            report("stamped " + threads, size, onThreads(threads, () -> {
+                long read = 0;
+                for(int i = 0; i < each; i++){
+                    read += concurrent.size() + concurrent.getCurrent().length();
+                }
+                return read;
+            }));
+        }
+    }
+
+
+    /**
+     * Compares the throughput of a ConcurrentLinkedList with that of a LinkedList
+     * under a shared synchronized lock, on 1, 2, 4... threads, up to twice the
+     * number of cores. Each round a thread appends an element, inserts another at
+     * the head, looks the first up and removes both, so the list stays short and
+     * the changes dominate.
+     * @param size number of rounds, shared out among the threads
+     */
+    private static void lockFreeList(int size)
+    {
+        ConcurrentLinkedList lockFree = new ConcurrentLinkedList();
+        LinkedList synced = new LinkedList();
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d rounds of 5 operations, %d cores%n", size, cores);
+
+        for(int threads = 1; threads <= Math.max(4, 2 * cores); threads *= 2){
+            int each = size / threads;
+            AtomicInteger ids = new AtomicInteger();
+            report("synchronized " + threads, size, onThreads(threads, () -> {
+                String end = "end " + ids.getAndIncrement();
+                String head = "head " + end;
+                long found = 0;
+                for(int i = 0; i < each; i++){
+                    synchronized(synced){
+                        synced.insertAtEnd(end);
+                        synced.insertAtHead(head);
+                        if(synced.containsData(end)){
+                            found++;
+                        }
+                        synced.removeGivenString(end);
+                        synced.removeGivenString(head);
+                    }
+                }
+                return found;
+            }));
+            report("lock-free " + threads, size, onThreads(threads, () -> {
+                String end = "end " + ids.getAndIncrement();
+                String head = "head " + end;
+                long found = 0;
+                for(int i = 0; i < each; i++){
+                    lockFree.insertAtEnd(end);
+                    lockFree.insertAtHead(head);
+                    if(lockFree.containsData(end)){
+                        found++;
+                    }
+                    lockFree.removeGivenString(end);
+                    lockFree.removeGivenString(head);
+                }
+                return found;
+            }));
+        }
+    }
+
+
+    //PRIVATE HELPER METHODS
+    /**
+     * @return a run that does work on the given number of threads at once,
+     * and adds up what they return
+     */
+    private static Supplier<Object> onThreads(int threads, LongSupplier work)
+    {
+        return () -> {
+            long[] results = new long[threads];
+            Thread[] running = new Thread[threads];
+            for(int i = 0; i < threads; i++){
+                int thread = i;
+                running[i] = new Thread(() -> results[thread] = work.getAsLong());
+                running[i].start();
+            }
+            long total = 0;
+            for(int i = 0; i < threads; i++){
+                try{
+                    running[i].join();
+                }catch(InterruptedException e){
+                    throw new IllegalStateException(e);
+                }
+                total += results[i];
+            }
+            return total;
+        };
+    }
+
+    private static int journaledChanges(Path directory, int batch, int size)
+    {
+        try{
+            deleteDirectory(directory);
+            JournaledSequence s = JournaledSequence.open(directory, batch);
+            for(int i = 0; i < size; i++){
+                queueChange(s, i);
+            }
+            s.close();
+            return s.size();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int rewrittenChanges(Path file, int batch, int size)
+    {
+        Sequence s = new Sequence();
+        for(int i = 0; i < size; i++){
+            queueChange(s, i);
+            if(i % batch == batch - 1 || i == size - 1){
+                writeSynced(s, file);
+            }
+        }
+        return s.size();
+    }
+
+    private static int writeSynced(Sequence s, Path file)
+    {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            s.writeTo(channel);
+            channel.force(true);
+            return s.size();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void queueChange(Sequence s, int i)
+    {
+        s.end();
+        s.addAfter("job " + i);
+        if(i % 2 == 1){
+            s.start();
+            s.removeCurrent();
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException
+    {
+        if(!Files.exists(directory)){
+            return;
+        }
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)){
+            for(Path file: files){
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static void writeBinary(Sequence s, ByteArrayOutputStream bytes)
+    {
+        try{
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes));
+            s.writeTo(out);
+            out.flush();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedSequence openMapped(Path file)
+    {
+        try{
+            return MappedSequence.open(file);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void heapAndGc(Sequence.Storage storage, int size)
+    {
+        long before = usedMemory();
+        Sequence s = new Sequence(storage);
+        for(int i = 0; i < size; i++){
+            s.addAfter("element " + i);
+        }
+        System.out.printf("%-12s %6.1f bytes/element%n", storage, (double) (usedMemory() - before) / size);
+        report("  full gc", size, () -> {
+            System.gc();
+            return s.size();
+        });
+        report("  contains", size, () -> s.contains("missing"));
+    }
+
+    // one method per sequence, so each is garbage before the next is measured
+    private static void stringIds(int size)
+    {
+        long before = usedMemory();
+        Sequence s = new Sequence();
+        for(int i = 0; i < size; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        System.out.printf("%-12s %6.1f bytes/element%n", "Sequence", (double) (usedMemory() - before) / size);
+        report("  scan", size, () -> {
+            long sum = 0;
+            for(s.start(); s.isCurrent(); s.advance()){
+                sum += Integer.parseInt(s.getCurrent());
+            }
+            return sum;
+        });
+    }
+
+    private static void intIds(int size)
+    {
+        long before = usedMemory();
+        IntSequence s = new IntSequence();
+        for(int i = 0; i < size; i++){
+            s.addAfter(i);
+        }
+        System.out.printf("%-12s %6.1f bytes/element%n", "IntSequence", (double) (usedMemory() - before) / size);
+        report("  scan", size, () -> {
+            long sum = 0;
+            for(s.start(); s.isCurrent(); s.advance()){
+                sum += s.getCurrent();
+            }
+            return sum;
+        });
+    }
+
+    private static void longIds(int size)
+    {
+        long before = usedMemory();
+        LongSequence s = new LongSequence();
+        for(long i = 0; i < size; i++){
+            s.addAfter(i);
+        }
+        System.out.printf("%-12s %6.1f bytes/element%n", "LongSequence", (double) (usedMemory() - before) / size);
+        report("  scan", size, () -> {
+            long sum = 0;
+            for(s.start(); s.isCurrent(); s.advance()){
+                sum += s.getCurrent();
+            }
+            return sum;
+        });
+    }
+
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < ROUNDS; i++){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String name, int size, Supplier<Object> run)
+    {
+        run.get(); // warm up
+        long best = Long.MAX_VALUE;
+        for(int i = 0; i < ROUNDS; i++){
+            long start = System.nanoTime();
+            run.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-12s %8.1f ms  %12.0f elements/s%n",
+                name, best / 1e6, size * NANOS_PER_SECOND / best);
+    }
+}
@@ -0,0 +1,668 @@
+package proj3;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The incremental checkpoints of a JournaledSequence. The sequence is cut
+ * into segments of about SEGMENT_SIZE elements, and this class is told of
+ * every edit, so it knows which segments have changed since the last
+ * checkpoint. A checkpoint writes only those, one after another, to a new
+ * delta file, then a manifest that lists every segment in order and where
+ * it is kept. Restoring reads the manifest and puts the segments back
+ * together: the base, written by the first checkpoint, and the deltas
+ * written by later ones compose into the sequence. So a checkpoint costs
+ * the changed segments plus a manifest entry per segment, not the whole
+ * sequence.
+ *
+ * Files, for checkpoint n (all numbers big-endian, as DataOutput writes them):
+ *
+ *    manifest.n   MAGIC, VERSION, storage, capacity, current, size, then the
+ *                 number of delta files in use and, for each, its checkpoint
+ *                 and length (a long each), then the number of segments and,
+ *                 for each in order, its delta file and offset (longs), and
+ *                 its length and number of elements (ints)
+ *    delta.n      the segments written at checkpoint n, back to back, each
+ *                 as its elements in the blocks of SequenceFormat
+ *
+ * A delta file is kept as long as the newest manifest uses any segment in
+ * it. If, after writing its changes, a checkpoint finds that the delta files
+ * in use hold more than twice the bytes of the segments in use, it also
+ * copies every segment from the older files into its own delta file, which
+ * becomes the new base, and the old files all go. So the files never hold
+ * much more than twice the sequence, and the copying is paid for by the
+ * changes written since the last base.
+ *
+ * Invariants of the SequenceCheckpoint class:
+ *  1. The counts of segments add up to size, and no count is 0.
+ *  2. A segment whose file is NOT_WRITTEN has changed since the last checkpoint.
+ *     Otherwise its elements are the bytes at offset in delta.file.
+ *  3. deltaBytes has the length of every delta file that a segment is in.
+ *  4. If there are segments, hintStart is the position of the first element
+ *     of segments[hint]; edits are usually near the last one, so the search
+ *     for the segment of an edit starts there.
+ */
+final class SequenceCheckpoint
+{
+    private static final int MAGIC = 0x53455143; // "SEQC"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_SIZE = 1024;
+    private static final long NOT_WRITTEN = -1;
+    private static final int NEW_BASE_RATIO = 2;
+    private static final long NEW_BASE_MIN_BYTES = 1 << 16;
+    private static final String MANIFEST = "manifest.";
+    private static final String DELTA = "delta.";
+    private static final String TEMPORARY = ".tmp";
+    private static final int START = 0;
+
+    private final List<Segment> segments;
+    private final Map<Long, Long> deltaBytes;
+    private Sequence.Storage storage;
+    private int capacity;
+    private int current;
+    private int size;
+    private int hint;
+    private int hintStart;
+
+    private static final class Segment
+    {
+        private int count;
+        private long file;
+        private long offset;
+        private int bytes;
+
+        Segment(int count)
+        {
+            this.count = count;
+            this.file = NOT_WRITTEN;
+        }
+    }
+
+
+    /**
+     * Creates the checkpoint state of a new, empty sequence, which has never
+     * been written.
+     */
+    SequenceCheckpoint(Sequence.Storage storage, int capacity)
+    {
+        this.segments = new ArrayList<>();
+        this.deltaBytes = new HashMap<>();
+        this.storage = storage;
+        this.capacity = capacity;
+        this.current = -1;
+    }
+
+
+    /**
+     * reads the manifest of checkpoint generation in directory, without reading its segments
+     */
+    static SequenceCheckpoint read(Path directory, long generation) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(directory.resolve(MANIFEST + generation))))){
+            int magic = in.readInt();
+            int version = in.readInt();
+            int storage = in.readInt();
+            if(magic != MAGIC || version != VERSION){
+                throw new IOException("not a checkpoint manifest");
+            }
+            if(storage < 0 || storage >= Sequence.Storage.values().length){
+                throw new IOException("corrupt checkpoint manifest");
+            }
+            SequenceCheckpoint checkpoint = new SequenceCheckpoint(Sequence.Storage.values()[storage], in.readInt());
+            checkpoint.current = in.readInt();
+            int size = in.readInt();
+            int files = in.readInt();
+            for(int i = 0; i < files; i++){
+                checkpoint.deltaBytes.put(in.readLong(), in.readLong());
+            }
+            int segments = in.readInt();
+            for(int i = 0; i < segments; i++){
+                Segment segment = new Segment(0);
+                segment.file = in.readLong();
+                segment.offset = in.readLong();
+                segment.bytes = in.readInt();
+                segment.count = in.readInt();
+                if(segment.count <= 0 || segment.bytes < 0 || !checkpoint.deltaBytes.containsKey(segment.file)){
+                    throw new IOException("corrupt checkpoint manifest");
+                }
+                checkpoint.segments.add(segment);
+                checkpoint.size += segment.count;
+            }
+            if(checkpoint.size != size || checkpoint.capacity < size
+                    || checkpoint.current < -1 || checkpoint.current >= size){
+                throw new IOException("corrupt checkpoint manifest");
+            }
+            return checkpoint;
+        }
+    }
+
+
+    /**
+     * @return the generation of the newest whole manifest in directory, or
+     * none if it has none
+     */
+    static long newest(Path directory, long none) throws IOException
+    {
+        long newest = none;
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, MANIFEST + "*")){
+            for(Path file: files){
+                newest = Math.max(newest, generationOf(file, MANIFEST));
+            }
+        }
+        return newest;
+    }
+
+
+    /**
+     * @return the storage engine of the sequence, as of the last checkpoint
+     */
+    Sequence.Storage storage()
+    {
+        return this.storage;
+    }
+
+
+    /**
+     * @return the capacity of the sequence, as of the last checkpoint
+     */
+    int capacity()
+    {
+        return this.capacity;
+    }
+
+
+    /**
+     * @return the current index of the sequence, as of the last checkpoint
+     */
+    int current()
+    {
+        return this.current;
+    }
+
+
+    /**
+     * reads every segment, in order, composing the elements of the sequence
+     */
+    String[] readElements(Path directory) throws IOException
+    {
+        String[] items = new String[this.size];
+        Map<Long, FileChannel> channels = new HashMap<>();
+        try{
+            int start = START;
+            for(Segment segment: this.segments){
+                FileChannel channel = channels.get(segment.file);
+                if(channel == null){
+                    channel = FileChannel.open(directory.resolve(DELTA + segment.file));
+                    channels.put(segment.file, channel);
+                }
+                ByteBuffer bytes = ByteBuffer.allocate(segment.bytes);
+                while(bytes.hasRemaining()){
+                    if(channel.read(bytes, segment.offset + bytes.position()) < 0){
+                        throw new IOException("delta." + segment.file + " is too short");
+                    }
+                }
+                SequenceFormat.readElements(new DataInputStream(new ByteArrayInputStream(bytes.array())),
+                        items, start, start + segment.count);
+                start += segment.count;
+            }
+        }finally{
+            for(FileChannel channel: channels.values()){
+                channel.close();
+            }
+        }
+        return items;
+    }
+
+
+    /**
+     * an element was inserted at index
+     */
+    void inserted(int index)
+    {
+        if(this.segments.isEmpty()){
+            this.segments.add(new Segment(0));
+        }
+        Segment segment = find(index, true);
+        segment.count++;
+        segment.file = NOT_WRITTEN;
+        this.size++;
+        if(segment.count > 2 * SEGMENT_SIZE){
+            Segment half = new Segment(segment.count / 2);
+            segment.count -= half.count;
+            this.segments.add(this.hint + 1, half);
+        }
+    }
+
+
+    /**
+     * the element at index was removed
+     */
+    void removed(int index)
+    {
+        Segment segment = find(index, false);
+        segment.count--;
+        segment.file = NOT_WRITTEN;
+        this.size--;
+        if(segment.count == 0){
+            removeHint();
+        }
+    }
+
+
+    /**
+     * count elements were added at the end
+     */
+    void appended(int count)
+    {
+        this.size += count;
+        if(count > 0 && !this.segments.isEmpty()){
+            Segment last = this.segments.get(this.segments.size() - 1);
+            int added = Math.min(count, SEGMENT_SIZE - last.count);
+            if(added > 0){
+                last.count += added;
+                last.file = NOT_WRITTEN;
+                count -= added;
+            }
+        }
+        while(count > 0){
+            Segment segment = new Segment(Math.min(count, SEGMENT_SIZE));
+            this.segments.add(segment);
+            count -= segment.count;
+        }
+    }
+
+
+    /**
+     * the element at index and every one after it were removed
+     */
+    void truncated(int index)
+    {
+        if(index >= this.size){
+            return;
+        }
+        Segment segment = find(index, false);
+        this.segments.subList(this.hint + 1, this.segments.size()).clear();
+        segment.count = index - this.hintStart;
+        segment.file = NOT_WRITTEN;
+        this.size = index;
+        if(segment.count == 0){
+            removeHint();
+        }
+    }
+
+
+    /**
+     * every element was removed
+     */
+    void cleared()
+    {
+        this.segments.clear();
+        this.size = 0;
+        this.hint = START;
+        this.hintStart = START;
+    }
+
+
+    /**
+     * Writes the segments that changed since the last checkpoint to
+     * delta.generation, then manifest.generation, each synced before the
+     * manifest is renamed into place. Once this returns, read(directory,
+     * generation) gives back sequence, and the files from older checkpoints
+     * can go (see deleteUnused). If it throws, nothing written to
+     * delta.generation is trusted, so generation can be tried again.
+     * Precondition: sequence is the one this checkpoint has been told the edits of
+     */
+    void write(Path directory, long generation, Sequence sequence) throws IOException
+    {
+        Map<Long, Long> lastDeltaBytes = new HashMap<>(this.deltaBytes);
+        try{
+            writeFiles(directory, generation, sequence);
+        }catch(Throwable e){
+            forget(generation, lastDeltaBytes);
+            throw e;
+        }
+    }
+
+
+    /**
+     * deletes the manifests older than generation, and the delta files no
+     * segment is in any more, including ones left by a checkpoint that did
+     * not finish
+     */
+    void deleteUnused(Path directory, long generation) throws IOException
+    {
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)){
+            for(Path file: files){
+                String name = file.getFileName().toString();
+                if((name.startsWith(MANIFEST) && generationOf(file, MANIFEST) < generation)
+                        || (name.startsWith(DELTA) && !this.deltaBytes.containsKey(generationOf(file, DELTA)))){
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * @return the generation in a file name such as journal.3, or -1 if it
+     * has none (such as a half written manifest.3.tmp)
+     */
+    static long generationOf(Path file, String prefix)
+    {
+        try{
+            return Long.parseLong(file.getFileName().toString().substring(prefix.length()));
+        }catch(NumberFormatException e){
+            return -1;
+        }
+    }
+
+
+    //PRIVATE HELPER METHODS
+    /**
+     * the work of write: the delta file, a new base if needed, and the manifest
+     */
+    private void writeFiles(Path directory, long generation, Sequence sequence) throws IOException
+    {
+        this.storage = sequence.getStorage();
+        this.capacity = sequence.getCapacity();
+        this.current = sequence.getCurrentIndex();
+        mergeChanged();
+        writeDelta(directory, generation, sequence, false);
+        forgetUnused();
+        if(needsNewBase()){
+            for(Segment segment: this.segments){
+                if(segment.file != generation){
+                    segment.file = NOT_WRITTEN;
+                }
+            }
+            mergeChanged();
+            writeDelta(directory, generation, sequence, true);
+            forgetUnused();
+        }
+
+        Path temporary = directory.resolve(MANIFEST + generation + TEMPORARY);
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            writeManifest(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(MANIFEST + generation), StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(directory);
+    }
+
+
+    /**
+     * undoes a write of generation that failed part way: the segments it wrote
+     * count as changed again, and the delta files are as they were before it,
+     * so trying generation again can replace delta.generation from the start
+     */
+    private void forget(long generation, Map<Long, Long> lastDeltaBytes)
+    {
+        for(Segment segment: this.segments){
+            if(segment.file == generation){
+                segment.file = NOT_WRITTEN;
+            }
+        }
+        this.deltaBytes.clear();
+        this.deltaBytes.putAll(lastDeltaBytes);
+    }
+
+
+    /**
+     * Moves the hint to the segment with the element at index, or for an
+     * insertion, a segment that index is in or just after.
+     * Precondition: there are segments, and index < size (index <= size if inserting)
+     * @return the segment, which is now segments[hint]
+     */
+    private Segment find(int index, boolean inserting)
+    {
+        while(index < this.hintStart){
+            this.hint--;
+            this.hintStart -= this.segments.get(this.hint).count;
+        }
+        Segment segment = this.segments.get(this.hint);
+        while(index > this.hintStart + segment.count
+                || (!inserting && index == this.hintStart + segment.count)){
+            this.hintStart += segment.count;
+            this.hint++;
+            segment = this.segments.get(this.hint);
+        }
+        return segment;
+    }
+
+
+    /**
+     * removes segments[hint], which has become empty, and keeps the hint on a segment
+     */
+    private void removeHint()
+    {
+        this.segments.remove(this.hint);
+        if(this.hint == this.segments.size() && this.hint > START){
+            this.hint--;
+            this.hintStart -= this.segments.get(this.hint).count;
+        }
+    }
+
+
+    /**
+     * forgets the lengths of the delta files no segment is in any more
+     */
+    private void forgetUnused()
+    {
+        Set<Long> inUse = new HashSet<>();
+        for(Segment segment: this.segments){
+            inUse.add(segment.file);
+        }
+        this.deltaBytes.keySet().retainAll(inUse);
+    }
+
+
+    /**
+     * Precondition: every segment has been written
+     * @return true if the delta files in use are mostly segments that have since changed
+     */
+    private boolean needsNewBase()
+    {
+        long used = 0;
+        for(Segment segment: this.segments){
+            used += segment.bytes;
+        }
+        long kept = 0;
+        for(long bytes: this.deltaBytes.values()){
+            kept += bytes;
+        }
+        return kept > NEW_BASE_RATIO * used + NEW_BASE_MIN_BYTES;
+    }
+
+
+    /**
+     * joins neighbouring changed segments that fit in one, so that removals
+     * do not leave many small segments behind
+     */
+    private void mergeChanged()
+    {
+        List<Segment> merged = new ArrayList<>(this.segments.size());
+        for(Segment segment: this.segments){
+            Segment last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if(last != null && last.file == NOT_WRITTEN && segment.file == NOT_WRITTEN
+                    && last.count + segment.count <= SEGMENT_SIZE){
+                last.count += segment.count;
+            }else{
+                merged.add(segment);
+            }
+        }
+        this.segments.clear();
+        this.segments.addAll(merged);
+        this.hint = START;
+        this.hintStart = START;
+    }
+
+
+    /**
+     * writes the changed segments to delta.generation, if there are any
+     * @param append true to add them after what this checkpoint has already
+     * written there, false to replace anything left by a checkpoint that did not finish
+     */
+    private void writeDelta(Path directory, long generation, Sequence sequence, boolean append) throws IOException
+    {
+        FileChannel channel = null;
+        try{
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            ByteBuffer buffer = SequenceFormat.newBuffer();
+            long offset = append ? this.deltaBytes.getOrDefault(generation, 0L) : 0;
+            SequenceStorage.Cursor<String> cursor = null;
+            int start = START;
+            for(Segment segment: this.segments){
+                if(segment.file == NOT_WRITTEN){
+                    if(channel == null){
+                        channel = FileChannel.open(directory.resolve(DELTA + generation), StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE);
+                        if(!append){
+                            channel.truncate(0);
+                        }
+                        channel.position(offset);
+                    }
+                    bytes.reset();
+                    buffer.clear();
+                    cursor = moveTo(sequence, cursor, start);
+                    SequenceFormat.writeElements(new SegmentIterator(cursor, segment.count), buffer, out);
+                    ByteBuffer written = ByteBuffer.wrap(bytes.toByteArray());
+                    while(written.hasRemaining()){
+                        channel.write(written);
+                    }
+                    segment.file = generation;
+                    segment.offset = offset;
+                    segment.bytes = bytes.size();
+                    offset += segment.bytes;
+                }
+                start += segment.count;
+            }
+            if(channel != null){
+                channel.force(true);
+                this.deltaBytes.put(generation, offset);
+            }
+        }finally{
+            if(channel != null){
+                channel.close();
+            }
+        }
+    }
+
+
+    /**
+     * Brings a cursor to the element at index, by moving cursor forward or by
+     * asking the sequence for a new one, whichever takes fewer steps. With
+     * LINKED and UNROLLED storage, cursorAt walks from the nearer end, so
+     * moving on from the last segment written keeps the walks of one delta
+     * to O(n) in all, instead of O(n) per segment.
+     * Precondition: cursor is null or before index
+     * @return the cursor at index, which may be cursor itself
+     */
+    private static SequenceStorage.Cursor<String> moveTo(Sequence sequence, SequenceStorage.Cursor<String> cursor,
+            int index)
+    {
+        int jump = 1; // about what cursorAt costs with the other engines
+        if(sequence.getStorage() == Sequence.Storage.LINKED || sequence.getStorage() == Sequence.Storage.UNROLLED){
+            jump = Math.min(index, sequence.size() - index);
+        }
+        if(cursor == null || index - cursor.index() > jump){
+            return sequence.cursorAt(index);
+        }
+        while(cursor.index() < index){
+            cursor.next();
+        }
+        return cursor;
+    }
+
+
+    private void writeManifest(DataOutputStream out) throws IOException
+    {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(this.storage.ordinal());
+        out.writeInt(this.capacity);
+        out.writeInt(this.current);
+        out.writeInt(this.size);
+        out.writeInt(this.deltaBytes.size());
+        for(Map.Entry<Long, Long> file: this.deltaBytes.entrySet()){
+            out.writeLong(file.getKey());
+            out.writeLong(file.getValue());
+        }
+        out.writeInt(this.segments.size());
+        for(Segment segment: this.segments){
+            out.writeLong(segment.file);
+            out.writeLong(segment.offset);
+            out.writeInt(segment.bytes);
+            out.writeInt(segment.count);
+        }
+    }
+
+
+    /**
+     * makes a rename in directory durable; not every platform can open a
+     * directory, and those that cannot have no need to
+     */
+    private static void syncDirectory(Path directory)
+    {
+        try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)){
+            channel.force(true);
+        }catch(IOException e){
+            // the rename is still made, it just may not survive a power loss
+        }
+    }
+
+
+    /**
+     * the elements of one segment, read with a cursor of the sequence
+     */
+    private static class SegmentIterator implements Iterator<String>
+    {
+        private final SequenceStorage.Cursor<String> cursor;
+        private int remaining;
+
+        SegmentIterator(SequenceStorage.Cursor<String> cursor, int count)
+        {
+            this.cursor = cursor;
+            this.remaining = count;
+        }
+
+        public boolean hasNext()
+        {
+            return this.remaining > 0;
+        }
+
+        public String next()
+        {
+            String item = this.cursor.get();
+            this.remaining--;
+            if(this.remaining > 0){
+                this.cursor.next();
+            }
+            return item;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package proj3;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * The binary form of a Sequence, read and written by Sequence.writeTo and
+ * Sequence.readFrom. All numbers are big-endian ints, as DataOutput writes them:
+ *
+ *    header    MAGIC, VERSION, storage, capacity, current, size
+ *    blocks    until size elements have been read: a byte count, then that
+ *              many bytes of whole elements
+ *    element   length, then length bytes of UTF-8 (see LosslessUtf8, which
+ *              keeps lone surrogates); a length of NULL_LENGTH is a null
+ *              element with no bytes
+ *
+ * Every element carries its own length, so commas and any other characters
+ * are kept exactly, and a reader never has to search for where one ends.
+ * Blocks are up to BLOCK_BYTES long, unless they hold one element that is
+ * longer, so the elements are written and read a whole block per call
+ * instead of a few bytes per call, and a reader never reads past the end.
+ *
+ * Readers collect the elements into an array, then lay them all into a new
+ * storage at once (see SequenceStorage.appendAll(T[])), instead of adding
+ * them one at a time with addAfter.
+ *
+ * The blocks without the header (writeElements and readElements) are also
+ * how the segments of an incremental checkpoint are kept (see
+ * SequenceCheckpoint).
+ */
+final class SequenceFormat
+{
+    private static final int MAGIC = 0x53455153; // "SEQS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+    private static final int NULL_LENGTH = -1;
+    private static final int BLOCK_BYTES = 1 << 16;
+    private static final int DEFAULT_CURRENT = -1;
+
+    private SequenceFormat()
+    {
+    }
+
+
+    /**
+     * writes a sequence to out, a block at a time
+     */
+    static void write(Sequence sequence, DataOutput out) throws IOException
+    {
+        ByteBuffer buffer = newBuffer();
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(sequence.getStorage().ordinal())
+                .putInt(sequence.getCapacity()).putInt(sequence.getCurrentIndex()).putInt(sequence.size());
+        writeElements(sequence.iterator(), buffer, out);
+    }
+
+
+    /**
+     * @return a buffer for writeElements, with room for a header before the first block
+     */
+    static ByteBuffer newBuffer()
+    {
+        return ByteBuffer.allocate(HEADER_BYTES + Integer.BYTES + BLOCK_BYTES);
+    }
+
+
+    /**
+     * Writes elements to out in blocks, after whatever buffer already holds
+     * (such as a header).
+     * Precondition: buffer came from newBuffer(), and holds at most HEADER_BYTES
+     */
+    static void writeElements(Iterator<String> items, ByteBuffer buffer, DataOutput out) throws IOException
+    {
+        int blockStart = buffer.position();
+        buffer.putInt(0);
+        while(items.hasNext()){
+            String item = items.next();
+            if(item == null){
+                if(buffer.remaining() < Integer.BYTES){
+                    blockStart = writeBlock(buffer, blockStart, out);
+                }
+                buffer.putInt(NULL_LENGTH);
+                continue;
+            }
+            byte[] bytes = LosslessUtf8.encode(item);
+            if(buffer.remaining() < Integer.BYTES + bytes.length){
+                blockStart = writeBlock(buffer, blockStart, out);
+            }
+            if(Integer.BYTES + bytes.length > BLOCK_BYTES){
+                out.writeInt(Integer.BYTES + bytes.length);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }else{
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+        writeBlock(buffer, blockStart, out);
+    }
+
+
+    /**
+     * reads a sequence written by write(Sequence, DataOutput), reading exactly its bytes
+     */
+    static Sequence read(DataInput in) throws IOException
+    {
+        byte[] bytes = new byte[HEADER_BYTES];
+        in.readFully(bytes);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        int magic = header.getInt();
+        int version = header.getInt();
+        int storage = header.getInt();
+        int capacity = header.getInt();
+        int current = header.getInt();
+        int size = header.getInt();
+        if(magic != MAGIC || version != VERSION){
+            throw new IOException("not a serialized sequence");
+        }
+        if(storage < 0 || storage >= Sequence.Storage.values().length || size < 0 || capacity < size
+                || current < DEFAULT_CURRENT || current >= size){
+            throw new IOException("corrupt sequence header");
+        }
+
+        String[] items = new String[size];
+        readElements(in, items, 0, size);
+        return load(Sequence.Storage.values()[storage], capacity, current, items);
+    }
+
+
+    /**
+     * reads elements written by writeElements into items[from] to items[to - 1],
+     * reading exactly their bytes
+     */
+    static void readElements(DataInput in, String[] items, int from, int to) throws IOException
+    {
+        byte[] block = new byte[0];
+        int i = from;
+        while(i < to){
+            int blockBytes = in.readInt();
+            if(blockBytes < 0){
+                throw new IOException("corrupt block length " + blockBytes);
+            }
+            if(blockBytes > block.length){
+                block = new byte[blockBytes];
+            }
+            in.readFully(block, 0, blockBytes);
+            ByteBuffer elements = ByteBuffer.wrap(block, 0, blockBytes);
+            while(elements.hasRemaining() && i < to){
+                if(elements.remaining() < Integer.BYTES){
+                    throw new IOException("corrupt block");
+                }
+                int length = elements.getInt();
+                if(length != NULL_LENGTH){
+                    if(length < 0 || length > elements.remaining()){
+                        throw new IOException("corrupt element length " + length);
+                    }
+                    items[i] = LosslessUtf8.decode(block, elements.position(), length);
+                    elements.position(elements.position() + length);
+                }
+                i++;
+            }
+        }
+    }
+
+
+    /**
+     * Builds a sequence from its elements in one pass: the elements are laid into
+     * a new storage together, and the sequence is made around that storage.
+     * Precondition: items.length <= capacity, and -1 <= current < items.length
+     * @return the new sequence
+     */
+    static Sequence load(Sequence.Storage storage, int capacity, int current, String[] items)
+    {
+        SequenceStorage<String> holder = SequenceStorage.create(storage, capacity);
+        holder.appendAll(items);
+        return new Sequence(holder, storage, capacity, current);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    /**
+     * fills in the byte count of the block that starts at blockStart, writes
+     * everything in the buffer, and starts a new block
+     * @return where the new block starts
+     */
+    private static int writeBlock(ByteBuffer buffer, int blockStart, DataOutput out) throws IOException
+    {
+        int blockBytes = buffer.position() - blockStart - Integer.BYTES;
+        if(blockBytes > 0){
+            buffer.putInt(blockStart, blockBytes);
+            out.write(buffer.array(), 0, buffer.position());
+        }else if(blockStart > 0){
+            out.write(buffer.array(), 0, blockStart);
+        }
+        buffer.clear();
+        buffer.limit(Integer.BYTES + BLOCK_BYTES);
+        buffer.putInt(0);
+        return 0;
+    }
+}
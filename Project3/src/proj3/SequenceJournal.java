@@ -0,0 +1,247 @@
+package proj3;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The write-ahead log file behind a JournaledSequence. Records are collected
+ * in memory and written in batches, each batch with one sequential write and
+ * one fsync (group commit), so many changes share the cost of a single sync.
+ *
+ * The file is a list of frames, one per batch:
+ *
+ *    frame   payload length, CRC32 of the payload (2 ints), then the payload,
+ *            the records of the batch back to back
+ *
+ * A crash can leave the last frame half written. The checksum catches it,
+ * and replay stops before it and cuts it off, so only whole batches are
+ * ever replayed.
+ */
+final class SequenceJournal implements Closeable
+{
+    private static final int FRAME_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int EMPTY = 0;
+
+    private final FileChannel channel;
+    private final Batch pending;
+    private final DataOutputStream records;
+    private final int batchRecords;
+    private int pendingRecords;
+
+    /**
+     * reads the records of every whole batch in a journal, in order
+     */
+    interface Replayer
+    {
+        /**
+         * @param records the records of one batch; reading past the last one gives EOF
+         */
+        void replay(DataInputStream records) throws IOException;
+    }
+
+
+    /**
+     * Opens a journal file for appending, creating it if needed.
+     * Precondition: the file holds only whole frames (see replay)
+     * @param file the journal file
+     * @param batchRecords how many records to collect before each commit
+     */
+    SequenceJournal(Path file, int batchRecords) throws IOException
+    {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE), batchRecords);
+    }
+
+
+    /**
+     * Appends to a journal through a channel already open for writing, which
+     * the journal then owns and closes.
+     * Precondition: the channel holds only whole frames (see replay)
+     * @param channel the journal file
+     * @param batchRecords how many records to collect before each commit
+     */
+    SequenceJournal(FileChannel channel, int batchRecords) throws IOException
+    {
+        this.channel = channel;
+        this.channel.position(this.channel.size());
+        this.pending = new Batch();
+        this.records = new DataOutputStream(this.pending);
+        this.batchRecords = batchRecords;
+    }
+
+
+    /**
+     * @return where to write the next record; call recorded() once it is written
+     */
+    DataOutputStream records()
+    {
+        return this.records;
+    }
+
+
+    /**
+     * @return the length of the batch so far, to pass to discard if the next
+     * record is not finished
+     */
+    int mark()
+    {
+        return this.pending.size();
+    }
+
+
+    /**
+     * drops whatever was written to records() since mark() returned length,
+     * such as the record of a change that failed
+     */
+    void discard(int length)
+    {
+        this.pending.truncate(length);
+    }
+
+
+    /**
+     * counts one more record in the batch, and commits the batch once it is full
+     */
+    void recorded() throws IOException
+    {
+        this.pendingRecords++;
+        if(this.pendingRecords >= this.batchRecords){
+            commit();
+        }
+    }
+
+
+    /**
+     * Writes the batch so far as one frame and waits for it to reach the disk.
+     * If that fails, whatever part of the frame was written is cut off again
+     * and the batch is kept, so the next commit writes it right after the
+     * last whole frame, and replay neither stops at the failed frame (losing
+     * the batches after it) nor replays the batch twice.
+     */
+    void commit() throws IOException
+    {
+        if(this.pendingRecords == EMPTY){
+            return;
+        }
+        byte[] payload = this.pending.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        long frameStart = this.channel.position();
+        try{
+            while(frame.hasRemaining()){
+                this.channel.write(frame);
+            }
+            this.channel.force(false);
+        }catch(IOException e){
+            cutOff(frameStart, e);
+            throw e;
+        }
+        this.pending.reset();
+        this.pendingRecords = EMPTY;
+    }
+
+
+    /**
+     * commits the last batch and closes the file
+     */
+    public void close() throws IOException
+    {
+        try{
+            commit();
+        }finally{
+            this.channel.close();
+        }
+    }
+
+
+    /**
+     * Hands the records of every whole frame of a journal to replayer, and
+     * cuts off anything after the last whole frame. Does nothing if the
+     * file does not exist.
+     * @param file the journal file
+     * @param replayer what to do with the records of each frame
+     */
+    static void replay(Path file, Replayer replayer) throws IOException
+    {
+        if(!Files.exists(file)){
+            return;
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            long valid = EMPTY;
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+            while(readFully(channel, header, valid)){
+                int length = header.getInt(0);
+                if(length < 0 || valid + FRAME_HEADER_BYTES + length > channel.size()){
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(channel, payload, valid + FRAME_HEADER_BYTES);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if((int) crc.getValue() != header.getInt(Integer.BYTES)){
+                    break;
+                }
+                replayer.replay(new DataInputStream(new ByteArrayInputStream(payload.array())));
+                valid += FRAME_HEADER_BYTES + length;
+            }
+            if(valid < channel.size()){
+                channel.truncate(valid);
+                channel.force(false);
+            }
+        }
+    }
+
+
+    //PRIVATE HELPER METHODS
+    /**
+     * the bytes of the records collected so far, which can be cut back
+     */
+    private static final class Batch extends ByteArrayOutputStream
+    {
+        void truncate(int length)
+        {
+            this.count = length;
+        }
+    }
+
+    /**
+     * truncates the journal back to frameStart after a failed commit; if even
+     * that fails, the reason is added to failure
+     */
+    private void cutOff(long frameStart, IOException failure)
+    {
+        try{
+            this.channel.truncate(frameStart);
+            this.channel.position(frameStart);
+        }catch(IOException e){
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * fills buffer from the given position of the channel
+     * @return false if the channel ended first
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        buffer.clear();
+        while(buffer.hasRemaining()){
+            int read = channel.read(buffer, position + buffer.position());
+            if(read < 0){
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,317 @@
+package proj3;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A storage engine behind a Sequence. The Sequence keeps the capacity and the
+ * copy-on-write bookkeeping, and asks its storage for a Cursor to point at the
+ * current element. Each engine decides how elements are laid out in memory and
+ * how cheaply a Cursor can move, insert and remove.
+ *
+ * Cursors belong to a single Sequence, while a storage may be shared by several
+ * Sequences after clone(). A shared storage is only read; it is copied before
+ * any change (see Sequence.copyOnWrite), so cursors of other Sequences on it
+ * stay valid. The Sequences sharing a storage may be used on different threads
+ * (see ConcurrentSequence.toSequence), so sharers is counted atomically.
+ *
+ * Invariants of the SequenceStorage class:
+ *  1. The elements are at positions 0 to size()-1, in order.
+ *  2. sharers = number of Sequences holding this storage, minus one.
+ */
+abstract class SequenceStorage<T> implements Iterable<T>
+{
+    private final int EMPTY = 0;
+
+    private final AtomicInteger sharers = new AtomicInteger(EMPTY);
+
+    /**
+     * A position on one element of a storage.
+     */
+    interface Cursor<T>
+    {
+        /**
+         * @return the position of the element under the cursor
+         */
+        int index();
+
+        /**
+         * @return the element under the cursor
+         */
+        T get();
+
+        /**
+         * moves the cursor onto the following element
+         * @return false if there was no following element (the cursor must not be used again)
+         */
+        boolean next();
+
+        /**
+         * moves the cursor onto the previous element
+         * @return false if there was no previous element (the cursor must not be used again)
+         */
+        boolean previous();
+
+        /**
+         * @return a new cursor on the same element that moves independently of this one
+         */
+        Cursor<T> copy();
+    }
+
+
+    /**
+     * A cursor that is only a position, for engines that can get an element
+     * by its position cheaply. It reads through get(index).
+     */
+    class IndexCursor implements Cursor<T>
+    {
+        private int index;
+
+        IndexCursor(int index)
+        {
+            this.index = index;
+        }
+
+        public int index()
+        {
+            return this.index;
+        }
+
+        public T get()
+        {
+            return SequenceStorage.this.get(this.index);
+        }
+
+        public boolean next()
+        {
+            this.index++;
+            return this.index < size();
+        }
+
+        public boolean previous()
+        {
+            this.index--;
+            return this.index >= EMPTY;
+        }
+
+        public Cursor<T> copy()
+        {
+            return new IndexCursor(this.index);
+        }
+    }
+
+
+    /**
+     * Creates an empty storage engine of the given type.
+     * @param type which engine to create
+     * @param initialCapacity the capacity of the Sequence that will hold it
+     * @return the new storage
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SequenceStorage<T> create(GenericSequence.Storage type, int initialCapacity)
+    {
+        switch(type){
+            case ARRAY:
+                return new ArrayStorage<>(initialCapacity);
+            case GAP_BUFFER:
+                return new GapBufferStorage<>(initialCapacity);
+            case UNROLLED:
+                return new UnrolledStorage<>();
+            case SKIP_LIST:
+                return new SkipListStorage<>();
+            case ROPE:
+                return new RopeStorage<>();
+            case OFF_HEAP:
+                return (SequenceStorage<T>) new OffHeapStorage(initialCapacity);
+            default:
+                return new LinkedStorage<>();
+        }
+    }
+
+
+    /**
+     * @return the number of elements in the storage
+     */
+    abstract int size();
+
+    /**
+     * Precondition: 0 <= index < size()
+     * @param index position of an element
+     * @return a cursor on the element at the given position
+     */
+    abstract Cursor<T> cursorAt(int index);
+
+    /**
+     * Precondition: 0 <= index < size()
+     * @param index position of an element
+     * @return the element at the given position
+     */
+    T get(int index)
+    {
+        return cursorAt(index).get();
+    }
+
+    /**
+     * inserts a new element in front of the cursor's element, or at the start if cursor is null
+     * @param cursor a cursor of this storage, or null; it must not be used afterwards
+     * @param value the element to insert
+     * @return a cursor on the new element
+     */
+    abstract Cursor<T> insertBefore(Cursor<T> cursor, T value);
+
+    /**
+     * inserts a new element after the cursor's element, or at the end if cursor is null
+     * @param cursor a cursor of this storage, or null; it must not be used afterwards
+     * @param value the element to insert
+     * @return a cursor on the new element
+     */
+    abstract Cursor<T> insertAfter(Cursor<T> cursor, T value);
+
+    /**
+     * removes the cursor's element
+     * @param cursor a cursor of this storage; it must not be used afterwards
+     * @return a cursor on the element that followed the removed one, or null if there was none
+     */
+    abstract Cursor<T> remove(Cursor<T> cursor);
+
+    /**
+     * removes every element
+     */
+    abstract void clear();
+
+    /**
+     * @return an unshared storage of the same type with the same elements
+     */
+    abstract SequenceStorage<T> copy();
+
+
+    /**
+     * appends copies of all the elements of another storage at the end of this one.
+     * The other storage is left unchanged, and may be this storage.
+     * @param other the storage whose elements to append
+     */
+    void appendAll(SequenceStorage<T> other)
+    {
+        if(other == this){
+            other = copy();
+        }
+        for(T item: other){
+            insertAfter(null, item);
+        }
+    }
+
+
+    /**
+     * appends the given elements at the end of this storage. Engines that can
+     * lay out a whole run of elements at once override it, so that loading a
+     * storage is a single pass.
+     * @param items the elements to append, in order
+     */
+    void appendAll(T[] items)
+    {
+        for(T item: items){
+            insertAfter(null, item);
+        }
+    }
+
+
+    /**
+     * moves the elements from position index to the end into another storage,
+     * appending them after its elements.
+     * Precondition: 0 <= index < size(), and tail is not this storage
+     * @param index position of the first element to move
+     * @param tail the storage to move them into
+     */
+    void splitOff(int index, SequenceStorage<T> tail)
+    {
+        Cursor<T> cursor = cursorAt(index);
+        do{
+            tail.insertAfter(null, cursor.get());
+        }while(cursor.next());
+        while(size() > index){
+            remove(cursorAt(size() - 1));
+        }
+    }
+
+
+    /**
+     * @param value the element to look for, may be null
+     * @return true iff some element is equal to value
+     */
+    boolean contains(T value)
+    {
+        for(T item: this){
+            if(Objects.equals(item, value)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Precondition: other.size() == size()
+     * @param other the storage to compare with
+     * @return true iff both storages have equal elements in the same order
+     */
+    boolean sameElements(SequenceStorage<T> other)
+    {
+        Iterator<T> otherItems = other.iterator();
+        for(T item: this){
+            if(!Objects.equals(item, otherItems.next())){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Makes room for at least minCapacity elements, for engines where capacity is real.
+     * @param minCapacity the capacity of the Sequence
+     */
+    void ensureCapacity(int minCapacity)
+    {
+    }
+
+
+    /**
+     * Gives back any room beyond size(), for engines where capacity is real.
+     */
+    void trimToSize()
+    {
+    }
+
+
+    /**
+     * records that one more Sequence holds this storage (copy-on-write clones)
+     */
+    void share()
+    {
+        this.sharers.incrementAndGet();
+    }
+
+
+    /**
+     * @return true iff more than one Sequence holds this storage
+     */
+    boolean isShared()
+    {
+        return this.sharers.get() > EMPTY;
+    }
+
+
+    /**
+     * records that one of the Sequences holding this storage has let go of it.
+     * Two Sequences may both find the storage shared and copy it at once; only
+     * the first of them to let go counts, so sharers never drops below zero.
+     */
+    void unshare()
+    {
+        int count = this.sharers.get();
+        while(count > EMPTY && !this.sharers.compareAndSet(count, count - 1)){
+            count = this.sharers.get();
+        }
+    }
+}
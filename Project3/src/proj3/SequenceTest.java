@@ -6,12 +6,36 @@ import org.junit.*;
 import org.junit.rules.Timeout;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
 
 public class SequenceTest {
 
     @Rule //a test will fail if it takes longer than 1/10 of a second to run
     public Timeout timeout = Timeout.millis(100);
 
+    /**
+     * The storage engine the sequences in these tests use. Subclasses
+     * override it to run every test against another engine.
+     * @return the storage engine to test
+     */
+    protected Sequence.Storage storage(){
+        return Sequence.Storage.LINKED;
+    }
+
     /**
      * Creates a new sequence (default with an initial capacity of 10).
      * The final element added to the Sequence is the new current.
@@ -19,7 +43,7 @@ public class SequenceTest {
      * @return the new sequence
      */
     private Sequence makeSequence(String[] items){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         for(String item: items){
             s.addBefore(item);
         }
@@ -33,7 +57,7 @@ public class SequenceTest {
      * @return the new sequence
      */
     private Sequence makeSequence(String[] items, int initialCapacity){
-        Sequence s = new Sequence(initialCapacity);
+        Sequence s = new Sequence(initialCapacity, storage());
         for(int i = 0; i < items.length; i++){
             s.addBefore(items[i]);
         }
@@ -69,7 +93,7 @@ public class SequenceTest {
 
     @Test //should return false because there is no current
     public void testIsCurrentEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertFalse(s.isCurrent());
     }
 
@@ -82,7 +106,7 @@ public class SequenceTest {
 
     @Test //should return true because current created after addBefore
     public void testIsCurrentAddBefore(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(-1, s.getCurrentIndex());
         s.addBefore("A");
         assertTrue(s.isCurrent());
@@ -91,7 +115,7 @@ public class SequenceTest {
 
     @Test //should return true because current created after addAfter
     public void testIsCurrentAddAfter(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(-1, s.getCurrentIndex());
         s.addAfter("A");
         assertTrue(s.isCurrent());
@@ -112,7 +136,7 @@ public class SequenceTest {
 
     @Test //size should increment by 1 and current should become 0
     public void testAddBeforeNoCurrent(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(-1, s.getCurrentIndex());
         assertEquals(0, s.size());
         s.addBefore("A");
@@ -169,7 +193,7 @@ public class SequenceTest {
 
     @Test //size should increment by 1, current should become 0
     public void testAddAfterNoCurrent(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(-1, s.getCurrentIndex());
         assertEquals(0, s.size());
         s.addAfter("A");
@@ -218,7 +242,7 @@ public class SequenceTest {
 
     @Test
     public void testToStringDefaultEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals("{} (capacity = 10)", s.toString());
     }
 
@@ -231,7 +255,7 @@ public class SequenceTest {
 
     @Test
     public void testToStringNonDefaultEmpty(){
-        Sequence s = new Sequence(20);
+        Sequence s = new Sequence(20, storage());
         assertEquals("{} (capacity = 20)", s.toString());
     }
 
@@ -244,6 +268,35 @@ public class SequenceTest {
     }
 
 
+    @Test //writeTo gives the same output as toString
+    public void testWriteTo() throws IOException {
+        String[] items = {"A", "B", "C", "D", "E"};
+        Sequence s = makeSequence(items, 20);
+        advanceCurrent(s, 2);
+        StringBuilder out = new StringBuilder();
+        s.writeTo(out);
+        assertEquals(s.toString(), out.toString());
+    }
+
+    @Test //only the first 2 elements are written, the rest become "..."
+    public void testWriteToTruncated() throws IOException {
+        String[] items = {"A", "B", "C", "D", "E"};
+        Sequence s = makeSequence(items, 20);
+        s.advance();
+        StringBuilder out = new StringBuilder();
+        s.writeTo(out, 2);
+        assertEquals("{E, >D, ...} (capacity = 20)", out.toString());
+    }
+
+    @Test //nothing is left out, so no "..."
+    public void testWriteToNotTruncated() throws IOException {
+        String[] items = {"A", "B"};
+        Sequence s = makeSequence(items);
+        StringBuilder out = new StringBuilder();
+        s.writeTo(out, 2);
+        assertEquals("{>B, A} (capacity = 10)", out.toString());
+    }
+
     @Test //should return the capacity of the sequence
     public void testGetCapacity(){
         String[] items = {"A", "B", "C", "D", "E"};
@@ -261,7 +314,7 @@ public class SequenceTest {
 
     @Test //returns null since no current
     public void testGetCurrentNone(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertNull(s.getCurrent());
     }
 
@@ -312,15 +365,72 @@ public class SequenceTest {
 
     @Test //no change to current
     public void testAdvanceNoCurrent(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(-1, s.getCurrentIndex());
         s.advance();
         assertEquals(-1, s.getCurrentIndex());
     }
 
+    @Test //current decrements by 1
+    public void testRetreatMiddle(){
+        String[] items = {"A", "B", "C"};
+        Sequence s = makeSequence(items);
+        advanceCurrent(s, 2);
+        s.retreat();
+        assertEquals(1, s.getCurrentIndex());
+        assertEquals("B", s.getCurrent());
+    }
+
+    @Test //current becomes -1 when retreating from the start
+    public void testRetreatStart(){
+        String[] items = {"A", "B", "C"};
+        Sequence s = makeSequence(items);
+        s.retreat();
+        assertEquals(-1, s.getCurrentIndex());
+        assertNull(s.getCurrent());
+    }
+
+    @Test //no change to current
+    public void testRetreatNoCurrent(){
+        Sequence s = new Sequence(storage());
+        s.retreat();
+        assertEquals(-1, s.getCurrentIndex());
+    }
+
+    @Test //no current on an empty sequence
+    public void testEndEmpty(){
+        Sequence s = new Sequence(storage());
+        s.end();
+        assertEquals(-1, s.getCurrentIndex());
+    }
+
+    @Test //current becomes the last element, then walks backward to the start
+    public void testEndRetreatToStart(){
+        String[] items = {"A", "B", "C"};
+        Sequence s = makeSequence(items);
+        s.end();
+        assertEquals(2, s.getCurrentIndex());
+        assertEquals("A", s.getCurrent());
+        s.retreat();
+        s.retreat();
+        assertEquals(0, s.getCurrentIndex());
+        assertEquals("C", s.getCurrent());
+    }
+
+    @Test //removing the last element from the end keeps the tail linked for addAfter
+    public void testEndRemoveCurrentAddAfter(){
+        String[] items = {"A", "B", "C"};
+        Sequence s = makeSequence(items);
+        s.end();
+        s.removeCurrent();
+        s.addAfter("X");
+        assertEquals(2, s.getCurrentIndex());
+        assertEquals("{C, B, >X} (capacity = 10)", s.toString());
+    }
+
     @Test //equal but not same object
     public void testCloneEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         Sequence s2 = s.clone();
         assertTrue(s.equals(s2));
         assertTrue(s2.equals(s));
@@ -337,9 +447,87 @@ public class SequenceTest {
         assertNotSame(s, s2);
     }
 
+    @Test //changes to the clone do not affect the original, and the clone keeps the current
+    public void testCloneIndependent(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        s.advance();
+        Sequence s2 = s.clone();
+        assertEquals("B", s2.getCurrent());
+        s2.removeCurrent();
+        s2.addAfter("X");
+        assertEquals("{A, >B, C} (capacity = 10)", s.toString());
+        assertEquals("{A, C, >X} (capacity = 10)", s2.toString());
+    }
+
+    @Test //changes to the original after cloning do not affect the clone
+    public void testCloneThenChangeOriginal(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        Sequence s2 = s.clone();
+        s.removeCurrent();
+        s.addBefore("X");
+        assertEquals("{>X, B, C} (capacity = 10)", s.toString());
+        assertEquals("{>A, B, C} (capacity = 10)", s2.toString());
+    }
+
+    @Test //growing, trimming or filling the original copies it first, so clones being read are left alone
+    public void testCloneThenResizeOriginal(){
+        Sequence s = new Sequence(4, storage());
+        for(int i = 0; i < 4; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        s.seek(1);
+        Sequence beforeGrow = s.clone();
+        Iterator<String> beforeGrowItems = beforeGrow.iterator();
+        beforeGrowItems.next();
+        s.ensureCapacity(20);
+        s.removeCurrent();
+        Sequence beforeTrim = s.clone();
+        Iterator<String> beforeTrimItems = beforeTrim.iterator();
+        beforeTrimItems.next();
+        s.trimToSize();
+        Sequence beforeAdd = s.clone();
+        Iterator<String> beforeAddItems = beforeAdd.iterator();
+        beforeAddItems.next();
+        s.addBefore("X");
+
+        assertEquals("1", beforeGrow.getCurrent());
+        assertEquals("2", beforeTrim.getCurrent());
+        assertEquals("2", beforeAdd.getCurrent());
+        beforeGrow.advance();
+        beforeTrim.advance();
+        beforeAdd.advance();
+        assertEquals("2", beforeGrow.getCurrent());
+        assertEquals("3", beforeTrim.getCurrent());
+        assertEquals("3", beforeAdd.getCurrent());
+        assertEquals("1", beforeGrowItems.next());
+        assertEquals("2", beforeTrimItems.next());
+        assertEquals("2", beforeAddItems.next());
+        assertEquals("{0, 1, >2, 3} (capacity = 4)", beforeGrow.toString());
+        assertEquals("{0, 2, >3} (capacity = 20)", beforeTrim.toString());
+        assertEquals("{0, 2, >3} (capacity = 3)", beforeAdd.toString());
+        assertEquals("{0, >X, 2, 3} (capacity = 7)", s.toString());
+    }
+
+    @Test //clones of clones stay independent of each other, and moving the cursor is not a change
+    public void testCloneOfClone(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        Sequence s2 = s.clone();
+        Sequence s3 = s2.clone();
+        s2.advance();
+        s2.addAfter("X");
+        s3.clear();
+        s.end();
+        assertEquals("{A, B, >C} (capacity = 10)", s.toString());
+        assertEquals("{A, B, >X, C} (capacity = 10)", s2.toString());
+        assertEquals("{} (capacity = 10)", s3.toString());
+    }
+
     @Test //size 0, sequence is empty
     public void testSizeEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(0, s.size());
     }
 
@@ -352,7 +540,7 @@ public class SequenceTest {
 
     @Test //no change, no current
     public void testStartEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(-1, s.getCurrentIndex());
         s.start();
         assertEquals(-1, s.getCurrentIndex());
@@ -378,9 +566,68 @@ public class SequenceTest {
         assertEquals(0, s.getCurrentIndex());
     }
 
+    @Test //current moved to the given position, reading continues from there
+    public void testSeek(){
+        String[] items = {"E", "D", "C", "B", "A"};
+        Sequence s = makeSequence(items, 20);
+        s.seek(3);
+        assertEquals(3, s.getCurrentIndex());
+        assertEquals("D", s.getCurrent());
+        s.retreat();
+        assertEquals("C", s.getCurrent());
+        s.seek(0);
+        s.addBefore("Z");
+        assertEquals("{>Z, A, B, C, D, E} (capacity = 20)", s.toString());
+    }
+
+    @Test //current and later elements moved to a new sequence
+    public void testSplit(){
+        String[] items = {"E", "D", "C", "B", "A"};
+        Sequence s = makeSequence(items, 20);
+        s.seek(2);
+        Sequence tail = s.split();
+        assertEquals("{A, B} (capacity = 20)", s.toString());
+        assertEquals("{>C, D, E} (capacity = 20)", tail.toString());
+        s.end();
+        s.addAll(tail);
+        assertEquals("{A, >B, C, D, E} (capacity = 20)", s.toString());
+        assertEquals("{>C, D, E} (capacity = 20)", tail.toString());
+    }
+
+    @Test //split of a clone leaves the original whole
+    public void testSplitClone(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items, 20);
+        Sequence copy = s.clone();
+        copy.split();
+        assertEquals(0, copy.size());
+        assertEquals("{>A, B, C} (capacity = 20)", s.toString());
+    }
+
+    @Test //no current, nothing split off
+    public void testSplitNoCurrent(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items, 20);
+        advanceCurrent(s, 3);
+        Sequence tail = s.split();
+        assertTrue(tail.isEmpty());
+        assertEquals(3, s.size());
+    }
+
+    @Test //no element at the position, no current
+    public void testSeekOutOfRange(){
+        String[] items = {"A", "B", "C"};
+        Sequence s = makeSequence(items, 20);
+        s.seek(3);
+        assertFalse(s.isCurrent());
+        s.seek(-1);
+        assertFalse(s.isCurrent());
+        new Sequence(storage()).seek(0);
+    }
+
     @Test //capacity changed to 0, empty sequence
     public void testTrimToSizeEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(0, s.size());
         assertEquals(10, s.getCapacity());
         s.trimToSize();
@@ -399,7 +646,7 @@ public class SequenceTest {
 
     @Test //returns true, sequence is empty
     public void testIsEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertTrue(s.isEmpty());
     }
 
@@ -420,7 +667,7 @@ public class SequenceTest {
 
     @Test //no change, empty sequence
     public void testClearEmpty(){
-        Sequence s = new Sequence(30);
+        Sequence s = new Sequence(30, storage());
         assertEquals(30, s.getCapacity());
         assertEquals(0, s.size());
         assertEquals(-1, s.getCurrentIndex());
@@ -445,7 +692,7 @@ public class SequenceTest {
 
     @Test //no change, no current item to remove
     public void testRemoveCurrentEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         assertEquals(0, s.size());
         s.removeCurrent();
         assertEquals(0, s.size());
@@ -502,9 +749,9 @@ public class SequenceTest {
 
     @Test //returns true, empties are equal
     public void testEqualsEmpties(){
-        Sequence s = new Sequence();
-        Sequence s2 = new Sequence();
-        Sequence s3 = new Sequence(20);
+        Sequence s = new Sequence(storage());
+        Sequence s2 = new Sequence(storage());
+        Sequence s3 = new Sequence(20, storage());
         assertTrue(s.equals(s2));
         assertTrue(s2.equals(s));
         assertTrue(s.equals(s3));
@@ -514,7 +761,7 @@ public class SequenceTest {
 
     @Test //returns false, one empty and one nonempty sequence (different sizes)
     public void testEqualsEmptyNonEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         String[] items = {"C", "B", "A"};
         Sequence s2 = makeSequence(items, 25);
         assertFalse(s.equals(s2));
@@ -587,8 +834,8 @@ public class SequenceTest {
 
     @Test //no change
     public void testAddAllEmptyToEmpty(){
-        Sequence s = new Sequence();
-        Sequence s2 = new Sequence();
+        Sequence s = new Sequence(storage());
+        Sequence s2 = new Sequence(storage());
         assertEquals(0, s.size());
         assertEquals(-1, s.getCurrentIndex());
         s.addAll(s2);
@@ -601,7 +848,7 @@ public class SequenceTest {
     public void testAddAllEmptyToNonEmpty(){
         String[] items = {"B", "A"};
         Sequence s = makeSequence(items);
-        Sequence s2 = new Sequence();
+        Sequence s2 = new Sequence(storage());
         assertEquals(2, s.size());
         assertEquals(0, s.getCurrentIndex());
         s.addAll(s2);
@@ -616,7 +863,7 @@ public class SequenceTest {
 
     @Test //size increase, current no change
     public void testAddAllNonEmptyToEmpty(){
-        Sequence s = new Sequence();
+        Sequence s = new Sequence(storage());
         String[] items = {"B", "A"};
         Sequence s2 = makeSequence(items);
         assertEquals(0, s.size());
@@ -691,6 +938,263 @@ public class SequenceTest {
     }
 
 
+    @Test //addAfter inserts at the cursor, not after the first equal string
+    public void testAddAfterDuplicates(){
+        String[] items = {"A", "A", "A"};
+        Sequence s = makeSequence(items);
+        advanceCurrent(s, 2);
+        s.addAfter("X");
+        assertEquals(3, s.getCurrentIndex());
+        assertEquals("{A, A, A, >X} (capacity = 10)", s.toString());
+    }
+
+    @Test //walking the whole sequence with the cursor visits every element in order (BenchmarkTest checks it is linear)
+    public void testCursorScanLarge(){
+        Sequence s = new Sequence(storage());
+        for(int i = 0; i < 5000; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        s.start();
+        int count = 0;
+        while(s.isCurrent()){
+            assertEquals(Integer.toString(count), s.getCurrent());
+            s.advance();
+            count++;
+        }
+        assertEquals(5000, count);
+    }
+
+    @Test //removing in the middle keeps the cursor on the following element
+    public void testRemoveCurrentThenAddBefore(){
+        String[] items = {"D", "C", "B", "A"};
+        Sequence s = makeSequence(items);
+        advanceCurrent(s, 2);
+        s.removeCurrent();
+        assertEquals("D", s.getCurrent());
+        s.addBefore("X");
+        assertEquals(2, s.getCurrentIndex());
+        assertEquals("{A, B, >X, D} (capacity = 10)", s.toString());
+    }
+
+
+    @Test //the added elements are copies, so changing this sequence leaves the other unchanged
+    public void testAddAllNoSideEffects(){
+        String[] items = {"B", "A"};
+        Sequence s = makeSequence(items);
+        String[] items2 = {"D", "C"};
+        Sequence s2 = makeSequence(items2);
+        s.addAll(s2);
+        s.end();
+        s.removeCurrent();
+        s.addAfter("X");
+        assertEquals("{A, B, C, >X} (capacity = 10)", s.toString());
+        assertEquals("{>C, D} (capacity = 10)", s2.toString());
+    }
+
+    @Test //adding a sequence to itself doubles it
+    public void testAddAllSelf(){
+        String[] items = {"B", "A"};
+        Sequence s = makeSequence(items);
+        s.addAll(s);
+        assertEquals(4, s.size());
+        assertEquals("{>A, B, A, B} (capacity = 10)", s.toString());
+    }
+
+    @Test //contains finds elements, including null, without moving the current
+    public void testContains(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        assertTrue(s.contains("A"));
+        assertTrue(s.contains("C"));
+        assertFalse(s.contains("D"));
+        assertFalse(s.contains(null));
+        s.addAfter(null);
+        assertTrue(s.contains(null));
+        assertEquals(1, s.getCurrentIndex());
+    }
+
+    /**
+     * Writes a sequence with writeTo(DataOutput) and reads it back.
+     * @param s the sequence to write
+     * @return the sequence read back
+     */
+    private Sequence roundTrip(Sequence s) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.writeTo(new DataOutputStream(bytes));
+        return Sequence.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test //the binary form keeps elements with commas, nulls, the current element, capacity and engine
+    public void testWriteReadBinary() throws IOException {
+        String[] items = {"", null, "a, b", "}", "B"};
+        Sequence s = makeSequence(items, 7);
+        s.advance();
+        s.advance();
+        Sequence read = roundTrip(s);
+        assertTrue(s.equals(read));
+        assertEquals(7, read.getCapacity());
+        assertEquals(storage(), read.getStorage());
+        assertEquals(s.toString(), read.toString());
+        read.addAfter("X");
+        assertEquals(5, s.size());
+    }
+
+    @Test //an empty sequence and one with no current element come back the same
+    public void testWriteReadBinaryNoCurrent() throws IOException {
+        Sequence empty = roundTrip(new Sequence(storage()));
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.isCurrent());
+        assertEquals(10, empty.getCapacity());
+
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        s.end();
+        s.advance();
+        Sequence read = roundTrip(s);
+        assertFalse(read.isCurrent());
+        read.addBefore("Z");
+        assertEquals("{>Z, A, B, C} (capacity = 10)", read.toString());
+    }
+
+    @Test //an element longer than a block is written as a block of its own
+    public void testWriteReadLargeElement() throws IOException {
+        String large = "x".repeat(70000);
+        String[] items = {"C", large, "A"};
+        Sequence s = makeSequence(items);
+        Sequence read = roundTrip(s);
+        assertTrue(s.equals(read));
+        read.start();
+        read.advance();
+        assertEquals(large, read.getCurrent());
+    }
+
+    @Test //unpaired surrogates are written and read back unchanged, not as '?'
+    public void testWriteReadUnpairedSurrogate() throws IOException {
+        String[] items = {"smile \ud83d\ude00", "x\ud83d", "\udc00", "a\ud800b"};
+        Sequence read = roundTrip(makeSequence(items));
+        for(int i = items.length - 1; i >= 0; i--){
+            assertEquals(items[i], read.getCurrent());
+            read.advance();
+        }
+        assertFalse(read.contains("a?b"));
+    }
+
+    @Test //the channel form is the same as the DataOutput form
+    public void testWriteReadChannel() throws IOException {
+        String[] items = {"C", null, "A"};
+        Sequence s = makeSequence(items, 4);
+        ByteArrayOutputStream fromChannel = new ByteArrayOutputStream();
+        s.writeTo(Channels.newChannel(fromChannel));
+        ByteArrayOutputStream fromDataOutput = new ByteArrayOutputStream();
+        s.writeTo(new DataOutputStream(fromDataOutput));
+        assertArrayEquals(fromDataOutput.toByteArray(), fromChannel.toByteArray());
+
+        Sequence read = Sequence.readFrom(Channels.newChannel(new ByteArrayInputStream(fromChannel.toByteArray())));
+        assertTrue(s.equals(read));
+        assertEquals(4, read.getCapacity());
+    }
+
+    @Test //reading from a channel stops just after the sequence, so the next one can be read
+    public void testReadChannelPosition() throws IOException {
+        String[] first = {"B", "A"};
+        String[] second = {"C"};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel written = Channels.newChannel(out);
+        makeSequence(first).writeTo(written);
+        makeSequence(second).writeTo(written);
+
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("{>A, B} (capacity = 10)", Sequence.readFrom(channel).toString());
+        assertEquals("{>C} (capacity = 10)", Sequence.readFrom(channel).toString());
+        assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+    }
+
+    @Test(expected = IOException.class) //bytes that are not a serialized sequence are refused
+    public void testReadNotASequence() throws IOException {
+        byte[] text = "{A, >B, C} (capacity = 5)".getBytes();
+        Sequence.readFrom(new DataInputStream(new ByteArrayInputStream(text)));
+    }
+
+    @Test //iterates over every element in order without moving the current
+    public void testIterator(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        s.advance();
+        StringBuilder seen = new StringBuilder();
+        for(String item: s){
+            seen.append(item);
+        }
+        assertEquals("ABC", seen.toString());
+        assertEquals(1, s.getCurrentIndex());
+    }
+
+    @Test(expected = ConcurrentModificationException.class) //changed while iterating
+    public void testIteratorFailFast(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        for(String item: s){
+            s.addAfter(item);
+        }
+    }
+
+    @Test //stream knows its size and keeps the order
+    public void testStream(){
+        String[] items = {"C", "B", "A"};
+        Sequence s = makeSequence(items);
+        assertTrue(s.spliterator().hasCharacteristics(Spliterator.SIZED));
+        assertTrue(s.spliterator().hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(3, s.spliterator().getExactSizeIfKnown());
+        assertEquals("A-B-C", s.stream().collect(Collectors.joining("-")));
+    }
+
+    @Test //parallel stream gives the same results, in the same order, as the sequential one
+    public void testParallelStream(){
+        Sequence s = new Sequence(storage());
+        for(int i = 0; i < 4000; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        assertEquals(800, s.parallelStream().filter(item -> item.endsWith("0") || item.endsWith("5")).count());
+        assertEquals(s.stream().collect(Collectors.toList()), s.parallelStream().collect(Collectors.toList()));
+    }
+
+    @Test //random edits give the same sequence as the linked storage engine
+    public void testMatchesLinkedStorage(){
+        Sequence s = new Sequence(3, storage());
+        Sequence expected = new Sequence(3, Sequence.Storage.LINKED);
+        Random random = new Random(151);
+
+        for(int i = 0; i < 1000; i++){
+            String item = Integer.toString(random.nextInt(100));
+            switch(random.nextInt(14)){
+                case 0: case 1: s.addBefore(item); expected.addBefore(item); break;
+                case 2: case 3: s.addAfter(item); expected.addAfter(item); break;
+                case 4: s.advance(); expected.advance(); break;
+                case 5: s.retreat(); expected.retreat(); break;
+                case 6: s.start(); expected.start(); break;
+                case 7: s.end(); expected.end(); break;
+                case 8: s.removeCurrent(); expected.removeCurrent(); break;
+                case 9: s = s.clone(); s.addAfter(item); expected.addAfter(item); break;
+                case 10: s.addAll(s.clone()); expected.addAll(expected.clone()); break;
+                case 11:
+                    int index = random.nextInt(s.size() + 2) - 1;
+                    s.seek(index);
+                    expected.seek(index);
+                    break;
+                case 12:
+                    Sequence tail = s.split();
+                    assertEquals(expected.split().toString(), tail.toString());
+                    break;
+                default: s.trimToSize(); expected.trimToSize(); break;
+            }
+            if(s.size() > 100){
+                s.clear();
+                expected.clear();
+            }
+            assertEquals(expected.toString(), s.toString());
+            assertEquals(expected.getCurrent(), s.getCurrent());
+        }
+    }
+
     /**
      * Advances the current of the sequence n times
      * @param s the sequence
@@ -0,0 +1,63 @@
+package proj3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Runs every SequenceTest against the skip list storage engine, plus tests
+ * for positional access through the span counts.
+ */
+public class SkipListSequenceTest extends SequenceTest {
+
+    @Override
+    protected Sequence.Storage storage(){
+        return Sequence.Storage.SKIP_LIST;
+    }
+
+    @Test //every position is found after inserts and removals in random places
+    public void testPositionsAfterRandomEdits(){
+        SkipListStorage<String> storage = new SkipListStorage<>();
+        List<String> expected = new ArrayList<>();
+        Random random = new Random(151);
+        for(int i = 0; i < 2000; i++){
+            String item = Integer.toString(i);
+            int index = random.nextInt(expected.size() + 1);
+            if(index == expected.size()){
+                storage.insertAfter(null, item);
+                expected.add(item);
+            }else if(random.nextInt(3) == 0){
+                storage.remove(storage.cursorAt(index));
+                expected.remove(index);
+            }else{
+                storage.insertBefore(storage.cursorAt(index), item);
+                expected.add(index, item);
+            }
+        }
+
+        for(int i = 0; i < expected.size(); i++){
+            assertEquals(expected.get(i), storage.get(i));
+        }
+    }
+
+    @Test //a copy has the same positions and is independent of the original
+    public void testCopyPositions(){
+        SkipListStorage<String> storage = new SkipListStorage<>();
+        for(int i = 0; i < 500; i++){
+            storage.insertAfter(null, Integer.toString(i));
+        }
+        SequenceStorage<String> copy = storage.copy();
+        copy.remove(copy.cursorAt(0));
+        copy.insertAfter(null, "end");
+
+        for(int i = 0; i < 499; i++){
+            assertEquals(Integer.toString(i + 1), copy.get(i));
+            assertEquals(Integer.toString(i), storage.get(i));
+        }
+        assertEquals("end", copy.get(499));
+        assertEquals(500, storage.size());
+    }
+}
@@ -0,0 +1,357 @@
+package proj3;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Sequence storage in an indexable skip list. Every node is on level 0, and
+ * each level above skips over about four times as many nodes as the one below.
+ * Each link also records its span, the number of level 0 steps it skips, so a
+ * position is found by adding up spans from the top level down. Finding,
+ * inserting and removing at a position are O(log n) expected.
+ *
+ * Ranks count positions from the head sentinel: the head has rank 0 and the
+ * element at index i has rank i+1.
+ *
+ * Invariants of the SkipListStorage class:
+ *  1. Following next[0] from head visits the elements in order; prev is the
+ *     reverse of next[0], with null before the first element.
+ *  2. For every node x on a level i below levels, x.span[i] = rank(x.next[i]) - rank(x),
+ *     or size - rank(x) when x.next[i] is null.
+ *  3. 1 <= levels <= MAX_LEVEL, and head.next[i] is null for every i >= levels.
+ */
+class SkipListStorage<T> extends SequenceStorage<T>
+{
+    private static final int MAX_LEVEL = 32;
+    private static final int LEVEL_RATIO = 4;
+    private final int EMPTY = 0;
+    private final int START = 0;
+
+    private Node<T> head;
+    private int levels;
+    private int size;
+    private int modCount;
+    private final Random random = new Random();
+
+    /**
+     * Creates an empty skip list storage.
+     */
+    SkipListStorage()
+    {
+        this.head = new Node<>(null, MAX_LEVEL);
+        this.levels = 1;
+        this.size = EMPTY;
+    }
+
+
+    private static class Node<T>
+    {
+        private final T data;
+        private final Node<T>[] next;
+        private final int[] span;
+        private Node<T> prev;
+
+        Node(T data, int level)
+        {
+            this.data = data;
+            this.next = newNodes(level);
+            this.span = new int[level];
+        }
+    }
+
+
+    private class NodeCursor implements Cursor<T>
+    {
+        private Node<T> node;
+        private int index;
+
+        NodeCursor(Node<T> node, int index)
+        {
+            this.node = node;
+            this.index = index;
+        }
+
+        public int index()
+        {
+            return this.index;
+        }
+
+        public T get()
+        {
+            return this.node.data;
+        }
+
+        public boolean next()
+        {
+            this.node = this.node.next[START];
+            this.index++;
+            return this.node != null;
+        }
+
+        public boolean previous()
+        {
+            this.node = this.node.prev;
+            this.index--;
+            return this.node != null;
+        }
+
+        public Cursor<T> copy()
+        {
+            return new NodeCursor(this.node, this.index);
+        }
+    }
+
+
+    int size()
+    {
+        return this.size;
+    }
+
+
+    Cursor<T> cursorAt(int index)
+    {
+        int rank = index + 1;
+        Node<T> x = this.head;
+        int traversed = EMPTY;
+        for(int i = this.levels - 1; i >= START; i--){
+            while(x.next[i] != null && traversed + x.span[i] <= rank){
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if(traversed == rank){
+                break;
+            }
+        }
+        return new NodeCursor(x, index);
+    }
+
+
+    Cursor<T> insertBefore(Cursor<T> cursor, T value)
+    {
+        int index = START;
+        if(cursor != null){
+            index = cursor.index();
+        }
+        return new NodeCursor(insertAt(index, value), index);
+    }
+
+
+    Cursor<T> insertAfter(Cursor<T> cursor, T value)
+    {
+        int index = this.size;
+        if(cursor != null){
+            index = cursor.index() + 1;
+        }
+        return new NodeCursor(insertAt(index, value), index);
+    }
+
+
+    Cursor<T> remove(Cursor<T> cursor)
+    {
+        int index = cursor.index();
+        Node<T> following = removeAt(index);
+        if(following == null){
+            return null;
+        }
+        return new NodeCursor(following, index);
+    }
+
+
+    void clear()
+    {
+        this.head = new Node<>(null, MAX_LEVEL);
+        this.levels = 1;
+        this.size = EMPTY;
+        this.modCount++;
+    }
+
+
+    /**
+     * copies the nodes in one pass, giving each copy the same levels as its original
+     */
+    SequenceStorage<T> copy()
+    {
+        SkipListStorage<T> copy = new SkipListStorage<>();
+        Node<T>[] last = newNodes(MAX_LEVEL);
+        int[] lastRank = new int[MAX_LEVEL];
+        for(int i = START; i < this.levels; i++){
+            last[i] = copy.head;
+        }
+
+        int rank = EMPTY;
+        for(Node<T> x = this.head.next[START]; x != null; x = x.next[START]){
+            rank++;
+            Node<T> node = new Node<>(x.data, x.next.length);
+            if(last[START] != copy.head){
+                node.prev = last[START];
+            }
+            for(int i = START; i < node.next.length; i++){
+                last[i].next[i] = node;
+                last[i].span[i] = rank - lastRank[i];
+                last[i] = node;
+                lastRank[i] = rank;
+            }
+        }
+        for(int i = START; i < this.levels; i++){
+            last[i].span[i] = this.size - lastRank[i];
+        }
+        copy.levels = this.levels;
+        copy.size = this.size;
+        return copy;
+    }
+
+
+    public Iterator<T> iterator()
+    {
+        return new SkipListIterator();
+    }
+
+
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(iterator(), this.size, Spliterator.ORDERED);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private class SkipListIterator implements Iterator<T>
+    {
+        private Node<T> nextNode = head.next[START];
+        private int expectedModCount = modCount;
+
+        public boolean hasNext()
+        {
+            return nextNode != null;
+        }
+
+        public T next()
+        {
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextNode == null){
+                throw new NoSuchElementException();
+            }
+            T item = nextNode.data;
+            nextNode = nextNode.next[START];
+            return item;
+        }
+    }
+
+    /**
+     * @return a new array of length references to nodes, all null
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newNodes(int length)
+    {
+        return (Node<T>[]) new Node<?>[length];
+    }
+
+    /**
+     * finds, on every level, the last node before position index
+     * @param update filled with the last node before index on each level
+     * @param rank filled with the rank of each of those nodes
+     */
+    private void findPredecessors(int index, Node<T>[] update, int[] rank)
+    {
+        Node<T> x = this.head;
+        int traversed = EMPTY;
+        for(int i = this.levels - 1; i >= START; i--){
+            while(x.next[i] != null && traversed + x.span[i] <= index){
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+            rank[i] = traversed;
+        }
+    }
+
+    /**
+     * @return the node for the new element, now at position index
+     */
+    private Node<T> insertAt(int index, T value)
+    {
+        Node<T>[] update = newNodes(MAX_LEVEL);
+        int[] rank = new int[MAX_LEVEL];
+        findPredecessors(index, update, rank);
+
+        int level = randomLevel();
+        if(level > this.levels){
+            for(int i = this.levels; i < level; i++){
+                update[i] = this.head;
+                rank[i] = EMPTY;
+                this.head.span[i] = this.size;
+            }
+            this.levels = level;
+        }
+
+        Node<T> node = new Node<>(value, level);
+        for(int i = START; i < level; i++){
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[START] - rank[i]);
+            update[i].span[i] = (rank[START] - rank[i]) + 1;
+        }
+        for(int i = level; i < this.levels; i++){
+            update[i].span[i]++;
+        }
+
+        if(update[START] != this.head){
+            node.prev = update[START];
+        }
+        if(node.next[START] != null){
+            node.next[START].prev = node;
+        }
+        this.size++;
+        this.modCount++;
+        return node;
+    }
+
+    /**
+     * @return the node that followed the removed one, or null if there was none
+     */
+    private Node<T> removeAt(int index)
+    {
+        Node<T>[] update = newNodes(MAX_LEVEL);
+        int[] rank = new int[MAX_LEVEL];
+        findPredecessors(index, update, rank);
+
+        Node<T> target = update[START].next[START];
+        for(int i = START; i < this.levels; i++){
+            if(update[i].next[i] == target){
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            }else{
+                update[i].span[i]--;
+            }
+        }
+
+        Node<T> following = target.next[START];
+        if(following != null){
+            following.prev = target.prev;
+        }
+        while(this.levels > 1 && this.head.next[this.levels - 1] == null){
+            this.levels--;
+        }
+        this.size--;
+        this.modCount++;
+        return following;
+    }
+
+    /**
+     * @return a level between 1 and MAX_LEVEL, where each level is LEVEL_RATIO
+     * times less likely than the one below
+     */
+    private int randomLevel()
+    {
+        int level = 1;
+        while(level < MAX_LEVEL && this.random.nextInt(LEVEL_RATIO) == EMPTY){
+            level++;
+        }
+        return level;
+    }
+}
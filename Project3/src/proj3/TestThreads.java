@@ -0,0 +1,47 @@
+package proj3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Helper for the JUnit tests of the concurrent classes (ConcurrentSequenceTest,
+ * ConcurrentLinkedListTest): runs the same work on several threads at once.
+ */
+final class TestThreads
+{
+    private TestThreads()
+    {
+    }
+
+    /**
+     * runs work on the given number of threads at once, waits for all of them, and
+     * rethrows the first thing any of them threw, so a failed assertion on another
+     * thread fails the test
+     * @param threads how many threads to run the work on
+     * @param work what every thread runs
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    static void run(int threads, Runnable work) throws InterruptedException
+    {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> running = new ArrayList<>();
+        for(int i = 0; i < threads; i++){
+            Thread thread = new Thread(() -> {
+                try{
+                    work.run();
+                }catch(Throwable e){
+                    failure.compareAndSet(null, e);
+                }
+            });
+            running.add(thread);
+            thread.start();
+        }
+        for(Thread thread: running){
+            thread.join();
+        }
+        if(failure.get() != null){
+            throw new AssertionError(failure.get());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package proj3;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Runs every SequenceTest against the unrolled linked list storage engine,
+ * plus tests for splitting and merging its chunks.
+ */
+public class UnrolledSequenceTest extends SequenceTest {
+
+    @Override
+    protected Sequence.Storage storage(){
+        return Sequence.Storage.UNROLLED;
+    }
+
+    @Test //inserting in the middle of full chunks splits them without losing order
+    public void testSplitChunks(){
+        Sequence s = new Sequence(storage());
+        for(int i = 0; i < 200; i++){
+            s.addAfter(Integer.toString(2 * i));
+        }
+        s.start();
+        for(int i = 0; i < 200; i++){
+            s.addAfter(Integer.toString(2 * i + 1));
+            s.advance();
+        }
+
+        s.start();
+        for(int i = 0; i < 400; i++){
+            assertEquals(Integer.toString(i), s.getCurrent());
+            s.advance();
+        }
+        assertFalse(s.isCurrent());
+    }
+
+    @Test //removing most elements merges chunks and keeps the cursor on the next element
+    public void testMergeChunks(){
+        Sequence s = new Sequence(storage());
+        for(int i = 0; i < 300; i++){
+            s.addAfter(Integer.toString(i));
+        }
+        s.start();
+        for(int i = 0; i < 300; i++){
+            if(i % 10 == 0){
+                s.advance();
+            }else{
+                s.removeCurrent();
+            }
+        }
+
+        assertEquals(30, s.size());
+        s.end();
+        assertEquals("290", s.getCurrent());
+        s.retreat();
+        assertEquals("280", s.getCurrent());
+        s.start();
+        assertEquals("0", s.getCurrent());
+    }
+}
@@ -0,0 +1,348 @@
+package proj3;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Sequence storage in an unrolled linked list: a doubly linked list of chunks
+ * that each hold up to CHUNK_CAPACITY elements in a small array. The node
+ * overhead of a LinkedList is paid once per chunk instead of once per element,
+ * and scans read neighbouring elements from the same array.
+ *
+ * A full chunk is split in half when inserting into its middle, and a new chunk
+ * is started when inserting at its end, so appending fills chunks completely.
+ * A chunk that falls below a quarter full after a removal is merged with the
+ * following chunk when both fit in one.
+ *
+ * Invariants of the UnrolledStorage class:
+ *  1. The elements are in head.items[0] to head.items[head.count-1], then the
+ *     next chunk, and so on up to tail; head and tail are null when empty.
+ *  2. Every chunk in the list has 1 <= count <= CHUNK_CAPACITY, and its
+ *     items[count] onward are null.
+ *  3. size = the sum of the counts of the chunks
+ */
+class UnrolledStorage<T> extends SequenceStorage<T>
+{
+    private static final int CHUNK_CAPACITY = 64;
+    private final int EMPTY = 0;
+    private final int START = 0;
+
+    private Chunk head;
+    private Chunk tail;
+    private int size;
+    private int modCount;
+
+    /**
+     * Creates an empty unrolled storage.
+     */
+    UnrolledStorage()
+    {
+        this.head = null;
+        this.tail = null;
+        this.size = EMPTY;
+    }
+
+
+    private static class Chunk
+    {
+        private Object[] items = new Object[CHUNK_CAPACITY];
+        private int count;
+        private Chunk next;
+        private Chunk prev;
+    }
+
+
+    private class ChunkCursor implements Cursor<T>
+    {
+        private Chunk chunk;
+        private int offset;
+        private int index;
+
+        ChunkCursor(Chunk chunk, int offset, int index)
+        {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.index = index;
+        }
+
+        public int index()
+        {
+            return this.index;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get()
+        {
+            return (T) this.chunk.items[this.offset];
+        }
+
+        public boolean next()
+        {
+            this.index++;
+            this.offset++;
+            if(this.offset == this.chunk.count){
+                this.chunk = this.chunk.next;
+                this.offset = START;
+            }
+            return this.chunk != null;
+        }
+
+        public boolean previous()
+        {
+            this.index--;
+            this.offset--;
+            if(this.offset < START){
+                this.chunk = this.chunk.prev;
+                if(this.chunk == null){
+                    return false;
+                }
+                this.offset = this.chunk.count - 1;
+            }
+            return true;
+        }
+
+        public Cursor<T> copy()
+        {
+            return new ChunkCursor(this.chunk, this.offset, this.index);
+        }
+    }
+
+
+    int size()
+    {
+        return this.size;
+    }
+
+
+    Cursor<T> cursorAt(int index)
+    {
+        if(index < this.size / 2){
+            Chunk chunk = this.head;
+            int offset = index;
+            while(offset >= chunk.count){
+                offset -= chunk.count;
+                chunk = chunk.next;
+            }
+            return new ChunkCursor(chunk, offset, index);
+        }
+        Chunk chunk = this.tail;
+        int offset = index - (this.size - chunk.count);
+        while(offset < START){
+            chunk = chunk.prev;
+            offset += chunk.count;
+        }
+        return new ChunkCursor(chunk, offset, index);
+    }
+
+
+    Cursor<T> insertBefore(Cursor<T> cursor, T value)
+    {
+        if(cursor == null){
+            return insertAt(this.head, START, START, value);
+        }
+        ChunkCursor at = (ChunkCursor) cursor;
+        return insertAt(at.chunk, at.offset, at.index, value);
+    }
+
+
+    Cursor<T> insertAfter(Cursor<T> cursor, T value)
+    {
+        if(cursor == null){
+            int offset = START;
+            if(this.tail != null){
+                offset = this.tail.count;
+            }
+            return insertAt(this.tail, offset, this.size, value);
+        }
+        ChunkCursor at = (ChunkCursor) cursor;
+        return insertAt(at.chunk, at.offset + 1, at.index + 1, value);
+    }
+
+
+    Cursor<T> remove(Cursor<T> cursor)
+    {
+        ChunkCursor at = (ChunkCursor) cursor;
+        Chunk chunk = at.chunk;
+        int offset = at.offset;
+
+        System.arraycopy(chunk.items, offset + 1, chunk.items, offset, chunk.count - offset - 1);
+        chunk.count--;
+        chunk.items[chunk.count] = null;
+        this.size--;
+        this.modCount++;
+
+        if(chunk.count == EMPTY){
+            Chunk following = chunk.next;
+            unlink(chunk);
+            chunk = following;
+            offset = START;
+        }else{
+            mergeNext(chunk);
+            if(offset == chunk.count){
+                chunk = chunk.next;
+                offset = START;
+            }
+        }
+        if(chunk == null){
+            return null;
+        }
+        return new ChunkCursor(chunk, offset, at.index);
+    }
+
+
+    void clear()
+    {
+        this.head = null;
+        this.tail = null;
+        this.size = EMPTY;
+        this.modCount++;
+    }
+
+
+    SequenceStorage<T> copy()
+    {
+        UnrolledStorage<T> copy = new UnrolledStorage<>();
+        for(Chunk chunk = this.head; chunk != null; chunk = chunk.next){
+            Chunk chunkCopy = new Chunk();
+            chunkCopy.items = chunk.items.clone();
+            chunkCopy.count = chunk.count;
+            copy.linkAfter(chunkCopy, copy.tail);
+        }
+        copy.size = this.size;
+        return copy;
+    }
+
+
+    public Iterator<T> iterator()
+    {
+        return new UnrolledIterator();
+    }
+
+
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(iterator(), this.size, Spliterator.ORDERED);
+    }
+
+
+    //PRIVATE HELPER METHODS
+    private class UnrolledIterator implements Iterator<T>
+    {
+        private Chunk chunk = head;
+        private int offset = START;
+        private int expectedModCount = modCount;
+
+        public boolean hasNext()
+        {
+            return chunk != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T next()
+        {
+            if(expectedModCount != modCount){
+                throw new ConcurrentModificationException();
+            }
+            if(chunk == null){
+                throw new NoSuchElementException();
+            }
+            T item = (T) chunk.items[offset];
+            offset++;
+            if(offset == chunk.count){
+                chunk = chunk.next;
+                offset = START;
+            }
+            return item;
+        }
+    }
+
+    /**
+     * inserts value at the given offset of chunk (or into a new chunk if chunk
+     * is null), making room first if the chunk is full
+     * @return a cursor on the new element, which is at position index
+     */
+    private Cursor<T> insertAt(Chunk chunk, int offset, int index, T value)
+    {
+        if(chunk == null){
+            chunk = new Chunk();
+            linkAfter(chunk, null);
+        }else if(chunk.count == CHUNK_CAPACITY){
+            Chunk newChunk = new Chunk();
+            linkAfter(newChunk, chunk);
+            if(offset == chunk.count){
+                chunk = newChunk;
+                offset = START;
+            }else{
+                int half = CHUNK_CAPACITY / 2;
+                System.arraycopy(chunk.items, half, newChunk.items, START, chunk.count - half);
+                Arrays.fill(chunk.items, half, chunk.count, null);
+                newChunk.count = chunk.count - half;
+                chunk.count = half;
+                if(offset > half){
+                    chunk = newChunk;
+                    offset -= half;
+                }
+            }
+        }
+        System.arraycopy(chunk.items, offset, chunk.items, offset + 1, chunk.count - offset);
+        chunk.items[offset] = value;
+        chunk.count++;
+        this.size++;
+        this.modCount++;
+        return new ChunkCursor(chunk, offset, index);
+    }
+
+    /**
+     * moves the elements of the chunk after this one into it, if this one is
+     * less than a quarter full and both fit in a single chunk
+     */
+    private void mergeNext(Chunk chunk)
+    {
+        Chunk following = chunk.next;
+        if(following == null || chunk.count >= CHUNK_CAPACITY / 4
+                || chunk.count + following.count > CHUNK_CAPACITY){
+            return;
+        }
+        System.arraycopy(following.items, START, chunk.items, chunk.count, following.count);
+        chunk.count += following.count;
+        unlink(following);
+    }
+
+    /**
+     * links chunk into the list after the given chunk, or at the head if before is null
+     */
+    private void linkAfter(Chunk chunk, Chunk before)
+    {
+        chunk.prev = before;
+        if(before == null){
+            chunk.next = this.head;
+            this.head = chunk;
+        }else{
+            chunk.next = before.next;
+            before.next = chunk;
+        }
+        if(chunk.next == null){
+            this.tail = chunk;
+        }else{
+            chunk.next.prev = chunk;
+        }
+    }
+
+    private void unlink(Chunk chunk)
+    {
+        if(chunk.prev == null){
+            this.head = chunk.next;
+        }else{
+            chunk.prev.next = chunk.next;
+        }
+        if(chunk.next == null){
+            this.tail = chunk.prev;
+        }else{
+            chunk.next.prev = chunk.prev;
+        }
+    }
+}